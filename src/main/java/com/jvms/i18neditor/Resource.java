@@ -4,14 +4,23 @@ import java.nio.file.Path;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.function.Consumer;
 
 import com.google.common.base.Preconditions;
 import com.google.common.base.Strings;
-import com.google.common.collect.ImmutableSortedMap;
+import com.google.common.collect.Iterators;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import com.google.common.collect.PeekingIterator;
+import com.google.common.collect.Sets;
+import com.jvms.i18neditor.util.FileStamp;
+import com.jvms.i18neditor.util.PersistentSortedMap;
 import com.jvms.i18neditor.util.ResourceKeys;
+import com.jvms.i18neditor.util.ResourceLayout;
 
 /**
  * A resource is a container for storing i18n data and is defined by the following properties:
@@ -24,7 +33,8 @@ import com.jvms.i18neditor.util.ResourceKeys;
  * </ul>
  * 
  * <p>Objects can listen to a resource by adding a {@link ResourceListener} which 
- * will be called when any change is made to the {@code translations}.</p>
+ * will be called when any change is made to the {@code translations}. Each modification results in a single
+ * event, multiple modifications can be combined into a single event with {@link #batch(Consumer)}.</p>
  * 
  * @author Jacob van Mourik
  */
@@ -33,7 +43,14 @@ public class Resource {
 	private final Locale locale;
 	private final ResourceType type;
 	private final List<ResourceListener> listeners = Lists.newLinkedList();
-	private SortedMap<String,String> translations = Maps.newTreeMap();
+	private final Set<String> changedKeys = Sets.newLinkedHashSet();
+	// The translations before the first change which has not been notified yet
+	private PersistentSortedMap<String,String> unchangedTranslations;
+	private int batchDepth;
+	private volatile PersistentSortedMap<String,String> translations = PersistentSortedMap.empty();
+	private volatile SortedMap<String,String> savedTranslations = translations;
+	private volatile FileStamp fileStamp;
+	private volatile ResourceLayout layout;
 	
 	/**
 	 * See {@link #Resource(ResourceType, Path, Locale)}.
@@ -85,18 +102,107 @@ public class Resource {
 	/**
 	 * Gets a map of the translations of the resource.
 	 * 
-	 * <p>The returned map is an immutable sorted map. Modifications to the translations should be done via 
+	 * <p>The returned map is an immutable snapshot of the translations, taking a snapshot does not copy
+	 * the translations and later modifications will not be visible in the returned map. This makes it safe to 
+	 * read the snapshot from another thread. Modifications to the translations should be done via 
 	 * {@link #storeTranslation(String, String)}, {@link #removeTranslation(String)} or 
 	 * {@link #renameTranslation(String, String)}.</p>
 	 * 
 	 * @return 	the translations of the resource.
 	 */
 	public SortedMap<String,String> getTranslations() {
-		return ImmutableSortedMap.copyOf(translations);
+		return translations;
 	}
 	
 	public void setTranslations(SortedMap<String,String> translations) {
-		this.translations = translations;
+		this.translations = PersistentSortedMap.copyOf(translations);
+		this.savedTranslations = this.translations;
+	}
+	
+	/**
+	 * Whether the translations have been modified since they were last loaded or saved.
+	 * 
+	 * @return 	whether the resource is dirty.
+	 */
+	public boolean isDirty() {
+		return translations != savedTranslations;
+	}
+	
+	/**
+	 * Gets the snapshot of the translations as they were last loaded or saved.
+	 * 
+	 * @return 	the saved translations.
+	 */
+	public SortedMap<String,String> getSavedTranslations() {
+		return savedTranslations;
+	}
+	
+	/**
+	 * Marks the given snapshot of the translations as saved. 
+	 * The resource will only be clean afterwards if it has not been modified since the snapshot was taken.
+	 * 
+	 * @param 	translations the saved snapshot, as returned by {@link #getTranslations()}.
+	 */
+	public void markSaved(SortedMap<String,String> translations) {
+		this.savedTranslations = translations;
+	}
+	
+	/**
+	 * Gets the state of the resource file on disk when the translations were last loaded or saved.
+	 * 
+	 * @return 	the file stamp, may be {@code null}.
+	 */
+	public FileStamp getFileStamp() {
+		return fileStamp;
+	}
+	
+	public void setFileStamp(FileStamp fileStamp) {
+		this.fileStamp = fileStamp;
+	}
+	
+	/**
+	 * Gets the positions of the translations in the resource file as it was last loaded or saved.
+	 * 
+	 * @return 	the layout, may be {@code null}.
+	 */
+	public ResourceLayout getLayout() {
+		return layout;
+	}
+	
+	public void setLayout(ResourceLayout layout) {
+		this.layout = layout;
+	}
+	
+	/**
+	 * Gets a map of the translations of all child keys of the given key.
+	 * 
+	 * <p>The returned map is an immutable snapshot of the sorted key range of the given key,
+	 * it is retrieved without scanning all keys.</p>
+	 * 
+	 * @param 	key the parent key.
+	 * @return 	the translations of the child keys of the given key.
+	 */
+	public SortedMap<String,String> getChildTranslations(String key) {
+		return childTranslations(key);
+	}
+	
+	/**
+	 * Gets all existing keys of the resource's translations which are a parent key of the given key.
+	 * 
+	 * @param 	key the child key.
+	 * @return 	the existing parent keys of the given key, ordered from root to leaf.
+	 */
+	public List<String> getParentKeys(String key) {
+		List<String> result = Lists.newArrayList();
+		int index = key.indexOf('.');
+		while (index > 0) {
+			String parentKey = key.substring(0, index);
+			if (translations.containsKey(parentKey)) {
+				result.add(parentKey);
+			}
+			index = key.indexOf('.', index + 1);
+		}
+		return result;
 	}
 	
 	public boolean hasTranslation(String key) {
@@ -136,9 +242,9 @@ public class Resource {
 		removeParents(key);
 		removeChildren(key);
 		if (value.isEmpty()) {
-			translations.remove(key);
+			remove(key);
 		} else {
-			translations.put(key, value);
+			put(key, value);
 		}
 		notifyListeners();
 	}
@@ -151,7 +257,7 @@ public class Resource {
 	 */
 	public void removeTranslation(String key) {
 		removeChildren(key);
-		translations.remove(key);
+		remove(key);
 		notifyListeners();
 	}
 	
@@ -164,8 +270,7 @@ public class Resource {
 	 */
 	public void renameTranslation(String key, String newKey) {
 		checkKey(newKey);
-		duplicateTranslation(key, newKey, false);
-		notifyListeners();
+		batch(r -> duplicateTranslation(key, newKey, false));
 	}
 	
 	/**
@@ -176,10 +281,63 @@ public class Resource {
 	 */
 	public void duplicateTranslation(String key, String newKey) {
 		checkKey(newKey);
-		duplicateTranslation(key, newKey, true);
+		batch(r -> duplicateTranslation(key, newKey, true));
+	}
+	
+	/**
+	 * Performs multiple modifications of the translations as a single transaction.
+	 * The listeners will be notified once afterwards, with the combined changes of all modifications.
+	 * Batches may be nested, the listeners will then be notified at the end of the outermost batch.
+	 * 
+	 * @param 	action the modifications to perform on this resource.
+	 */
+	public void batch(Consumer<Resource> action) {
+		batchDepth++;
+		try {
+			action.accept(this);
+		} finally {
+			batchDepth--;
+			notifyListeners();
+		}
+	}
+	
+	/**
+	 * Applies changes which were made to the resource file outside of the editor.
+	 * 
+	 * <p>Unlike {@link #storeTranslation(String, String)} the keys are not validated, as they originate 
+	 * from the file itself. The given translations of the file become the saved translations of the resource, 
+	 * so the resource will be clean afterwards only if its translations are equal to them.</p>
+	 * 
+	 * @param 	changes the changed translations by key, a {@code null} value removes the translation.
+	 * @param 	saved the translations as currently stored in the resource file.
+	 */
+	public void reloadTranslations(Map<String,String> changes, SortedMap<String,String> saved) {
+		changes.forEach((key, value) -> {
+			removeParents(key);
+			removeChildren(key);
+			if (value == null) {
+				remove(key);
+			} else {
+				put(key, value);
+			}
+		});
+		savedTranslations = translations.equals(saved) ? translations : PersistentSortedMap.copyOf(saved);
 		notifyListeners();
 	}
 	
+	/**
+	 * Applies the given changes to the translations in a single batch.
+	 * 
+	 * <p>Unlike {@link #storeTranslation(String, String)} no parent or child keys will be removed, the changes 
+	 * should leave the translations consistent by themselves, such as changes computed on a copy of the 
+	 * translations of this resource.</p>
+	 * 
+	 * @param 	changes the changed translations by key, a {@code null} value removes the translation.
+	 */
+	public void applyChanges(Map<String,String> changes) {
+		batch(r -> putAll(changes));
+	}
+	
 	/**
 	 * Adds a listener to the resource. The listener will be called whenever there is made 
 	 * a change to the translations of the resource.
@@ -200,41 +358,149 @@ public class Resource {
 	}
 	
 	private void duplicateTranslation(String key, String newKey, boolean keepOld) {
-		Map<String,String> newTranslations = Maps.newTreeMap();
-		translations.keySet().forEach(k -> {
-			if (ResourceKeys.isChildKeyOf(k, key)) {
-				String nk = ResourceKeys.create(newKey, ResourceKeys.childKey(k, key));
-				newTranslations.put(nk, translations.get(k));
+		// The snapshot of the subtree stays the same while the translations are being modified
+		SortedMap<String,String> children = childTranslations(key);
+		String value = translations.get(key);
+		SortedMap<String,String> changes = Maps.newTreeMap();
+		if (!keepOld) {
+			children.keySet().forEach(k -> changes.put(k, null));
+			if (value != null) {
+				changes.put(key, null);
 			}
-		});
-		if (translations.containsKey(key)) {
-			newTranslations.put(newKey, translations.get(key));
 		}
-		if (!keepOld) {
-			removeChildren(key);
-			translations.remove(key);
+		if (!translations.subMap(newKey, newKey + "/").isEmpty() || !getParentKeys(newKey).isEmpty()) {
+			// Replacing the key preserves the order of the child keys, so the new keys are stored in order
+			if (value != null) {
+				storePendingTranslation(changes, newKey, value);
+			}
+			children.forEach((k, v) -> storePendingTranslation(changes, newKey + k.substring(key.length()), v));
+		} else {
+			// Nothing exists at the new key yet, so none of the new keys can conflict with an existing key
+			if (!Strings.isNullOrEmpty(value)) {
+				changes.put(newKey, value);
+			}
+			children.forEach((k, v) -> {
+				if (!v.isEmpty()) {
+					changes.put(newKey + k.substring(key.length()), v);
+				}
+			});
 		}
-		newTranslations.forEach(this::storeTranslation);
+		putAll(changes);
 	}
 	
-	private void removeChildren(String key) {
-		Lists.newLinkedList(translations.keySet()).forEach(k -> {
-			if (ResourceKeys.isChildKeyOf(k, key)) {
-				translations.remove(k);
+	/**
+	 * Stores a translation as {@link #storeTranslation(String, String)} would, but records the changes 
+	 * on top of the given pending changes instead of modifying the translations.
+	 */
+	private void storePendingTranslation(SortedMap<String,String> changes, String key, String value) {
+		String existing = changes.containsKey(key) ? changes.get(key) : translations.get(key);
+		if (existing == null && value.isEmpty() || 
+			existing != null && existing.equals(value)) {
+			return;
+		}
+		int index = key.indexOf('.');
+		while (index > 0) {
+			String parentKey = key.substring(0, index);
+			if (changes.get(parentKey) != null || !changes.containsKey(parentKey) && translations.containsKey(parentKey)) {
+				changes.put(parentKey, null);
 			}
-		});
+			index = key.indexOf('.', index + 1);
+		}
+		// Pending child keys can not exist yet, as keys are stored in order
+		childTranslations(key).keySet().forEach(k -> changes.put(k, null));
+		changes.put(key, value.isEmpty() ? null : value);
+	}
+	
+	private SortedMap<String,String> childTranslations(String key) {
+		// All child keys of a key lie in the range [key + ".", key + "/"), as '/' directly follows '.'
+		return translations.subMap(key + ".", key + "/");
+	}
+	
+	private void removeChildren(String key) {
+		childTranslations(key).keySet().forEach(this::remove);
 	}
 	
 	private void removeParents(String key) {
-		Lists.newLinkedList(translations.keySet()).forEach(k -> {
-			if (ResourceKeys.isChildKeyOf(key, k)) {
-				translations.remove(k);
+		getParentKeys(key).forEach(this::remove);
+	}
+	
+	private void put(String key, String value) {
+		key = ResourceKeys.intern(key);
+		update(key, translations.plus(key, value));
+	}
+	
+	private void remove(String key) {
+		update(key, translations.minus(key));
+	}
+	
+	private void putAll(Map<String,String> changes) {
+		if (changes.isEmpty()) {
+			return;
+		}
+		if (changes.size() < translations.size() / 8) {
+			changes.forEach((key, value) -> {
+				if (value == null) {
+					remove(key);
+				} else {
+					put(key, value);
+				}
+			});
+			return;
+		}
+		// Rebuilding the translations in a single merge is cheaper than modifying them key by key
+		SortedMap<String,String> sorted = changes instanceof SortedMap 
+				? (SortedMap<String,String>) changes 
+				: new TreeMap<>(changes);
+		List<Map.Entry<String,String>> entries = Lists.newArrayListWithCapacity(translations.size() + sorted.size());
+		PeekingIterator<Map.Entry<String,String>> it = Iterators.peekingIterator(translations.entrySet().iterator());
+		sorted.forEach((key, value) -> {
+			while (it.hasNext() && it.peek().getKey().compareTo(key) < 0) {
+				entries.add(it.next());
+			}
+			if (it.hasNext() && it.peek().getKey().equals(key)) {
+				it.next();
+			}
+			if (value != null) {
+				entries.add(Maps.immutableEntry(ResourceKeys.intern(key), value));
 			}
 		});
+		it.forEachRemaining(entries::add);
+		PersistentSortedMap<String,String> newTranslations = PersistentSortedMap.copyOfSorted(entries);
+		if (changedKeys.isEmpty()) {
+			unchangedTranslations = translations;
+		}
+		translations = newTranslations;
+		changedKeys.addAll(sorted.keySet());
+	}
+	
+	private void update(String key, PersistentSortedMap<String,String> newTranslations) {
+		if (newTranslations != translations) {
+			if (changedKeys.isEmpty()) {
+				unchangedTranslations = translations;
+			}
+			translations = newTranslations;
+			changedKeys.add(key);
+		}
 	}
 	
 	private void notifyListeners() {
-		listeners.forEach(l -> l.resourceChanged(new ResourceEvent(this)));
+		if (batchDepth > 0 || changedKeys.isEmpty()) {
+			return;
+		}
+		List<ResourceChange> changes = Lists.newArrayListWithCapacity(changedKeys.size());
+		changedKeys.forEach(key -> {
+			String oldValue = unchangedTranslations.get(key);
+			String newValue = translations.get(key);
+			if (!Objects.equals(oldValue, newValue)) {
+				changes.add(new ResourceChange(key, oldValue, newValue));
+			}
+		});
+		changedKeys.clear();
+		unchangedTranslations = null;
+		if (!changes.isEmpty()) {
+			ResourceEvent event = new ResourceEvent(this, changes);
+			listeners.forEach(l -> l.resourceChanged(event));
+		}
 	}
 	
 	private void checkKey(String key) {
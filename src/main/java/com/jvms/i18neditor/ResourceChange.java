@@ -0,0 +1,81 @@
+package com.jvms.i18neditor;
+
+import java.util.Objects;
+
+/**
+ * A change of a single translation of a {@link Resource}.
+ * 
+ * <p>A change holds the value of the translation before and after the change, a value of {@code null} means 
+ * the translation did not exist. Multiple changes of the same translation within a single event are combined 
+ * into one change, so the old value is the value before the first change and the new value the value after
+ * the last change.</p>
+ * 
+ * @author Jacob van Mourik
+ */
+public final class ResourceChange {
+	private final String key;
+	private final String oldValue;
+	private final String newValue;
+	
+	/**
+	 * The type of a change.
+	 */
+	public enum Type {
+		ADDED, REMOVED, CHANGED
+	}
+	
+	/**
+	 * Creates a change of a translation.
+	 * 
+	 * @param 	key the key of the translation.
+	 * @param 	oldValue the value before the change, or {@code null} if the translation was added.
+	 * @param 	newValue the value after the change, or {@code null} if the translation was removed.
+	 */
+	public ResourceChange(String key, String oldValue, String newValue) {
+		this.key = key;
+		this.oldValue = oldValue;
+		this.newValue = newValue;
+	}
+	
+	public String getKey() {
+		return key;
+	}
+	
+	public String getOldValue() {
+		return oldValue;
+	}
+	
+	public String getNewValue() {
+		return newValue;
+	}
+	
+	public Type getType() {
+		if (oldValue == null) {
+			return Type.ADDED;
+		}
+		return newValue == null ? Type.REMOVED : Type.CHANGED;
+	}
+	
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof ResourceChange)) {
+			return false;
+		}
+		ResourceChange other = (ResourceChange) obj;
+		return key.equals(other.key) && Objects.equals(oldValue, other.oldValue) && 
+				Objects.equals(newValue, other.newValue);
+	}
+	
+	@Override
+	public int hashCode() {
+		return Objects.hash(key, oldValue, newValue);
+	}
+	
+	@Override
+	public String toString() {
+		return getType() + " " + key + ": " + oldValue + " -> " + newValue;
+	}
+}
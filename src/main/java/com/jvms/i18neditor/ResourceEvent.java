@@ -1,20 +1,35 @@
 package com.jvms.i18neditor;
 
+import java.util.List;
+import java.util.Set;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+
 /**
  * An event wrapper for a {@link Resource}.
  * 
+ * <p>The event additionally holds the changes of the translations which were added, changed or removed, 
+ * see {@link ResourceChange}. A single event may hold the changes of multiple modifications, 
+ * see {@link Resource#batch(java.util.function.Consumer)}.</p>
+ * 
  * @author Jacob van Mourik
  */
 public class ResourceEvent {
 	private final Resource resource;
+	private final List<ResourceChange> changes;
+	private final Set<String> keys;
 	
 	/**
 	 * Creates an event object for a {@link Resource}.
 	 * 
 	 * @param 	resource the resource.
+	 * @param 	changes the changes of the translations, at most one for each key.
 	 */
-	public ResourceEvent(Resource resource) {
+	public ResourceEvent(Resource resource, List<ResourceChange> changes) {
 		this.resource = resource;
+		this.changes = ImmutableList.copyOf(changes);
+		this.keys = changes.stream().map(ResourceChange::getKey).collect(ImmutableSet.toImmutableSet());
 	}
 	
 	/**
@@ -25,4 +40,22 @@ public class ResourceEvent {
 	public Resource getResource() {
 		return resource;
 	}
+	
+	/**
+	 * Gets the changes of the translations in order of their first modification.
+	 * 
+	 * @return 	the changes.
+	 */
+	public List<ResourceChange> getChanges() {
+		return changes;
+	}
+	
+	/**
+	 * Gets the keys of the translations which were added, changed or removed.
+	 * 
+	 * @return 	the changed keys.
+	 */
+	public Set<String> getKeys() {
+		return keys;
+	}
 }
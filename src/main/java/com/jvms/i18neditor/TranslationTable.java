@@ -0,0 +1,171 @@
+package com.jvms.i18neditor;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.SortedMap;
+
+import com.google.common.base.Strings;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Iterators;
+import com.google.common.collect.Lists;
+import com.google.common.collect.PeekingIterator;
+
+/**
+ * An immutable table of the translations of multiple resources, with a row for each key and
+ * a column for each resource.
+ *
+ * <p>The table consists of a single sorted key axis, containing all keys of all resources, and a value column
+ * for each resource. The value of a key which does not exist in a resource is {@code null}. The table is built
+ * from the translation snapshots of the resources by a single merge of their sorted keys, later modifications
+ * of the resources will not be visible in the table.</p>
+ *
+ * @author Jacob van Mourik
+ */
+public final class TranslationTable {
+	private final List<Resource> resources;
+	private final String[] keys;
+	private final String[][] columns;
+	
+	private TranslationTable(List<Resource> resources, String[] keys, String[][] columns) {
+		this.resources = resources;
+		this.keys = keys;
+		this.columns = columns;
+	}
+	
+	/**
+	 * Creates a table of the current translations of the given resources.
+	 *
+	 * @param 	resources the resources, in column order.
+	 * @return 	the table.
+	 */
+	public static TranslationTable of(List<Resource> resources) {
+		List<SortedMap<String,String>> translations = Lists.newArrayList();
+		resources.forEach(r -> translations.add(r.getTranslations()));
+		
+		// Merge the sorted keys of all resources into the key axis
+		List<String> keys = Lists.newArrayList();
+		PriorityQueue<PeekingIterator<String>> queue = new PriorityQueue<>(Math.max(1, resources.size()),
+				(a, b) -> a.peek().compareTo(b.peek()));
+		translations.forEach(t -> {
+			if (!t.isEmpty()) {
+				queue.add(Iterators.peekingIterator(t.keySet().iterator()));
+			}
+		});
+		while (!queue.isEmpty()) {
+			PeekingIterator<String> it = queue.poll();
+			String key = it.next();
+			if (keys.isEmpty() || !keys.get(keys.size() - 1).equals(key)) {
+				keys.add(key);
+			}
+			if (it.hasNext()) {
+				queue.add(it);
+			}
+		}
+		String[] keyAxis = keys.toArray(new String[keys.size()]);
+		
+		// The keys of each resource are a subsequence of the key axis, so each column is filled in a single pass
+		String[][] columns = new String[resources.size()][keyAxis.length];
+		for (int c = 0; c < columns.length; c++) {
+			String[] column = columns[c];
+			int row = 0;
+			for (SortedMap.Entry<String,String> entry : translations.get(c).entrySet()) {
+				while (!keyAxis[row].equals(entry.getKey())) {
+					row++;
+				}
+				column[row++] = entry.getValue();
+			}
+		}
+		return new TranslationTable(ImmutableList.copyOf(resources), keyAxis, columns);
+	}
+	
+	/**
+	 * Gets the number of rows, which is the number of distinct keys.
+	 *
+	 * @return 	the number of rows.
+	 */
+	public int getRowCount() {
+		return keys.length;
+	}
+	
+	/**
+	 * Gets the number of columns, which is the number of resources.
+	 *
+	 * @return 	the number of columns.
+	 */
+	public int getColumnCount() {
+		return columns.length;
+	}
+	
+	/**
+	 * Gets the resources in column order.
+	 *
+	 * @return 	the resources.
+	 */
+	public List<Resource> getResources() {
+		return resources;
+	}
+	
+	/**
+	 * Gets all keys in natural order.
+	 *
+	 * @return 	an unmodifiable list of the keys.
+	 */
+	public List<String> getKeys() {
+		return Collections.unmodifiableList(Arrays.asList(keys));
+	}
+	
+	public String getKey(int row) {
+		return keys[row];
+	}
+	
+	/**
+	 * Gets the row of the given key.
+	 *
+	 * @param 	key the key.
+	 * @return 	the row of the key, or a negative value if the key does not exist,
+	 * 			see {@link Arrays#binarySearch(Object[], Object)}.
+	 */
+	public int indexOf(String key) {
+		return Arrays.binarySearch(keys, key);
+	}
+	
+	/**
+	 * Gets the value of a key in a resource.
+	 *
+	 * @param 	row the row of the key.
+	 * @param 	column the column of the resource.
+	 * @return 	the value or {@code null} if the key does not exist in the resource.
+	 */
+	public String getValue(int row, int column) {
+		return columns[column][row];
+	}
+	
+	/**
+	 * Checks whether the given key has a translation in each resource.
+	 *
+	 * @param 	row the row of the key.
+	 * @return 	whether the key is translated in all resources.
+	 */
+	public boolean isComplete(int row) {
+		for (String[] column : columns) {
+			if (Strings.isNullOrEmpty(column[row])) {
+				return false;
+			}
+		}
+		return true;
+	}
+	
+	/**
+	 * Gets an iterator over the values of a resource in key order, including {@code null} values for
+	 * keys which do not exist in the resource.
+	 *
+	 * @param 	column the column of the resource.
+	 * @return 	the values.
+	 */
+	public Iterator<String> getColumn(int column) {
+		return Iterators.forArray(columns[column]);
+	}
+}
@@ -14,20 +14,29 @@ import java.awt.event.MouseEvent;
 import java.awt.event.WindowAdapter;
 import java.awt.event.WindowEvent;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.SortedMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ExecutionException;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import javax.swing.BorderFactory;
 import javax.swing.Box;
@@ -49,27 +58,35 @@ import javax.swing.plaf.basic.BasicSplitPaneDivider;
 import javax.swing.plaf.basic.BasicSplitPaneUI;
 import javax.swing.tree.TreePath;
 
-import org.apache.commons.lang3.LocaleUtils;
 import org.apache.commons.lang3.SystemUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.google.common.base.Joiner;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
 import com.jvms.i18neditor.Resource;
 import com.jvms.i18neditor.ResourceType;
+import com.jvms.i18neditor.TranslationTable;
 import com.jvms.i18neditor.swing.JFileDrop;
 import com.jvms.i18neditor.swing.JScrollablePanel;
 import com.jvms.i18neditor.swing.util.Dialogs;
 import com.jvms.i18neditor.util.Colors;
 import com.jvms.i18neditor.util.ExtendedProperties;
+import com.jvms.i18neditor.util.FileStamp;
+import com.jvms.i18neditor.util.FileWatcher;
 import com.jvms.i18neditor.util.GithubRepoUtil;
 import com.jvms.i18neditor.util.GithubRepoUtil.GithubRepoReleaseData;
 import com.jvms.i18neditor.util.Images;
+import com.jvms.i18neditor.util.MemoryMonitor;
 import com.jvms.i18neditor.util.MessageBundle;
 import com.jvms.i18neditor.util.ResourceKeys;
+import com.jvms.i18neditor.util.ResourceSnapshots;
 import com.jvms.i18neditor.util.Resources;
+import com.jvms.i18neditor.util.TaskScheduler;
+import com.jvms.i18neditor.util.TaskScheduler.Priority;
 
 /**
  * This class represents the main class of the editor.
@@ -85,12 +102,18 @@ public class Editor extends JFrame {
 	public final static String GITHUB_REPO = "jcbvm/i18n-editor";
 	public final static String DEFAULT_RESOURCE_NAME = "translations";
 	public final static String PROJECT_FILE = ".i18n-editor-metadata";
+	public final static String SNAPSHOT_FILE = ".i18n-editor-snapshot";
 	public final static String SETTINGS_FILE = ".i18n-editor";
 	public final static String SETTINGS_DIR = System.getProperty("user.home");
+	public final static long RELOAD_DELAY = 300;
+	public final static double MEMORY_THRESHOLD = .75;
 	
 	private EditorProject project;
+	private EditorWorkspace workspace;
+	private MemoryMonitor memoryMonitor;
 	private EditorSettings settings = new EditorSettings();
-	private ExecutorService executor = Executors.newFixedThreadPool(2);
+	private TaskScheduler scheduler = new TaskScheduler("editor-task", Math.max(2, Runtime.getRuntime().availableProcessors()));
+	private FileWatcher fileWatcher;
 	private boolean dirty;
 	
 	private EditorMenuBar editorMenu;
@@ -139,6 +162,7 @@ public class Editor extends JFrame {
 				Resource resource = Resources.create(dir, type, Optional.empty(), project.getResourceName());
 				setupResource(resource);
 				project.addResource(resource);
+				watchProject();
 			} else {
 				SwingUtilities.invokeLater(() -> showAddLocaleDialog());
 			}
@@ -165,14 +189,23 @@ public class Editor extends JFrame {
 			project = new EditorProject(dir);
 			restoreProjectState(project);
 			
+			// Find and load the resource files in the background, the results are published on the calling thread
 			Optional<ResourceType> type = Optional.ofNullable(project.getResourceType());
-			List<Resource> resourceList = Resources.get(dir, project.getResourceName(), type);
-			Map<String,String> keys = Maps.newTreeMap();
+			String resourceName = project.getResourceName();
+			int resourceDepth = project.getResourceDepth();
+			CompletableFuture<List<Resource>> discovery = scheduler.submit(Priority.USER_BLOCKING, 
+					() -> Resources.get(dir, resourceName, type, resourceDepth));
+			if (!showProgressDialog("resources.import.progress", Lists.newArrayList(discovery))) {
+				cancelImport();
+				return;
+			}
+			List<Resource> resourceList = discovery.join();
+			TranslationTreeModel model = new TranslationTreeModel();
 			
 			if (resourceList.isEmpty()) {
 				project = null;
 				if (showEmptyProjectError) {
-					executor.execute(() -> showError(MessageBundle.get("resources.import.empty", dir)));
+					SwingUtilities.invokeLater(() -> showError(MessageBundle.get("resources.import.empty", dir)));
 				}
 			} else {
 				project.setResourceType(type.orElseGet(() -> {
@@ -180,42 +213,122 @@ public class Editor extends JFrame {
 					resourceList.removeIf(r -> r.getType() != t);
 					return t;
 				}));
-				resourceList.forEach(resource -> {
-					try {
-						Resources.load(resource);
-						setupResource(resource);
-						project.addResource(resource);
-					} catch (IOException e) {
-						log.error("Error importing resource file " + resource.getPath(), e);
-						showError(MessageBundle.get("resources.import.error.single", resource.getPath().toString()));
-					}
-				});
-				project.getResources().forEach(r -> keys.putAll(r.getTranslations()));
+				
+				// Restore unchanged resources from the snapshot first, then load all other resources
+				CompletableFuture<Set<Resource>> snapshot = scheduler.submit(Priority.USER_BLOCKING, 
+						() -> restoreProjectSnapshot(dir, resourceList));
+				TranslationTable table = loadResources(resourceList, snapshot);
+				if (table == null) {
+					cancelImport();
+					return;
+				}
+				CompletableFuture<TranslationTreeModel> tableModel = scheduler.submit(Priority.USER_BLOCKING, 
+						() -> new TranslationTreeModel(table.getKeys()));
+				if (!showProgressDialog("resources.import.progress", Lists.newArrayList(tableModel))) {
+					cancelImport();
+					return;
+				}
+				table.getResources().forEach(this::setupResource);
+				project.setResources(table);
+				model = tableModel.join();
 			}
-			translationTree.setModel(new TranslationTreeModel(Lists.newArrayList(keys.keySet())));
+			translationTree.setModel(model);
 			
-			updateTreeNodeStatuses();
+			if (project != null) {
+				updateTreeNodeStatuses();
+				watchProject();
+			}
 			updateHistory();
 			updateUI();
 			requestFocusInFirstResourceField();
-		} catch (IOException e) {
-			log.error("Error importing resource files", e);
+		} catch (CompletionException e) {
+			log.error("Error importing resource files", e.getCause());
+			showError(MessageBundle.get("resources.import.error.multiple"));
+		}
+	}
+	
+	/**
+	 * Opens all resource bundles within the given directory as a workspace.
+	 * 
+	 * <p>Opening a workspace only reads the directory tree, the translations of a bundle are loaded when its node
+	 * in the translation tree is loaded for the first time. Loaded bundles which are not being edited are evicted 
+	 * again when the editor is running low on memory.</p>
+	 * 
+	 * @param 	dir the root directory of the workspace.
+	 */
+	public void openWorkspace(Path dir) {
+		try {
+			Preconditions.checkArgument(Files.isDirectory(dir));
+			
+			if (!closeCurrentProject()) {
+				return;
+			}
+			
+			clearUI();
+			project = null;
+			// The metadata of a project within the directory applies to all bundles
+			EditorProject metadata = new EditorProject(dir);
+			restoreProjectState(metadata);
+			
+			int resourceDepth = metadata.getResourceDepth();
+			CompletableFuture<SortedMap<String,List<Resource>>> discovery = scheduler.submit(Priority.USER_BLOCKING, 
+					() -> Resources.getBundles(dir, Optional.empty(), resourceDepth));
+			if (!showProgressDialog("resources.import.progress", Lists.newArrayList(discovery))) {
+				cancelImport();
+				return;
+			}
+			SortedMap<String,List<Resource>> bundles = discovery.join();
+			if (bundles.isEmpty()) {
+				SwingUtilities.invokeLater(() -> showError(MessageBundle.get("resources.import.empty", dir)));
+				updateUI();
+				return;
+			}
+			
+			workspace = new EditorWorkspace(dir, bundles);
+			workspace.setMinifyResources(metadata.isMinifyResources());
+			translationTree.setModel(new TranslationTreeModel(bundles.keySet(), this::loadBundle));
+			memoryMonitor = new MemoryMonitor(MEMORY_THRESHOLD, () -> SwingUtilities.invokeLater(this::evictIdleBundles));
+			watchProject();
+			updateUI();
+		} catch (CompletionException e) {
+			log.error("Error opening workspace", e.getCause());
 			showError(MessageBundle.get("resources.import.error.multiple"));
 		}
 	}
 	
 	public boolean saveProject() {
 		boolean error = false;
-		if (project != null) {
-			for (Resource resource : project.getResources()) {
-				try {
-					Resources.write(resource, !project.isMinifyResources());
-				} catch (IOException e) {
-					error = true;
-					log.error("Error saving resource file " + resource.getPath(), e);
-					showError(MessageBundle.get("resources.write.error.single", resource.getPath().toString()));
+		commitResourceFields();
+		if (project != null || workspace != null) {
+			// Only write the resources which have been modified, concurrently
+			List<Resource> resourceList = Lists.newArrayList();
+			List<CompletableFuture<Void>> tasks = Lists.newArrayList();
+			List<EditorProject> projects = workspace == null ? Lists.newArrayList(project) : workspace.getProjects();
+			projects.forEach(p -> {
+				boolean prettyPrinting = !p.isMinifyResources();
+				p.getResources().stream().filter(Resource::isDirty).forEach(resource -> {
+					resourceList.add(resource);
+					tasks.add(scheduler.run(Priority.USER_BLOCKING, () -> writeResource(resource, prettyPrinting)));
+				});
+			});
+			
+			// Resources of which writing has been cancelled stay dirty, so the project is not saved completely
+			error = !showProgressDialog("resources.write.progress", tasks);
+			List<String> errors = Lists.newArrayList();
+			for (int i = 0; i < resourceList.size(); i++) {
+				Resource resource = resourceList.get(i);
+				CompletableFuture<Void> task = tasks.get(i);
+				if (!task.isCancelled()) {
+					try {
+						task.join();
+					} catch (CompletionException e) {
+						log.error("Error saving resource file " + resource.getPath(), e.getCause());
+						errors.add(resource.getPath().toString());
+					}
 				}
 			}
+			showFileErrors("resources.write.error", errors);
+			error |= !errors.isEmpty();
 		}
 		if (dirty) {
 			setDirty(error);			
@@ -224,7 +337,9 @@ public class Editor extends JFrame {
 	}
 	
 	public void reloadProject() {
-		if (project != null) {
+		if (workspace != null) {
+			openWorkspace(workspace.getPath());
+		} else if (project != null) {
 			importProject(project.getPath(), true);			
 		}
 	}
@@ -257,44 +372,95 @@ public class Editor extends JFrame {
 		if (node != null) {
 			translationTree.setSelectionNode(node);
 		} else {
-			if (project != null) {
-				project.getResources().forEach(resource -> resource.storeTranslation(key, ""));				
-			}
-			translationTree.addNodeByKey(key);			
+			applyKeyOperation(key, null, k -> TranslationOperation.add(k.apply(key)));
 		}
 		requestFocusInFirstResourceField();
 	}
 	
 	public void removeTranslationKey(String key) {
-		if (project != null) {
-			project.getResources().forEach(resource -> resource.removeTranslation(key));
-		}
-		translationTree.removeNodeByKey(key);
+		applyKeyOperation(key, null, k -> TranslationOperation.remove(Lists.newArrayList(k.apply(key))));
 		requestFocusInFirstResourceField();
 	}
 	
 	public void renameTranslationKey(String key, String newKey) {
-		if (project != null) {
-			project.getResources().forEach(resource -> resource.renameTranslation(key, newKey));
-		}
-		translationTree.renameNodeByKey(key, newKey);
+		applyKeyOperation(key, newKey, k -> TranslationOperation.rename(k.apply(key), k.apply(newKey)));
 		requestFocusInFirstResourceField();
 	}
 	
 	public void duplicateTranslationKey(String key, String newKey) {
-		if (project != null) {
-			project.getResources().forEach(resource -> resource.duplicateTranslation(key, newKey));
-		}
-		translationTree.duplicateNodeByKey(key, newKey);
+		applyKeyOperation(key, newKey, k -> TranslationOperation.duplicate(k.apply(key), k.apply(newKey)));
 		requestFocusInFirstResourceField();
 	}
 	
+	/**
+	 * Applies the given operations to all resources of the current project and to the translation tree.
+	 * The changes are computed for all resources concurrently and applied once they are all computed,
+	 * after which the statuses of the tree nodes are updated once.
+	 * 
+	 * @param 	operations the operations to apply, in order.
+	 */
+	public void applyTranslationOperations(TranslationOperation... operations) {
+		commitResourceFields();
+		if (project == null) {
+			Arrays.stream(operations).forEach(operation -> operation.apply(translationTree));
+			return;
+		}
+		TranslationOperationPlan plan = TranslationOperationPlan.create(project.getResources(), 
+				Arrays.asList(operations), scheduler.executor(Priority.USER_BLOCKING));
+		if (!showProgressDialog("translations.operations.progress", plan.getTasks())) {
+			return;
+		}
+		try {
+			plan.apply();
+			plan.apply(translationTree);
+		} catch (CompletionException e) {
+			log.error("Error applying translation operations", e.getCause());
+			showError(MessageBundle.get("translations.operations.error"));
+			return;
+		}
+		updateTreeNodeStatuses();
+	}
+	
+	/**
+	 * Applies the operation created by the given function to the keys of the operation.
+	 * In a workspace both keys have to be within the same bundle, the operation is applied to the resources 
+	 * of that bundle with the keys of the bundle and to the translation tree with the given keys.
+	 */
+	private void applyKeyOperation(String key, String newKey, 
+			Function<UnaryOperator<String>,TranslationOperation> operation) {
+		if (workspace == null) {
+			applyTranslationOperations(operation.apply(UnaryOperator.identity()));
+			return;
+		}
+		String name = workspace.getBundleName(key);
+		if (name == null || ResourceKeys.size(key) < 2 || newKey != null 
+				&& (!name.equals(workspace.getBundleName(newKey)) || ResourceKeys.size(newKey) < 2)) {
+			showError(MessageBundle.get("dialogs.translation.bundle.error"));
+			return;
+		}
+		TranslationTreeModel model = (TranslationTreeModel) translationTree.getModel();
+		if (model.isUnloaded(name)) {
+			model.loadChildren(model.getNodeByKey(name));
+		}
+		if (workspace.getProject(name) == null) {
+			return;
+		}
+		activateBundle(name);
+		applyTranslationOperations(TranslationOperation.of(
+				operation.apply(workspace::toBundleKey), operation.apply(UnaryOperator.identity())));
+	}
+	
 	public void addResource(Resource resource) {
 		setupResource(resource);
 		updateUI();
-		if (project != null) {
+		if (workspace != null) {
+			workspace.addResource(project.getResourceName(), resource);
+			updateTreeNodeStatuses();
+			watchProject();
+		} else if (project != null) {
 			project.addResource(resource);
 			updateTreeNodeStatuses();
+			watchProject();
 		}
 	}
 	
@@ -302,6 +468,10 @@ public class Editor extends JFrame {
 		return project;
 	}
 	
+	public EditorWorkspace getWorkspace() {
+		return workspace;
+	}
+	
 	public EditorSettings getSettings() {
 		return settings;
 	}
@@ -348,10 +518,35 @@ public class Editor extends JFrame {
 		}
 	}
 	
+	public void showOpenWorkspaceDialog() {
+		String path = null;
+		if (workspace != null) {
+			path = workspace.getPath().toString();
+		} else if (project != null) {
+			path = project.getPath().toString();
+		}
+		JFileChooser fc = new JFileChooser(path);
+		fc.setDialogTitle(MessageBundle.get("dialogs.workspace.open.title"));
+		fc.setFileSelectionMode(JFileChooser.DIRECTORIES_ONLY);
+		int result = fc.showOpenDialog(this);
+		if (result == JFileChooser.APPROVE_OPTION) {
+			openWorkspace(Paths.get(fc.getSelectedFile().getPath()));
+		}
+	}
+	
 	public void showAddLocaleDialog() {
+		if (project == null) {
+			showError(MessageBundle.get("dialogs.locale.add.error.bundle"));
+			return;
+		}
 		String localeString = "";
-		Path path = project.getPath();
+		// New locales are created next to the existing resources, which may be below the project directory
+		Path path = project.getResources().stream()
+				.findFirst()
+				.map(Resources::getBundleDir)
+				.orElse(project.getPath());
 		ResourceType type = project.getResourceType();
+		String baseName = workspace != null ? workspace.toBaseName(project.getResourceName()) : project.getResourceName();
 		while (localeString != null && localeString.isEmpty()) {
 			localeString = Dialogs.showInputDialog(this,
 					MessageBundle.get("dialogs.locale.add.title", type),
@@ -363,8 +558,8 @@ public class Editor extends JFrame {
 					showError(MessageBundle.get("dialogs.locale.add.error.invalid"));
 				} else {
 					try {
-						Locale locale = LocaleUtils.toLocale(localeString);
-						Resource resource = Resources.create(path, type, Optional.of(locale), project.getResourceName());
+						Locale locale = Resources.toLocale(localeString);
+						Resource resource = Resources.create(path, type, Optional.of(locale), baseName);
 						addResource(resource);
 					} catch (IOException e) {
 						log.error("Error creating new locale", e);
@@ -486,7 +681,7 @@ public class Editor extends JFrame {
 	}
 	
 	public void showVersionDialog(boolean newVersionOnly) {
-		executor.execute(() -> {
+		scheduler.run(Priority.BACKGROUND, () -> {
 			GithubRepoReleaseData data;
 			String content;
 			try {
@@ -503,12 +698,15 @@ public class Editor extends JFrame {
 			} else {
 				return;
 			}
-			Dialogs.showHtmlDialog(this, MessageBundle.get("dialogs.version.title"), content);		
+			SwingUtilities.invokeLater(() -> {
+				Dialogs.showHtmlDialog(this, MessageBundle.get("dialogs.version.title"), content);
+			});
 		});
 	}
 	
 	public boolean closeCurrentProject() {
 		boolean result = true;
+		commitResourceFields();
 		if (dirty) {
 			int confirm = JOptionPane.showConfirmDialog(this, 
 					MessageBundle.get("dialogs.save.text"), 
@@ -520,8 +718,17 @@ public class Editor extends JFrame {
 				result = confirm != JOptionPane.CANCEL_OPTION;
 			}
 		}
-		if (result && project != null) {
+		if (result && workspace != null) {
+			// The bundles of a workspace are not stored as a project
+			unwatchProject();
+			memoryMonitor.close();
+			memoryMonitor = null;
+			workspace = null;
+			project = null;
+		} else if (result && project != null) {
+			unwatchProject();
 			storeProjectState();
+			storeProjectSnapshot();
 		}
 		if (result && dirty) {
 			setDirty(false);
@@ -530,11 +737,12 @@ public class Editor extends JFrame {
 	}
 	
 	public void openProjectDirectory() {
-		if (project == null) return;
+		if (project == null && workspace == null) return;
+		Path path = workspace != null ? workspace.getPath() : project.getPath();
 		try {
-			Desktop.getDesktop().open(project.getPath().toFile());
+			Desktop.getDesktop().open(path.toFile());
 		} catch (IOException ex) {
-			log.error("Unable to open project directory " + project.getPath(), ex);
+			log.error("Unable to open project directory " + path, ex);
 		}
 	}
 	
@@ -589,7 +797,7 @@ public class Editor extends JFrame {
 		resourceFields.forEach(field -> {
 			Locale locale = field.getResource().getLocale();
 			String label = locale != null ? locale.getDisplayName() : MessageBundle.get("resources.locale.default");
-			field.setEnabled(selectedNode != null && selectedNode.isEditable());
+			field.setEnabled(selectedNode != null && isEditable(selectedNode));
 			field.setRows(settings.getDefaultInputHeight());
 			resourcesPanel.add(Box.createVerticalStrut(5));
 			resourcesPanel.add(new JLabel(label));
@@ -599,13 +807,13 @@ public class Editor extends JFrame {
 		});
 		
 		Container container = getContentPane();
-		if (project != null) {
+		if (project != null || workspace != null) {
 			container.add(contentPane);
 			container.remove(introText);
-			List<Resource> resources = project.getResources();
+			boolean editable = workspace != null || project.hasResources();
 			editorMenu.setEnabled(true);
-			editorMenu.setEditable(!resources.isEmpty());
-			translationField.setEditable(!resources.isEmpty());
+			editorMenu.setEditable(editable);
+			translationField.setEditable(editable);
 		} else {
 			container.add(introText);
 			container.remove(contentPane);
@@ -622,6 +830,10 @@ public class Editor extends JFrame {
 		repaint();
 	}
 	
+	private void commitResourceFields() {
+		resourceFields.forEach(ResourceField::commit);
+	}
+	
 	private void requestFocusInFirstResourceField() {
 		resourceFields.stream().findFirst().ifPresent(f -> {
 			f.requestFocusInWindow();
@@ -783,14 +995,21 @@ public class Editor extends JFrame {
 	
 	private void setupResource(Resource resource) {
 		resource.addListener(e -> setDirty(true));
+		setupResourceField(resource);
+	}
+	
+	private void setupResourceField(Resource resource) {
+		EditorProject project = this.project;
 		ResourceField field = new ResourceField(resource);
-		field.addKeyListener(new ResourceFieldKeyListener());
+		field.addPropertyChangeListener(ResourceField.COMMIT_PROPERTY, 
+				e -> updateTreeNodeStatus(project, (String) e.getNewValue()));
 		resourceFields.add(field);
 	}
 	
 	private void updateHistory() {
 		List<String> recentDirs = settings.getHistory();
-		if (project != null) {
+		// The bundles of a workspace are not projects of their own
+		if (project != null && workspace == null) {
 			String path = project.getPath().toString();
 			recentDirs.remove(path);
 			recentDirs.add(path);
@@ -805,37 +1024,345 @@ public class Editor extends JFrame {
 	private void updateTitle() {
 		String dirtyPart = dirty ? "*" : "";
 		String projectPart = "";
-		if (project != null) {
+		if (workspace != null) {
+			projectPart = workspace.getPath().toString() + " - ";
+		} else if (project != null) {
 			projectPart = project.getPath().toString() + " [" + project.getResourceType() + "] - ";
 		}
 		setTitle(dirtyPart + projectPart + TITLE);
 	}
 	
+	private void loadResource(Resource resource) {
+		try {
+			Resources.load(resource);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+	
+	private void writeResource(Resource resource, boolean prettyPrinting) {
+		try {
+			Resources.write(resource, prettyPrinting);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+	
+	/**
+	 * Loads the given resources concurrently while showing a progress dialog, the resources which could not 
+	 * be loaded are reported and left out of the result.
+	 * 
+	 * <p>The keys of all loaded resources are merged once into a translation table, for both the missing
+	 * translation index and the tree.</p>
+	 * 
+	 * @param 	resourceList the resources to load.
+	 * @param 	restored a future of the resources which have already been restored and do not have to be loaded.
+	 * @return 	the table of the loaded resources, or {@code null} if loading has been cancelled.
+	 */
+	private TranslationTable loadResources(List<Resource> resourceList, CompletableFuture<Set<Resource>> restored) {
+		List<CompletableFuture<Void>> tasks = resourceList.stream()
+				.map(resource -> restored.thenCompose(done -> done.contains(resource) 
+						? CompletableFuture.<Void>completedFuture(null)
+						: scheduler.run(Priority.USER_BLOCKING, () -> loadResource(resource))))
+				.collect(Collectors.toList());
+		CompletableFuture<TranslationTable> table = CompletableFuture
+				.allOf(tasks.toArray(new CompletableFuture<?>[0]))
+				.handle((result, e) -> IntStream.range(0, tasks.size())
+						.filter(i -> !tasks.get(i).isCompletedExceptionally())
+						.mapToObj(resourceList::get)
+						.collect(Collectors.toList()))
+				.thenCompose(loaded -> scheduler.submit(Priority.USER_BLOCKING, () -> TranslationTable.of(loaded)));
+		
+		List<CompletableFuture<?>> allTasks = Lists.newArrayList(restored);
+		allTasks.addAll(tasks);
+		allTasks.add(table);
+		if (!showProgressDialog("resources.import.progress", allTasks)) {
+			return null;
+		}
+		
+		List<String> errors = Lists.newArrayList();
+		for (int i = 0; i < resourceList.size(); i++) {
+			try {
+				tasks.get(i).join();
+			} catch (CompletionException e) {
+				log.error("Error importing resource file " + resourceList.get(i).getPath(), e.getCause());
+				errors.add(resourceList.get(i).getPath().toString());
+			}
+		}
+		showFileErrors("resources.import.error", errors);
+		return table.join();
+	}
+	
+	/**
+	 * Loads the resources of a bundle of the current workspace, this is the loader of the translation tree.
+	 * 
+	 * @param 	name the name of the bundle.
+	 * @return 	the keys of the bundle within the translation tree, or {@code null} if loading has been cancelled.
+	 */
+	private Collection<String> loadBundle(String name) {
+		TranslationTable loaded = loadResources(workspace.createResources(name), 
+				CompletableFuture.completedFuture(Sets.newHashSet()));
+		if (loaded == null) {
+			return null;
+		}
+		loaded.getResources().forEach(resource -> resource.addListener(e -> setDirty(true)));
+		workspace.load(name, loaded);
+		updateTreeNodeStatuses();
+		watchProject();
+		return loaded.getKeys().stream()
+				.map(key -> workspace.toKey(name, key))
+				.collect(Collectors.toList());
+	}
+	
+	/**
+	 * Makes the given bundle of the current workspace the project being edited.
+	 * 
+	 * @param 	name the name of the bundle, or {@code null} for none.
+	 */
+	private void activateBundle(String name) {
+		EditorProject bundle = workspace.getProject(name);
+		if (bundle == project) {
+			return;
+		}
+		commitResourceFields();
+		project = bundle;
+		resourceFields.clear();
+		if (project != null) {
+			project.getResources().forEach(this::setupResourceField);
+		}
+		updateUI();
+	}
+	
+	/**
+	 * Evicts the loaded bundles of the current workspace which are not being edited, that is bundles which are 
+	 * not the current project, have no unsaved changes and of which the node in the translation tree is collapsed.
+	 */
+	private void evictIdleBundles() {
+		if (workspace == null) {
+			return;
+		}
+		TranslationTreeModel model = (TranslationTreeModel) translationTree.getModel();
+		List<String> evicted = Lists.newArrayList();
+		workspace.getProjects().forEach(bundle -> {
+			String name = bundle.getResourceName();
+			TranslationTreeNode node = model.getNodeByKey(name);
+			if (bundle != project && node != null && !translationTree.isExpanded(new TreePath(node.getPath()))
+					&& bundle.getResources().stream().noneMatch(Resource::isDirty)) {
+				workspace.evict(name);
+				model.unloadKeys(name);
+				evicted.add(name);
+			}
+		});
+		if (!evicted.isEmpty()) {
+			log.info("Evicted bundles " + evicted + " to release memory");
+			updateTreeNodeStatuses();
+			watchProject();
+		}
+	}
+	
+	private void watchProject() {
+		unwatchProject();
+		Object session = getSession();
+		Map<Path,Resource> resources = Maps.uniqueIndex(getResources(), Resource::getPath);
+		try {
+			fileWatcher = new FileWatcher(resources.keySet(), RELOAD_DELAY, 
+					paths -> scheduler.run(Priority.USER_VISIBLE, () -> reloadChangedResources(session, resources, paths)));
+		} catch (IOException e) {
+			log.error("Error watching resource files", e);
+		}
+	}
+	
+	private void unwatchProject() {
+		if (fileWatcher != null) {
+			try {
+				fileWatcher.close();
+			} catch (IOException e) {
+				log.error("Error closing file watcher", e);
+			}
+			fileWatcher = null;
+		}
+	}
+	
+	private void reloadChangedResources(Object session, Map<Path,Resource> resources, Set<Path> paths) {
+		// Called on the watcher thread, files which still match the stamp of their resource 
+		// have been written by the editor itself or were only touched
+		List<Resource> changed = Lists.newArrayList();
+		List<Resource> reloaded = Lists.newArrayList();
+		for (Path path : paths) {
+			Resource resource = resources.get(path);
+			FileStamp fileStamp = resource.getFileStamp();
+			try {
+				if (!Files.exists(path) || fileStamp != null && fileStamp.matches(path)) {
+					continue;
+				}
+				Resource copy = new Resource(resource.getType(), path, resource.getLocale());
+				Resources.load(copy);
+				changed.add(resource);
+				reloaded.add(copy);
+			} catch (IOException | RuntimeException e) {
+				// The file may still be written to, it will be reloaded with the next change
+				log.warn("Error reloading resource file " + path, e);
+			}
+		}
+		if (!changed.isEmpty()) {
+			SwingUtilities.invokeLater(() -> {
+				if (getSession() == session) {
+					applyReloadedResources(changed, reloaded);
+				}
+			});
+		}
+	}
+	
+	private void applyReloadedResources(List<Resource> changed, List<Resource> reloaded) {
+		// Pending edits are committed first, so they take part in merging the changes made on disk
+		commitResourceFields();
+		NavigableSet<String> keys = Sets.newTreeSet();
+		for (int i = 0; i < changed.size(); i++) {
+			EditorProject owner = workspace == null ? project : workspace.getProject(changed.get(i));
+			if (owner != null) {
+				mergeResource(changed.get(i), reloaded.get(i)).forEach(key -> keys.add(toTreeKey(owner, key)));
+			}
+		}
+		
+		// Apply the changed keys to the tree, keeping all other nodes and their expansion state
+		keys.forEach(key -> {
+			EditorProject owner = workspace == null ? project : workspace.getProject(workspace.getBundleName(key));
+			String resourceKey = toResourceKey(key);
+			boolean exists = owner.getResources().stream()
+					.anyMatch(r -> r.getTranslation(resourceKey) != null || !r.getChildTranslations(resourceKey).isEmpty());
+			TranslationTreeNode node = translationTree.getNodeByKey(key);
+			if (exists && node == null) {
+				translationTree.addNodeByKey(key);
+			} else if (!exists && node != null) {
+				translationTree.removeNodeByKey(key);
+			}
+		});
+		updateTreeNodeStatuses();
+		
+		TranslationTreeNode node = translationTree.getSelectionNode();
+		if (node != null && keys.contains(node.getKey())) {
+			resourceFields.stream()
+				.filter(f -> changed.contains(f.getResource()))
+				.forEach(f -> f.setValue(toResourceKey(node.getKey())));
+		}
+		setDirty(getResources().stream().anyMatch(Resource::isDirty));
+	}
+	
+	private Set<String> mergeResource(Resource resource, Resource reloaded) {
+		SortedMap<String,String> saved = resource.getSavedTranslations();
+		SortedMap<String,String> translations = resource.getTranslations();
+		SortedMap<String,String> disk = reloaded.getTranslations();
+		Map<String,String> changes;
+		if (!resource.isDirty()) {
+			changes = Resources.diff(translations, disk);
+		} else {
+			int option = Dialogs.showOptionDialog(this, 
+					MessageBundle.get("dialogs.reload.title"), 
+					MessageBundle.get("dialogs.reload.text", resource.getPath()),
+					MessageBundle.get("dialogs.reload.merge"), 
+					MessageBundle.get("dialogs.reload.discard"), 
+					MessageBundle.get("dialogs.reload.keep"));
+			if (option == 0) {
+				// Apply all changes made on disk, except for the keys which have been modified in the editor as well
+				changes = Resources.diff(saved, disk);
+				changes.keySet().removeIf(key -> !Objects.equals(translations.get(key), saved.get(key)));
+			} else if (option == 1) {
+				changes = Resources.diff(translations, disk);
+			} else {
+				changes = Maps.newHashMap();
+			}
+		}
+		resource.reloadTranslations(changes, disk);
+		resource.setFileStamp(reloaded.getFileStamp());
+		resource.setLayout(reloaded.getLayout());
+		return changes.keySet();
+	}
+	
+	private boolean showProgressDialog(String messageKey, List<? extends CompletableFuture<?>> tasks) {
+		return Dialogs.showProgressDialog(this, MessageBundle.get("dialogs.progress.title"), 
+				MessageBundle.get(messageKey), tasks);
+	}
+	
+	private void cancelImport() {
+		project = null;
+		updateUI();
+	}
+	
 	private void showError(String message) {
 		Dialogs.showErrorDialog(this, MessageBundle.get("dialogs.error.title"), message);
 	}
 	
+	private void showFileErrors(String messageKey, List<String> paths) {
+		if (paths.size() == 1) {
+			showError(MessageBundle.get(messageKey + ".single", paths.get(0)));
+		} else if (paths.size() > 1) {
+			showError(MessageBundle.get(messageKey + ".list", Joiner.on("\n").join(paths)));
+		}
+	}
+	
+	private Object getSession() {
+		return workspace != null ? workspace : project;
+	}
+	
+	private List<Resource> getResources() {
+		return workspace != null ? workspace.getResources() : project.getResources();
+	}
+	
+	private String toTreeKey(EditorProject project, String key) {
+		return workspace == null ? key : workspace.toKey(project.getResourceName(), key);
+	}
+	
+	private String toResourceKey(String key) {
+		return workspace == null ? key : workspace.toBundleKey(key);
+	}
+	
+	private boolean isEditable(TranslationTreeNode node) {
+		// The nodes of the bundles of a workspace are not translations themselves
+		return node.isEditable() && (workspace == null || node.getLevel() > 1);
+	}
+	
 	private void updateTreeNodeStatuses() {
-		Set<String> keys = project.getResources().stream()
-				.flatMap(r -> r.getTranslations().keySet().stream())
-				.filter(key -> project.getResources().stream().anyMatch(r -> !r.hasTranslation(key)))
-				.collect(Collectors.toSet());
-		translationTree.updateNodes(keys);
+		if (workspace != null) {
+			translationTree.updateNodes(workspace.getIncompleteKeys());
+		} else {
+			translationTree.updateNodes(project.getMissingTranslationIndex().getIncompleteKeys());
+		}
 	}
 	
-	private void updateTreeNodeStatus(String key) {
-		boolean hasError = project.getResources().stream().anyMatch(r -> !r.hasTranslation(key));
-		translationTree.updateNode(key, hasError);
+	private void updateTreeNodeStatus(EditorProject project, String key) {
+		// The bundle of the key may have been closed or evicted in the meantime
+		if (workspace == null ? this.project == project : workspace.getProject(project.getResourceName()) == project) {
+			translationTree.updateNode(toTreeKey(project, key), project.getMissingTranslationIndex().isIncomplete(key));
+		}
 	}
 	
 	private void storeProjectState() {
 		ExtendedProperties props = new ExtendedProperties();
 		props.setProperty("minify_resources", project.isMinifyResources());
 		props.setProperty("resource_name", project.getResourceName());
+		props.setProperty("resource_depth", project.getResourceDepth());
 		props.setProperty("resource_type", project.getResourceType().toString());
 		props.store(Paths.get(project.getPath().toString(), PROJECT_FILE));
 	}
 	
+	private void storeProjectSnapshot() {
+		try {
+			ResourceSnapshots.write(Paths.get(project.getPath().toString(), SNAPSHOT_FILE), 
+					project.getPath(), project.getResources());
+		} catch (IOException e) {
+			log.error("Error storing project snapshot", e);
+		}
+	}
+	
+	private Set<Resource> restoreProjectSnapshot(Path dir, List<Resource> resources) {
+		try {
+			return ResourceSnapshots.restore(Paths.get(dir.toString(), SNAPSHOT_FILE), dir, resources);
+		} catch (IOException e) {
+			log.warn("Error restoring project snapshot", e);
+			return Sets.newHashSet();
+		}
+	}
+	
 	private void restoreProjectState(EditorProject project) {
 		ExtendedProperties props = new ExtendedProperties();
 		Path path = Paths.get(project.getPath().toString(), PROJECT_FILE);
@@ -843,6 +1370,7 @@ public class Editor extends JFrame {
 			props.load(Paths.get(project.getPath().toString(), PROJECT_FILE));
 			project.setMinifyResources(props.getBooleanProperty("minify_resources", settings.isMinifyResources()));
 			project.setResourceName(props.getProperty("resource_name", settings.getResourceName()));
+			project.setResourceDepth(Math.max(1, props.getIntegerProperty("resource_depth", 1)));
 			project.setResourceType(props.getEnumProperty("resource_type", ResourceType.class));
 		} else {
 			project.setResourceName(settings.getResourceName());
@@ -866,7 +1394,7 @@ public class Editor extends JFrame {
 		if (!settings.getHistory().isEmpty()) {
 			props.setProperty("history", settings.getHistory());
 		}
-		if (project != null) {
+		if (project != null && workspace == null) {
 			// Store keys of expanded nodes
 			List<String> expandedNodeKeys = translationTree.getExpandedNodes().stream()
 					.map(TranslationTreeNode::getKey)
@@ -910,7 +1438,7 @@ public class Editor extends JFrame {
 	    }
 		
 		private void showPopupMenu(MouseEvent e) {
-			if (!e.isPopupTrigger() || project == null || !project.hasResources()) {
+			if (!e.isPopupTrigger() || workspace == null && (project == null || !project.hasResources())) {
 				return;
 			}
 			TreePath path = translationTree.getPathForLocation(e.getX(), e.getY());
@@ -935,12 +1463,17 @@ public class Editor extends JFrame {
 				// Store scroll position
 				int scrollValue = resourcesScrollPane.getVerticalScrollBar().getValue();
 				
+				// Edit the bundle of the selected node
+				if (workspace != null) {
+					activateBundle(workspace.getBundleName(node.getKey()));
+				}
+				
 				// Update UI values
 				String key = node.getKey();
 				translationField.setValue(key);
 				resourceFields.forEach(f -> {
-					f.setValue(key);
-					f.setEnabled(node.isEditable());
+					f.setValue(toResourceKey(key));
+					f.setEnabled(isEditable(node));
 				});
 				
 				// Restore scroll position and foc
@@ -982,18 +1515,6 @@ public class Editor extends JFrame {
 	    }
 	}
 	
-	private class ResourceFieldKeyListener extends KeyAdapter {
-		@Override
-		public void keyReleased(KeyEvent e) {
-			TranslationTreeNode node = translationTree.getSelectionNode();
-			ResourceField field = (ResourceField) e.getSource();
-			String key = node.getKey();
-			String value = field.getValue();
-			field.getResource().storeTranslation(key, value);
-			updateTreeNodeStatus(key);
-		}
-	}
-	
 	private class EditorWindowListener extends WindowAdapter {
 		@Override
 		public void windowClosing(WindowEvent e) {
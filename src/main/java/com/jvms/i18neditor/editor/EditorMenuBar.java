@@ -68,7 +68,7 @@ public class EditorMenuBar extends JMenuBar {
 		editMenu.setEnabled(enabled);
 		viewMenu.setEnabled(enabled);
 		settingsMenu.removeAll();
-		if (enabled) {
+		if (enabled && editor.getWorkspace() == null) {
 			settingsMenu.add(projectSettingsMenuItem);
 			settingsMenu.addSeparator();
 			settingsMenu.add(editorSettingsMenuItem);
@@ -136,6 +136,10 @@ public class EditorMenuBar extends JMenuBar {
         importMenuItem.setMnemonic(MessageBundle.getMnemonic("menu.file.project.import.vk"));
         importMenuItem.addActionListener(e -> editor.showImportProjectDialog());
         
+        JMenuItem openWorkspaceMenuItem = new JMenuItem(MessageBundle.get("menu.file.workspace.open.title"));
+        openWorkspaceMenuItem.setMnemonic(MessageBundle.getMnemonic("menu.file.workspace.open.vk"));
+        openWorkspaceMenuItem.addActionListener(e -> editor.showOpenWorkspaceDialog());
+        
         openContainingFolderMenuItem = new JMenuItem(MessageBundle.get("menu.file.folder.title"));
         openContainingFolderMenuItem.addActionListener(e -> editor.openProjectDirectory());
         
@@ -154,6 +158,7 @@ public class EditorMenuBar extends JMenuBar {
         
         fileMenu.add(createMenuItem);
         fileMenu.add(importMenuItem);
+        fileMenu.add(openWorkspaceMenuItem);
         if (Desktop.isDesktopSupported()) {
 	        fileMenu.add(openContainingFolderMenuItem);
 		}
@@ -7,6 +7,7 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
 import com.jvms.i18neditor.Resource;
 import com.jvms.i18neditor.ResourceType;
+import com.jvms.i18neditor.TranslationTable;
 
 /**
  * This class represents an editor project.
@@ -16,8 +17,10 @@ import com.jvms.i18neditor.ResourceType;
 public class EditorProject {
 	private Path path;
 	private String resourceName;
+	private int resourceDepth = 1;
 	private ResourceType resourceType;
 	private List<Resource> resources = Lists.newLinkedList();
+	private MissingTranslationIndex missingTranslationIndex = new MissingTranslationIndex();
 	private boolean minifyResources;
 	
 	public EditorProject(Path path) {
@@ -45,11 +48,21 @@ public class EditorProject {
 	}
 
 	public void setResources(List<Resource> resources) {
-		this.resources = resources;
+		setResources(TranslationTable.of(resources));
+	}
+	
+	public void setResources(TranslationTable table) {
+		this.resources = Lists.newLinkedList(table.getResources());
+		this.missingTranslationIndex = new MissingTranslationIndex(table);
 	}
 	
 	public void addResource(Resource resource) {
 		resources.add(resource);
+		missingTranslationIndex.addResource(resource);
+	}
+	
+	public MissingTranslationIndex getMissingTranslationIndex() {
+		return missingTranslationIndex;
 	}
 	
 	public boolean hasResources() {
@@ -64,6 +77,14 @@ public class EditorProject {
 		this.resourceName = resourceFilename;
 	}
 
+	public int getResourceDepth() {
+		return resourceDepth;
+	}
+
+	public void setResourceDepth(int resourceDepth) {
+		this.resourceDepth = resourceDepth;
+	}
+
 	public boolean isMinifyResources() {
 		return minifyResources;
 	}
@@ -8,6 +8,7 @@ import java.awt.event.KeyEvent;
 import javax.swing.JCheckBox;
 import javax.swing.JLabel;
 import javax.swing.JPanel;
+import javax.swing.JSlider;
 
 import com.jvms.i18neditor.ResourceType;
 import com.jvms.i18neditor.swing.JTextField;
@@ -56,6 +57,17 @@ public class EditorProjectSettingsPane extends AbstractSettingsPane {
 		resourcePanel.add(resourceNameField);
 		fieldset1.add(resourcePanel, createVerticalGridBagConstraints());		
 		
+		JPanel resourceDepthPanel = new JPanel(new GridLayout(0, 1));
+		JLabel resourceDepthLabel = new JLabel(MessageBundle.get("settings.resourcedepth.title"));
+		JSlider resourceDepthSlider = new JSlider(JSlider.HORIZONTAL, 1, 5, project.getResourceDepth());
+		resourceDepthSlider.setMajorTickSpacing(1);
+		resourceDepthSlider.setPaintLabels(true);
+		resourceDepthSlider.setSnapToTicks(true);
+		resourceDepthSlider.addChangeListener(e -> project.setResourceDepth(resourceDepthSlider.getValue()));
+		resourceDepthPanel.add(resourceDepthLabel);
+		resourceDepthPanel.add(resourceDepthSlider);
+		fieldset1.add(resourceDepthPanel, createVerticalGridBagConstraints());
+		
 		setLayout(new GridBagLayout());
 		add(fieldset1, createVerticalGridBagConstraints());
 	}
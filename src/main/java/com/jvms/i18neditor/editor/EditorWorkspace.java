@@ -0,0 +1,206 @@
+package com.jvms.i18neditor.editor;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.stream.Collectors;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import com.jvms.i18neditor.Resource;
+import com.jvms.i18neditor.TranslationTable;
+import com.jvms.i18neditor.util.ResourceKeys;
+import com.jvms.i18neditor.util.Resources;
+
+/**
+ * This class represents an editor workspace, which holds all resource bundles within a root directory.
+ *
+ * <p>A bundle is a group of resources with the same base name, for example the namespaces of i18next
+ * ({@code en/common.json}, {@code nl/common.json}). All resources are found when the workspace is opened,
+ * but the translations of a bundle are only loaded when the bundle is needed, after which the bundle is edited
+ * as an {@link EditorProject} of its own. A loaded bundle can be evicted again to release its translations.</p>
+ *
+ * <p>The keys of all bundles are shown in a single translation tree, prefixed with the name of their bundle.</p>
+ *
+ * @author Jacob van Mourik
+ */
+public class EditorWorkspace {
+	private final Path path;
+	private final SortedMap<String,List<Resource>> bundles = Maps.newTreeMap();
+	private final Map<String,EditorProject> projects = Maps.newLinkedHashMap();
+	private boolean minifyResources;
+	
+	/**
+	 * Creates a workspace of the given bundles.
+	 *
+	 * @param 	path the root directory of the workspace.
+	 * @param 	bundles the resources of each bundle by name, the translations of which do not have to be loaded.
+	 */
+	public EditorWorkspace(Path path, SortedMap<String,List<Resource>> bundles) {
+		this.path = path;
+		bundles.forEach((name, resources) -> this.bundles.put(name, Lists.newArrayList(resources)));
+	}
+	
+	public Path getPath() {
+		return path;
+	}
+	
+	public Set<String> getBundleNames() {
+		return bundles.keySet();
+	}
+	
+	public boolean isMinifyResources() {
+		return minifyResources;
+	}
+	
+	public void setMinifyResources(boolean minifyResources) {
+		this.minifyResources = minifyResources;
+	}
+	
+	/**
+	 * Gets the name of the bundle of the given key.
+	 *
+	 * @param 	key the key within the translation tree.
+	 * @return 	the name of the bundle, or {@code null} if the key does not belong to a bundle.
+	 */
+	public String getBundleName(String key) {
+		if (key == null || key.isEmpty()) {
+			return null;
+		}
+		String name = ResourceKeys.firstPart(key);
+		return bundles.containsKey(name) ? name : null;
+	}
+	
+	/**
+	 * Gets the key within the translation tree of the given key of a bundle.
+	 *
+	 * @param 	name the name of the bundle.
+	 * @param 	key the key within the bundle.
+	 * @return 	the key within the translation tree.
+	 */
+	public String toKey(String name, String key) {
+		return ResourceKeys.create(name, key);
+	}
+	
+	/**
+	 * Gets the key within its bundle of the given key of the translation tree.
+	 *
+	 * @param 	key the key within the translation tree.
+	 * @return 	the key within the bundle, or an empty string for the key of the bundle itself.
+	 */
+	public String toBundleKey(String key) {
+		return ResourceKeys.withoutFirstPart(key);
+	}
+	
+	/**
+	 * Gets the base name of the resources of a bundle, which is the bundle name without its directory.
+	 *
+	 * @param 	name the name of the bundle.
+	 * @return 	the base name.
+	 */
+	public String toBaseName(String name) {
+		return name.substring(name.lastIndexOf('/') + 1);
+	}
+	
+	/**
+	 * Creates new resources of a bundle, of which the translations still have to be loaded.
+	 *
+	 * @param 	name the name of the bundle.
+	 * @return 	the resources.
+	 */
+	public List<Resource> createResources(String name) {
+		return bundles.get(name).stream()
+				.map(r -> new Resource(r.getType(), r.getPath(), r.getLocale()))
+				.collect(Collectors.toList());
+	}
+	
+	/**
+	 * Marks a bundle as loaded.
+	 *
+	 * @param 	name the name of the bundle.
+	 * @param 	table the loaded resources of the bundle.
+	 * @return 	the project of the bundle.
+	 */
+	public EditorProject load(String name, TranslationTable table) {
+		// The bundle is edited from the directory its resources came from, not from the workspace directory
+		EditorProject project = new EditorProject(Resources.getBundleDir(bundles.get(name).get(0)));
+		project.setResourceName(name);
+		project.setResourceType(bundles.get(name).get(0).getType());
+		project.setMinifyResources(minifyResources);
+		project.setResources(table);
+		projects.put(name, project);
+		return project;
+	}
+	
+	/**
+	 * Releases the project and translations of a loaded bundle.
+	 *
+	 * @param 	name the name of the bundle.
+	 */
+	public void evict(String name) {
+		projects.remove(name);
+	}
+	
+	/**
+	 * Adds a new resource to a loaded bundle.
+	 *
+	 * @param 	name the name of the bundle.
+	 * @param 	resource the resource.
+	 */
+	public void addResource(String name, Resource resource) {
+		bundles.get(name).add(new Resource(resource.getType(), resource.getPath(), resource.getLocale()));
+		projects.get(name).addResource(resource);
+	}
+	
+	/**
+	 * Gets the project of a loaded bundle.
+	 *
+	 * @param 	name the name of the bundle.
+	 * @return 	the project, or {@code null} if the bundle is not loaded.
+	 */
+	public EditorProject getProject(String name) {
+		return name == null ? null : projects.get(name);
+	}
+	
+	/**
+	 * Gets the project of the loaded bundle to which the given resource belongs.
+	 *
+	 * @param 	resource the resource.
+	 * @return 	the project, or {@code null} if the resource does not belong to a loaded bundle.
+	 */
+	public EditorProject getProject(Resource resource) {
+		return projects.values().stream()
+				.filter(p -> p.getResources().contains(resource))
+				.findFirst()
+				.orElse(null);
+	}
+	
+	public List<EditorProject> getProjects() {
+		return ImmutableList.copyOf(projects.values());
+	}
+	
+	public List<Resource> getResources() {
+		return projects.values().stream()
+				.flatMap(p -> p.getResources().stream())
+				.collect(Collectors.toList());
+	}
+	
+	/**
+	 * Gets the keys within the translation tree of which the translation is missing in any of the resources
+	 * of their bundle, only the keys of loaded bundles are taken into account.
+	 *
+	 * @return 	the incomplete keys.
+	 */
+	public NavigableSet<String> getIncompleteKeys() {
+		NavigableSet<String> result = Sets.newTreeSet();
+		projects.forEach((name, project) -> {
+			project.getMissingTranslationIndex().getIncompleteKeys().forEach(key -> result.add(toKey(name, key)));
+		});
+		return result;
+	}
+}
@@ -0,0 +1,203 @@
+package com.jvms.i18neditor.editor;
+
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+
+import com.google.common.base.Strings;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import com.jvms.i18neditor.Resource;
+import com.jvms.i18neditor.ResourceChange;
+import com.jvms.i18neditor.ResourceEvent;
+import com.jvms.i18neditor.ResourceListener;
+import com.jvms.i18neditor.TranslationTable;
+
+/**
+ * This class represents an index of missing translations across all resources of a project.
+ *
+ * <p>For each key which exists in at least one resource, the index holds the set of resources
+ * in which a translation for that key is missing. The index is kept up to date by listening to the
+ * {@link ResourceEvent}s of the resources, only the changed keys of an event will be updated.</p>
+ *
+ * @author Jacob van Mourik
+ */
+public class MissingTranslationIndex {
+	private final List<Resource> resources = Lists.newArrayList();
+	private final Map<Resource,Integer> indices = Maps.newHashMap();
+	private final Map<String,BitSet> missing = Maps.newHashMap();
+	private final NavigableSet<String> incompleteKeys = Sets.newTreeSet();
+	private final ResourceListener listener = e -> update(e);
+	private int[] missingCounts = new int[0];
+	
+	/**
+	 * Creates an empty index.
+	 */
+	public MissingTranslationIndex() {}
+	
+	/**
+	 * Creates an index of all resources of the given table.
+	 * The index is built in a single pass over the rows of the table.
+	 *
+	 * @param 	table the translation table.
+	 */
+	public MissingTranslationIndex(TranslationTable table) {
+		table.getResources().forEach(resource -> {
+			indices.put(resource, resources.size());
+			resources.add(resource);
+			resource.addListener(listener);
+		});
+		missingCounts = new int[resources.size()];
+		for (int row = 0; row < table.getRowCount(); row++) {
+			BitSet bits = new BitSet(resources.size());
+			for (int column = 0; column < resources.size(); column++) {
+				if (Strings.isNullOrEmpty(table.getValue(row, column))) {
+					bits.set(column);
+					missingCounts[column]++;
+				}
+			}
+			String key = table.getKey(row);
+			missing.put(key, bits);
+			if (!bits.isEmpty()) {
+				incompleteKeys.add(key);
+			}
+		}
+	}
+	
+	/**
+	 * Adds a resource to the index.
+	 * The index will be updated with the current translations of the resource.
+	 *
+	 * @param 	resource the resource to add.
+	 */
+	public void addResource(Resource resource) {
+		int index = resources.size();
+		resources.add(resource);
+		indices.put(resource, index);
+		missingCounts = new int[resources.size()];
+		
+		missing.forEach((key, bits) -> {
+			if (!resource.hasTranslation(key)) {
+				bits.set(index);
+			}
+		});
+		resource.getTranslations().keySet().forEach(key -> {
+			if (!missing.containsKey(key)) {
+				missing.put(key, computeMissing(key));
+			}
+		});
+		
+		incompleteKeys.clear();
+		missing.forEach((key, bits) -> {
+			if (!bits.isEmpty()) {
+				incompleteKeys.add(key);
+				bits.stream().forEach(i -> missingCounts[i]++);
+			}
+		});
+		resource.addListener(listener);
+	}
+	
+	/**
+	 * Checks whether the translation of the given key is missing in any of the resources.
+	 * A key which does not exist in any of the resources is considered to be incomplete.
+	 *
+	 * @param 	key the key.
+	 * @return 	whether the given key is incomplete.
+	 */
+	public boolean isIncomplete(String key) {
+		BitSet bits = missing.get(key);
+		return bits == null ? !resources.isEmpty() : !bits.isEmpty();
+	}
+	
+	/**
+	 * Gets all existing keys of which the translation is missing in any of the resources.
+	 *
+	 * @return 	an unmodifiable sorted view of the incomplete keys.
+	 */
+	public NavigableSet<String> getIncompleteKeys() {
+		return Collections.unmodifiableNavigableSet(incompleteKeys);
+	}
+	
+	/**
+	 * Gets the number of existing keys of which the translation is missing in the given resource.
+	 *
+	 * @param 	resource the resource.
+	 * @return 	the number of missing translations.
+	 */
+	public int getMissingCount(Resource resource) {
+		Integer index = indices.get(resource);
+		return index == null ? 0 : missingCounts[index];
+	}
+	
+	private void update(ResourceEvent e) {
+		Resource resource = e.getResource();
+		int index = indices.get(resource);
+		e.getChanges().forEach(change -> update(index, change));
+	}
+	
+	private void update(int index, ResourceChange change) {
+		String key = change.getKey();
+		BitSet bits = missing.get(key);
+		boolean exists = change.getNewValue() != null;
+		if (bits == null) {
+			if (exists) {
+				bits = computeMissing(key);
+				missing.put(key, bits);
+				bits.stream().forEach(i -> missingCounts[i]++);
+				updateIncompleteKey(key, bits);
+			}
+			return;
+		}
+		if (!exists && !existsInOtherResource(key, index, bits)) {
+			bits.stream().forEach(i -> missingCounts[i]--);
+			missing.remove(key);
+			incompleteKeys.remove(key);
+			return;
+		}
+		boolean isMissing = Strings.isNullOrEmpty(change.getNewValue());
+		if (bits.get(index) != isMissing) {
+			bits.set(index, isMissing);
+			missingCounts[index] += isMissing ? 1 : -1;
+			updateIncompleteKey(key, bits);
+		}
+	}
+	
+	private void updateIncompleteKey(String key, BitSet bits) {
+		if (bits.isEmpty()) {
+			incompleteKeys.remove(key);
+		} else {
+			incompleteKeys.add(key);
+		}
+	}
+	
+	private boolean existsInOtherResource(String key, int index, BitSet bits) {
+		// A resource which is not missing the translation has a value for the key, so only the resources 
+		// which are missing it have to be checked for an empty value
+		int clear = bits.nextClearBit(0);
+		if (clear == index) {
+			clear = bits.nextClearBit(index + 1);
+		}
+		if (clear < resources.size()) {
+			return true;
+		}
+		for (int i = bits.nextSetBit(0); i >= 0; i = bits.nextSetBit(i + 1)) {
+			if (i != index && resources.get(i).getTranslation(key) != null) {
+				return true;
+			}
+		}
+		return false;
+	}
+	
+	private BitSet computeMissing(String key) {
+		BitSet result = new BitSet(resources.size());
+		for (int i = 0; i < resources.size(); i++) {
+			if (!resources.get(i).hasTranslation(key)) {
+				result.set(i);
+			}
+		}
+		return result;
+	}
+}
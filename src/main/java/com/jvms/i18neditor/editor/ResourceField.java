@@ -7,18 +7,33 @@ import java.awt.event.FocusEvent;
 import java.util.Locale;
 
 import javax.swing.JComponent;
+import javax.swing.Timer;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
 
+import com.google.common.base.Strings;
 import com.jvms.i18neditor.Resource;
 import com.jvms.i18neditor.swing.JTextArea;
 
 /**
  * This class represents a text area to edit the value of a translation.
  * 
+ * <p>Edits are not stored in the resource on every change of the text. Changes to the document are coalesced
+ * and committed to the resource once the text has not been changed for a short delay, when the field loses focus,
+ * or when {@link #commit()} is called explicitly. Listeners registered for {@link #COMMIT_PROPERTY} are notified 
+ * with the key of the translation after each commit which changed the resource.</p>
+ * 
  * @author Jacob van Mourik
  */
 public class ResourceField extends JTextArea implements Comparable<ResourceField> {
 	private final static long serialVersionUID = 2034814490878477055L;
+	public final static String COMMIT_PROPERTY = "commit";
+	public final static int COMMIT_DELAY = 300;
 	private final Resource resource;
+	private final Timer commitTimer = new Timer(COMMIT_DELAY, e -> commit());
+	private String key;
+	private boolean updating;
+	private boolean pending;
 	
 	public ResourceField(Resource resource) {
 		super();
@@ -30,11 +45,41 @@ public class ResourceField extends JTextArea implements Comparable<ResourceField
 		return getText().trim();
 	}
 	
+	/**
+	 * Shows the translation of the given key, any pending edit of the previous key will be committed first.
+	 * 
+	 * @param 	key the key of the translation to edit.
+	 */
 	public void setValue(String key) {
-		setText(resource.getTranslation(key));
+		commit();
+		this.key = key;
+		updating = true;
+		try {
+			setText(resource.getTranslation(key));
+		} finally {
+			updating = false;
+		}
 		undoManager.discardAllEdits();
 	}
 	
+	/**
+	 * Stores the edited value in the resource, if the text has been changed since the last commit.
+	 */
+	public void commit() {
+		commitTimer.stop();
+		if (!pending) {
+			return;
+		}
+		pending = false;
+		if (key != null) {
+			String value = getValue();
+			if (!value.equals(Strings.nullToEmpty(resource.getTranslation(key)))) {
+				resource.storeTranslation(key, value);
+				firePropertyChange(COMMIT_PROPERTY, null, key);
+			}
+		}
+	}
+	
 	public Resource getResource() {
 		return resource;
 	}
@@ -57,6 +102,9 @@ public class ResourceField extends JTextArea implements Comparable<ResourceField
 		setFocusTraversalKeys(KeyboardFocusManager.FORWARD_TRAVERSAL_KEYS, null);
 	    setFocusTraversalKeys(KeyboardFocusManager.BACKWARD_TRAVERSAL_KEYS, null);
 	    addFocusListener(new ResourceFieldFocusListener());
+	
+	    commitTimer.setRepeats(false);
+	    getDocument().addDocumentListener(new ResourceFieldDocumentListener());
 	}
 	
 	private class ResourceFieldFocusListener extends FocusAdapter {
@@ -68,5 +116,34 @@ public class ResourceField extends JTextArea implements Comparable<ResourceField
 			bounds.height += 70; // add fixed space at the bottom
 			parent.scrollRectToVisible(bounds);
 		}
+		
+		@Override
+		public void focusLost(FocusEvent e) {
+			commit();
+		}
+	}
+	
+	private class ResourceFieldDocumentListener implements DocumentListener {
+		@Override
+		public void insertUpdate(DocumentEvent e) {
+			changed();
+		}
+		
+		@Override
+		public void removeUpdate(DocumentEvent e) {
+			changed();
+		}
+		
+		@Override
+		public void changedUpdate(DocumentEvent e) {
+			// Attribute changes do not change the value
+		}
+		
+		private void changed() {
+			if (!updating) {
+				pending = true;
+				commitTimer.restart();
+			}
+		}
 	}
 }
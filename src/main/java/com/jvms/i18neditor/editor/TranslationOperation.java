@@ -0,0 +1,180 @@
+package com.jvms.i18neditor.editor;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.SortedMap;
+import java.util.function.Function;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import com.jvms.i18neditor.Resource;
+import com.jvms.i18neditor.util.ResourceKeys;
+
+/**
+ * This class represents an operation on the translations of all resources of a project.
+ *
+ * <p>Operations are executed by a {@link TranslationOperationPlan}, which applies each operation to
+ * a copy of every resource. Operations which change the structure of the keys also update the translation tree,
+ * once for all resources.</p>
+ *
+ * @author Jacob van Mourik
+ */
+public abstract class TranslationOperation {
+	
+	/**
+	 * Creates an operation which adds a key to the translation tree.
+	 * The resources are not changed, as a key without translation does not exist in a resource.
+	 *
+	 * @param 	key the key to add.
+	 * @return 	the operation.
+	 */
+	public static TranslationOperation add(String key) {
+		checkKey(key);
+		return new TranslationOperation() {
+			@Override
+			void apply(Resource resource, Function<Resource,Resource> copies) {}
+			
+			@Override
+			void apply(TranslationTree tree) {
+				if (tree.getNodeByKey(key) == null) {
+					tree.addNodeByKey(key);
+				}
+			}
+		};
+	}
+	
+	/**
+	 * Creates an operation which removes the given keys, including their child keys.
+	 *
+	 * @param 	keys the keys to remove.
+	 * @return 	the operation.
+	 */
+	public static TranslationOperation remove(Collection<String> keys) {
+		List<String> list = ImmutableList.copyOf(keys);
+		return new TranslationOperation() {
+			@Override
+			void apply(Resource resource, Function<Resource,Resource> copies) {
+				list.forEach(resource::removeTranslation);
+			}
+			
+			@Override
+			void apply(TranslationTree tree) {
+				list.forEach(tree::removeNodeByKey);
+			}
+		};
+	}
+	
+	/**
+	 * Creates an operation which renames a key, including its child keys.
+	 * Renaming a key with child keys moves the whole subtree to the new key.
+	 *
+	 * @param 	key the key to rename.
+	 * @param 	newKey the new key.
+	 * @return 	the operation.
+	 */
+	public static TranslationOperation rename(String key, String newKey) {
+		checkKey(newKey);
+		return new TranslationOperation() {
+			@Override
+			void apply(Resource resource, Function<Resource,Resource> copies) {
+				resource.renameTranslation(key, newKey);
+			}
+			
+			@Override
+			void apply(TranslationTree tree) {
+				tree.renameNodeByKey(key, newKey);
+			}
+		};
+	}
+	
+	/**
+	 * Creates an operation which duplicates a key, including its child keys.
+	 *
+	 * @param 	key the key to duplicate.
+	 * @param 	newKey the new key.
+	 * @return 	the operation.
+	 */
+	public static TranslationOperation duplicate(String key, String newKey) {
+		checkKey(newKey);
+		return new TranslationOperation() {
+			@Override
+			void apply(Resource resource, Function<Resource,Resource> copies) {
+				resource.duplicateTranslation(key, newKey);
+			}
+			
+			@Override
+			void apply(TranslationTree tree) {
+				tree.duplicateNodeByKey(key, newKey);
+			}
+		};
+	}
+	
+	/**
+	 * Creates an operation which copies all translations of the source resource which are missing in the target
+	 * resource to the target resource. The keys of both resources are equal afterwards, so the tree is not changed.
+	 *
+	 * @param 	source the resource to copy the translations from.
+	 * @param 	target the resource to copy the missing translations to.
+	 * @return 	the operation.
+	 */
+	public static TranslationOperation copyMissing(Resource source, Resource target) {
+		return new TranslationOperation() {
+			@Override
+			void apply(Resource resource, Function<Resource,Resource> copies) {
+				if (copies.apply(target) != resource || source == target) {
+					return;
+				}
+				SortedMap<String,String> translations = copies.apply(source).getTranslations();
+				translations.forEach((key, value) -> {
+					if (!resource.hasTranslation(key) && ResourceKeys.isValid(key)) {
+						resource.storeTranslation(key, value);
+					}
+				});
+			}
+		};
+	}
+	
+	/**
+	 * Creates an operation which applies one operation to the resources and another operation to the translation tree,
+	 * for example when the keys of the tree differ from the keys of the resources.
+	 *
+	 * @param 	resourceOperation the operation to apply to the resources.
+	 * @param 	treeOperation the operation to apply to the translation tree.
+	 * @return 	the operation.
+	 */
+	public static TranslationOperation of(TranslationOperation resourceOperation, TranslationOperation treeOperation) {
+		return new TranslationOperation() {
+			@Override
+			void apply(Resource resource, Function<Resource,Resource> copies) {
+				resourceOperation.apply(resource, copies);
+			}
+			
+			@Override
+			void apply(TranslationTree tree) {
+				treeOperation.apply(tree);
+			}
+		};
+	}
+	
+	/**
+	 * Applies the operation to the copy of a resource.
+	 *
+	 * <p>This method is called concurrently for the copies of all resources. An operation may only read
+	 * the copies of other resources, which are not modified by the same operation.</p>
+	 *
+	 * @param 	resource the copy of the resource to apply the operation to.
+	 * @param 	copies a function which gives the copy of any resource of the project.
+	 */
+	abstract void apply(Resource resource, Function<Resource,Resource> copies);
+	
+	/**
+	 * Applies the operation to the translation tree. The default implementation does nothing.
+	 *
+	 * @param 	tree the translation tree.
+	 */
+	void apply(TranslationTree tree) {}
+	
+	private static void checkKey(String key) {
+		Preconditions.checkArgument(ResourceKeys.isValid(key), "Key is not valid.");
+	}
+}
@@ -0,0 +1,121 @@
+package com.jvms.i18neditor.editor;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.SortedMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.stream.Collectors;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.jvms.i18neditor.Resource;
+
+/**
+ * This class computes and applies the changes of a list of {@link TranslationOperation}s
+ * on all resources of a project.
+ *
+ * <p>The changes are computed on a copy of each resource, which shares the immutable snapshot of the
+ * translations of the resource, so making a copy does not copy any translations. The operations are applied in
+ * order, each operation is applied to the copies of all resources concurrently. Once all changes have been
+ * computed, {@link #apply()} applies them to each resource in a single batch, so each resource notifies its
+ * listeners only once for all operations.</p>
+ *
+ * @author Jacob van Mourik
+ */
+public class TranslationOperationPlan {
+	private final List<Resource> resources;
+	private final List<TranslationOperation> operations;
+	private final List<CompletableFuture<Map<String,String>>> tasks;
+	
+	private TranslationOperationPlan(List<Resource> resources, List<TranslationOperation> operations,
+			List<CompletableFuture<Map<String,String>>> tasks) {
+		this.resources = resources;
+		this.operations = operations;
+		this.tasks = tasks;
+	}
+	
+	/**
+	 * Starts computing the changes of the given operations on the given resources.
+	 * The resources should not be modified until the plan has been applied.
+	 *
+	 * @param 	resources the resources.
+	 * @param 	operations the operations to apply, in order.
+	 * @param 	executor the executor to compute the changes with.
+	 * @return 	the plan.
+	 */
+	public static TranslationOperationPlan create(List<Resource> resources, List<TranslationOperation> operations,
+			Executor executor) {
+		Map<Resource,Resource> copies = Maps.newIdentityHashMap();
+		List<Map<String,String>> changes = Lists.newArrayList();
+		resources.forEach(resource -> {
+			Resource copy = new Resource(resource.getType(), resource.getPath(), resource.getLocale());
+			copy.setTranslations(resource.getTranslations());
+			
+			// Only the keys are collected while applying the operations, the final values are taken afterwards
+			Map<String,String> changed = Maps.newLinkedHashMap();
+			copy.addListener(e -> e.getChanges().forEach(change -> changed.put(change.getKey(), null)));
+			copies.put(resource, copy);
+			changes.add(changed);
+		});
+		
+		List<CompletableFuture<Void>> stage = resources.stream()
+				.map(r -> CompletableFuture.<Void>completedFuture(null))
+				.collect(Collectors.toList());
+		for (TranslationOperation operation : operations) {
+			CompletableFuture<Void> previous = CompletableFuture.allOf(stage.toArray(new CompletableFuture<?>[0]));
+			stage = resources.stream()
+					.map(resource -> previous.thenRunAsync(() -> operation.apply(copies.get(resource), copies::get), executor))
+					.collect(Collectors.toList());
+		}
+		
+		List<CompletableFuture<Map<String,String>>> tasks = Lists.newArrayList();
+		for (int i = 0; i < resources.size(); i++) {
+			SortedMap<String,String> original = resources.get(i).getTranslations();
+			Resource copy = copies.get(resources.get(i));
+			Map<String,String> changed = changes.get(i);
+			tasks.add(stage.get(i).thenApply(v -> {
+				SortedMap<String,String> result = copy.getTranslations();
+				changed.replaceAll((key, value) -> result.get(key));
+				changed.entrySet().removeIf(e -> Objects.equals(e.getValue(), original.get(e.getKey())));
+				return changed;
+			}));
+		}
+		return new TranslationOperationPlan(ImmutableList.copyOf(resources), ImmutableList.copyOf(operations), tasks);
+	}
+	
+	/**
+	 * Gets the tasks computing the changes of each resource, in the order of the resources.
+	 *
+	 * @return 	the tasks.
+	 */
+	public List<CompletableFuture<Map<String,String>>> getTasks() {
+		return tasks;
+	}
+	
+	/**
+	 * Applies the computed changes to the resources, waiting for the computation to complete if necessary.
+	 *
+	 * @throws 	CompletionException if an operation failed, in which case no resource will be changed.
+	 */
+	public void apply() {
+		List<Map<String,String>> changes = tasks.stream().map(CompletableFuture::join).collect(Collectors.toList());
+		for (int i = 0; i < resources.size(); i++) {
+			if (!changes.get(i).isEmpty()) {
+				resources.get(i).applyChanges(changes.get(i));
+			}
+		}
+	}
+	
+	/**
+	 * Applies the operations to the given translation tree.
+	 *
+	 * @param 	tree the translation tree.
+	 */
+	public void apply(TranslationTree tree) {
+		operations.forEach(operation -> operation.apply(tree));
+	}
+}
@@ -8,13 +8,17 @@ import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
 import java.util.Enumeration;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.WeakHashMap;
 
 import javax.swing.InputMap;
 import javax.swing.JTree;
 import javax.swing.KeyStroke;
+import javax.swing.SwingUtilities;
 import javax.swing.UIManager;
 import javax.swing.event.TreeExpansionEvent;
+import javax.swing.event.TreeExpansionListener;
 import javax.swing.event.TreeWillExpandListener;
 import javax.swing.tree.ExpandVetoException;
 import javax.swing.tree.TreePath;
@@ -29,6 +33,8 @@ import com.jvms.i18neditor.util.ResourceKeys;
  */
 public class TranslationTree extends JTree {
 	private final static long serialVersionUID = -2888673305196385241L;
+	// The keys of the expanded descendants of collapsed nodes, which are expanded again along with the node
+	private final Map<TranslationTreeNode,List<String>> collapsedExpandedKeys = new WeakHashMap<>();
 	
 	public TranslationTree() {
 		super(new TranslationTreeModel());
@@ -42,8 +48,14 @@ public class TranslationTree extends JTree {
 	}
 	
 	public void expandAll() {
+		TranslationTreeModel model = (TranslationTreeModel) getModel();
+		model.loadDescendants((TranslationTreeNode) model.getRoot());
 		for (int i = 0; i < getRowCount(); i++) {
-	        expandRow(i);
+			// Nodes of which the keys are not loaded are left collapsed
+			TranslationTreeNode node = (TranslationTreeNode) getPathForRow(i).getLastPathComponent();
+			if (!node.isLazy()) {
+		        expandRow(i);
+			}
 		}
 	}
 	
@@ -57,43 +69,24 @@ public class TranslationTree extends JTree {
 	
 	public void updateNodes(Set<String> errorKeys) {
 		TranslationTreeModel model = (TranslationTreeModel) getModel();
-		Enumeration<TranslationTreeNode> e = model.getEnumeration();
-		while (e.hasMoreElements()) {
-	    	TranslationTreeNode n = e.nextElement();
-	    	n.setError(errorKeys.contains(n.getKey()));
-	        model.nodeChanged(n);
-	    }
+		model.setErrorKeys(errorKeys);
 	}
 	
 	public void updateNode(String key, boolean error) {
 		TranslationTreeModel model = (TranslationTreeModel) getModel();
-		TranslationTreeNode node = model.getNodeByKey(key);
-		node.setError(error);
-		model.nodeWithParentsChanged(node);
+		model.setError(key, error);
 	}
 	
 	public TranslationTreeNode addNodeByKey(String key) {
 		TranslationTreeModel model = (TranslationTreeModel) getModel();
-		TranslationTreeNode node = model.getNodeByKey(key);
-		if (node == null) {
-			TranslationTreeNode parent = (TranslationTreeNode) model.getClosestParentNodeByKey(key);
-			String newKey = ResourceKeys.childKey(key, parent.getKey());
-			String firstPart = ResourceKeys.firstPart(newKey);
-			String lastPart = ResourceKeys.withoutFirstPart(newKey);
-			model.insertNodeInto(new TranslationTreeNode(firstPart, 
-					lastPart.isEmpty() ? Lists.newArrayList() : Lists.newArrayList(lastPart)), parent);
-			node = model.getNodeByKey(key);
-		}
+		TranslationTreeNode node = model.addNodeByKey(key);
 		setSelectionNode(node);
 		return node;
 	}
 	
 	public void removeNodeByKey(String key) {
 		TranslationTreeModel model = (TranslationTreeModel) getModel();
-		TranslationTreeNode node = model.getNodeByKey(key);
-		if (node != null) {
-			model.removeNodeFromParent(node);
-		}
+		model.removeNodeByKey(key);
 	}
 	
 	public TranslationTreeNode getNodeByKey(String key) {
@@ -186,6 +179,7 @@ public class TranslationTree extends JTree {
         setUI(new TranslationTreeUI());
 		setCellRenderer(new TranslationTreeCellRenderer());
 		addTreeWillExpandListener(new TranslationTreeExpandListener());
+		addTreeExpansionListener(new TranslationTreeCollapseListener());
 		addMouseListener(new TranslationTreeMouseListener());
 		setEditable(false);
 		setOpaque(false);
@@ -193,35 +187,25 @@ public class TranslationTree extends JTree {
 	
 	private void duplicateNodeByKey(String key, String newKey, boolean keepOld) {
 		TranslationTreeModel model = (TranslationTreeModel) getModel();
-		TranslationTreeNode node = model.getNodeByKey(key);
-		TranslationTreeNode newNode = model.getNodeByKey(newKey);
-		List<TranslationTreeNode> expandedNodes = null;
+		List<String> expandedKeys = Lists.newLinkedList();
 		
-		if (keepOld) {
-			node = node.cloneWithChildren();
-		} else {
-			expandedNodes = getExpandedNodes(node);
-			model.removeNodeFromParent(node);
+		if (!keepOld) {
+			TranslationTreeNode node = model.getNodeByKey(key);
+			getExpandedNodes(node).forEach(n -> {
+				expandedKeys.add(newKey + n.getKey().substring(key.length()));
+			});
 		}
 		
-		if (node.isLeaf() && newNode != null) {
-			model.removeNodeFromParent(newNode);
-			newNode = null;
-		}
-		if (newNode != null) {
-			model.insertDescendantsInto(node, newNode);
-			node = newNode;
-		} else {
-			TranslationTreeNode parent = addNodeByKey(ResourceKeys.withoutLastPart(newKey));
-			node.setName(ResourceKeys.lastPart(newKey));
-			model.insertNodeInto(node, parent);			
-		}
+		model.moveNodeByKey(key, newKey, keepOld);
 		
-		if (expandedNodes != null) {
-			expand(expandedNodes);
-		}
+		expandedKeys.forEach(k -> {
+			TranslationTreeNode n = model.getNodeByKey(k);
+			if (n != null) {
+				expandPath(new TreePath(n.getPath()));
+			}
+		});
 		
-		setSelectionNode(node);
+		setSelectionNode(model.getNodeByKey(newKey));
 	}
 	
 	private class TranslationTreeMouseListener extends MouseAdapter {
@@ -247,7 +231,15 @@ public class TranslationTree extends JTree {
 	
 	private class TranslationTreeExpandListener implements TreeWillExpandListener {
 		@Override
-		public void treeWillExpand(TreeExpansionEvent e) throws ExpandVetoException {}
+		public void treeWillExpand(TreeExpansionEvent e) throws ExpandVetoException {
+			TranslationTreeModel model = (TranslationTreeModel) getModel();
+			TranslationTreeNode node = (TranslationTreeNode) e.getPath().getLastPathComponent();
+			model.loadChildren(node);
+			// The keys of the node could not be loaded
+			if (node.isLazy()) {
+				throw new ExpandVetoException(e);
+			}
+		}
 		
 		@Override
     	public void treeWillCollapse(TreeExpansionEvent e) throws ExpandVetoException {
@@ -255,6 +247,46 @@ public class TranslationTree extends JTree {
     		if (e.getPath().getPathCount() == 1) {
     			throw new ExpandVetoException(e);        			
     		}
+			// Remember the expanded descendants, as they will be released once the node is collapsed
+			TranslationTreeNode node = (TranslationTreeNode) e.getPath().getLastPathComponent();
+			List<String> expandedKeys = Lists.newArrayList();
+			getExpandedNodes(node).forEach(n -> {
+				if (n != node) {
+					expandedKeys.add(n.getKey());
+				}
+			});
+			collapsedExpandedKeys.put(node, expandedKeys);
     	}
 	}
+	
+	private class TranslationTreeCollapseListener implements TreeExpansionListener {
+		@Override
+		public void treeExpanded(TreeExpansionEvent e) {
+			TranslationTreeNode node = (TranslationTreeNode) e.getPath().getLastPathComponent();
+			List<String> expandedKeys = collapsedExpandedKeys.remove(node);
+			if (expandedKeys == null) {
+				return;
+			}
+			TranslationTreeModel model = (TranslationTreeModel) getModel();
+			expandedKeys.forEach(k -> {
+				TranslationTreeNode n = ResourceKeys.isChildKeyOf(k, node.getKey()) ? model.getNodeByKey(k) : null;
+				if (n != null) {
+					expandPath(new TreePath(n.getPath()));
+				}
+			});
+		}
+		
+		@Override
+		public void treeCollapsed(TreeExpansionEvent e) {
+			// Release the children of a collapsed node once the collapse has been fully processed
+			TreePath path = e.getPath();
+			TranslationTreeModel model = (TranslationTreeModel) getModel();
+			SwingUtilities.invokeLater(() -> {
+				TranslationTreeNode node = (TranslationTreeNode) path.getLastPathComponent();
+				if (getModel() == model && isCollapsed(path) && node.getRoot() == model.getRoot()) {
+					model.unloadChildren(node);
+				}
+			});
+		}
+	}
 }
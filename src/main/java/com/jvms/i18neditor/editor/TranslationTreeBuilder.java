@@ -0,0 +1,77 @@
+package com.jvms.i18neditor.editor;
+
+import java.util.List;
+
+import com.google.common.collect.Lists;
+import com.jvms.i18neditor.util.KeyPath;
+
+/**
+ * This class builds the subtree of a translation tree node from a sorted collection of keys.
+ *
+ * <p>The keys are processed in a single pass while keeping a stack of the currently open ancestors,
+ * for each key only the parts which differ from the previous key will result in new nodes.</p>
+ *
+ * @author Jacob van Mourik
+ */
+public final class TranslationTreeBuilder {
+	
+	/**
+	 * Adds the nodes of the given keys to the given parent node.
+	 * The keys must be in natural order and the first {@code offset} characters of each key will be ignored,
+	 * which allows building the subtree of a node directly from its full descendant keys.
+	 *
+	 * @param 	parent the parent node.
+	 * @param 	keys the sorted keys.
+	 * @param 	offset the offset of the relative key within each key.
+	 */
+	public static void build(TranslationTreeNode parent, Iterable<String> keys, int offset) {
+		List<TranslationTreeNode> stack = Lists.newArrayList(parent);
+		List<String> names = Lists.newArrayList();
+		int skip = -1;
+		for (String key : keys) {
+			KeyPath path = KeyPath.of(key);
+			if (skip < 0) {
+				// All keys share the same first characters, so the number of parts to skip is the same for each key
+				skip = 0;
+				while (skip < path.size() && path.subPath(0, skip + 1).length() < offset) {
+					skip++;
+				}
+			}
+			int depth = 0;
+			for (int i = skip; i < path.size(); i++) {
+				if (depth < names.size() && path.partEquals(i, names.get(depth))) {
+					depth++;
+				} else {
+					// Close all open nodes below the current depth and open the node of this part
+					while (names.size() > depth) {
+						names.remove(names.size() - 1);
+						stack.remove(stack.size() - 1);
+					}
+					String name = path.getPart(i);
+					stack.add(getOrAddChild(stack.get(depth), name));
+					names.add(name);
+					depth++;
+				}
+			}
+		}
+	}
+	
+	private static TranslationTreeNode getOrAddChild(TranslationTreeNode parent, String name) {
+		// In natural order a child may reappear after siblings of which the name starts with the
+		// name of that child, for example 'a.b', 'a.b-c', 'a.b.c', so only those siblings need to be checked
+		for (int i = parent.getChildCount() - 1; i >= 0; i--) {
+			TranslationTreeNode child = (TranslationTreeNode) parent.getChildAt(i);
+			if (child.getName().equals(name)) {
+				return child;
+			}
+			if (!child.getName().startsWith(name)) {
+				break;
+			}
+		}
+		TranslationTreeNode child = new TranslationTreeNode(name);
+		parent.add(child);
+		return child;
+	}
+	
+	private TranslationTreeBuilder() {}
+}
@@ -43,12 +43,11 @@ public class TranslationTreeCellRenderer extends DefaultTreeCellRenderer {
 	public Component getTreeCellRendererComponent(JTree tree, Object value, boolean selected, boolean expanded, 
 			boolean leaf, int row, boolean hasFocus) {
 		TranslationTreeNode node = (TranslationTreeNode) value;
-		TranslationTreeModel model = (TranslationTreeModel) tree.getModel();
         JLabel l = (JLabel) super.getTreeCellRendererComponent(tree, value, selected, expanded, leaf, row, hasFocus);
         l.setOpaque(true);
         l.setForeground(tree.getForeground());
         l.setBackground(tree.getBackground());            	
-        if (!node.isRoot() && (node.hasError() || model.hasErrorChildNode(node))) {
+        if (!node.isRoot() && node.getErrorCount() > 0) {
         	l.setIcon(new TranslationTreeStatusIcon(StatusIconType.Warning));
         }
         if (node.isRoot()) {
@@ -1,28 +1,79 @@
 package com.jvms.i18neditor.editor;
 
+import java.util.Collection;
 import java.util.Enumeration;
 import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.function.Function;
 
 import javax.swing.tree.DefaultTreeModel;
+import javax.swing.tree.MutableTreeNode;
+import javax.swing.tree.TreeNode;
 
+import com.google.common.collect.ImmutableSortedSet;
 import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import com.jvms.i18neditor.util.KeyPath;
 import com.jvms.i18neditor.util.MessageBundle;
 import com.jvms.i18neditor.util.ResourceKeys;
 
 /**
  * This class represents a model for the translation tree.
- * 
+ *
+ * <p>The model is backed by a sorted set of keys. Child nodes are only created when a node gets loaded,
+ * which happens when it is expanded or when one of its descendants is requested by key, and they can be
+ * released again by unloading the node when it is collapsed. A node of which the children are not loaded is
+ * marked as lazy, its error count is derived from the sorted set of error keys.</p>
+ *
+ * <p>A model can also be created with unloaded keys, of which the descendant keys are only requested from a loader
+ * when the node of the key gets loaded for the first time. This allows showing a tree of which the subtrees are
+ * read from disk on demand, the descendant keys can be released again by {@link #unloadKeys(String)}.</p>
+ *
  * @author Jacob van Mourik
  */
 public class TranslationTreeModel extends DefaultTreeModel {
 	private final static long serialVersionUID = 3261808274177599488L;
+	private final NavigableSet<String> keys = Sets.newTreeSet();
+	private final NavigableSet<String> errorKeys = Sets.newTreeSet();
+	private final NavigableSet<String> unloadedKeys = Sets.newTreeSet();
+	private final Map<String,TranslationTreeNode> nodesByKey = Maps.newHashMap();
+	private final Function<String,Collection<String>> loader;
 	
 	public TranslationTreeModel() {
-		super(new TranslationTreeNode(MessageBundle.get("tree.root.name"), Lists.newArrayList()));
+		this(Lists.newArrayList());
 	}
 	
-	public TranslationTreeModel(List<String> keys) {
-		super(new TranslationTreeNode(MessageBundle.get("tree.root.name"), keys));
+	public TranslationTreeModel(Collection<String> keys) {
+		this(keys, Lists.newArrayList(), null);
+	}
+	
+	/**
+	 * Creates a model of which the descendants of the given keys are loaded on demand.
+	 * 
+	 * <p>The loader is called with an unloaded key when its node gets loaded for the first time, and returns 
+	 * the keys of all descendants of the given key, or {@code null} if the descendants could not be loaded, 
+	 * in which case the node stays unloaded.</p>
+	 * 
+	 * @param 	unloadedKeys the unloaded keys.
+	 * @param 	loader the loader of the descendant keys of an unloaded key.
+	 */
+	public TranslationTreeModel(Collection<String> unloadedKeys, Function<String,Collection<String>> loader) {
+		this(unloadedKeys, unloadedKeys, loader);
+	}
+	
+	private TranslationTreeModel(Collection<String> keys, Collection<String> unloadedKeys, 
+			Function<String,Collection<String>> loader) {
+		super(new TranslationTreeNode(MessageBundle.get("tree.root.name")));
+		this.keys.addAll(keys);
+		this.unloadedKeys.addAll(unloadedKeys);
+		this.loader = loader;
+		TranslationTreeNode root = (TranslationTreeNode) getRoot();
+		nodesByKey.put(root.getKey(), root);
+		root.setLazy(true);
+		loadChildren(root);
 	}
 	
 	public Enumeration<TranslationTreeNode> getEnumeration() {
@@ -34,61 +85,267 @@ public class TranslationTreeModel extends DefaultTreeModel {
 		return node.depthFirstEnumeration();
 	}
 	
+	/**
+	 * Gets the node of the given key, the ancestors of the node will be loaded when needed.
+	 *
+	 * @param 	key the key of the node.
+	 * @return 	the node or {@code null} if there is no node with the given key.
+	 */
 	public TranslationTreeNode getNodeByKey(String key) {
-		Enumeration<TranslationTreeNode> e = getEnumeration();
-	    while (e.hasMoreElements()) {
-	    	TranslationTreeNode n = e.nextElement();
-	        if (n.getKey().equals(key)) {
-	            return n;
-	        }
-	    }
-	    return null;
-	}
-	
-	public boolean hasErrorChildNode(TranslationTreeNode node) {
-		Enumeration<TranslationTreeNode> e = getEnumeration(node);
-    	while (e.hasMoreElements()) {
-    		TranslationTreeNode n = e.nextElement();
-    		if (n.hasError()) {
-    			return true;
-    		}
-    	}
-    	return false;
-	}
-	
-	public TranslationTreeNode getClosestParentNodeByKey(String key) {
-		TranslationTreeNode node = null;
-		int count = ResourceKeys.size(key);
-		while (node == null && count > 0) {
-			key = ResourceKeys.withoutLastPart(key);
+		TranslationTreeNode node = nodesByKey.get(key);
+		if (node == null && key != null && (exists(key) || loadKeys(key))) {
+			KeyPath path = KeyPath.of(key);
+			TranslationTreeNode parent = (TranslationTreeNode) getRoot();
+			for (int i = 1; parent != null; i++) {
+				loadChildren(parent);
+				if (i >= path.size()) {
+					break;
+				}
+				parent = nodesByKey.get(path.subPath(0, i).toString());
+			}
+			node = nodesByKey.get(key);
+		}
+		return node;
+	}
+	
+	/**
+	 * Loads the children of the given node if it is lazy.
+	 * No events will be fired, this method should only be called for nodes which are not expanded.
+	 *
+	 * @param 	node the node to load.
+	 */
+	public void loadChildren(TranslationTreeNode node) {
+		if (!node.isLazy() || !load(node.getKey())) {
+			return;
+		}
+		String key = node.getKey();
+		node.setLazy(false);
+		for (String name : getChildNames(key)) {
+			TranslationTreeNode child = createNode(name, ResourceKeys.create(key, name));
+			node.add(child);
+			nodesByKey.put(child.getKey(), child);
+		}
+	}
+	
+	/**
+	 * Loads the whole subtree of the given node, each lazy subtree will be built in a single pass.
+	 * No events will be fired, this method should only be called for nodes which are not expanded
+	 * or of which the lazy descendants are not expanded. Nodes of unloaded keys are left as they are.
+	 *
+	 * @param 	node the node to load.
+	 */
+	public void loadDescendants(TranslationTreeNode node) {
+		if (!node.isLazy()) {
+			node.getChildren().forEach(this::loadDescendants);
+			return;
+		}
+		String key = node.getKey();
+		if (unloadedKeys.contains(key)) {
+			return;
+		}
+		node.setLazy(false);
+		TranslationTreeBuilder.build(node, getDescendantKeys(keys, key), key.isEmpty() ? 0 : key.length() + 1);
+		node.getChildren().forEach(this::addToIndex);
+		getDescendantKeys(errorKeys, key).forEach(k -> {
+			TranslationTreeNode n = nodesByKey.get(k);
+			if (n != null && n.isLeaf()) {
+				n.setError(true);
+			}
+		});
+		getDescendantKeys(unloadedKeys, key).forEach(k -> nodesByKey.get(k).setLazy(true));
+	}
+	
+	/**
+	 * Releases the children of the given node, the node will be marked as lazy afterwards.
+	 *
+	 * @param 	node the node to unload.
+	 */
+	public void unloadChildren(TranslationTreeNode node) {
+		if (node.isRoot() || node.isLazy() || node.isLeaf()) {
+			return;
+		}
+		int errorCount = node.getErrorCount();
+		node.getChildren().forEach(this::removeFromIndex);
+		node.removeAllChildren();
+		node.setLazy(true);
+		node.setLazyErrorCount(errorCount);
+		nodeStructureChanged(node);
+	}
+	
+	/**
+	 * Releases the descendant keys of the given key, they will be requested from the loader again 
+	 * when the node of the key gets loaded. The node should not be expanded.
+	 *
+	 * @param 	key the key to unload.
+	 */
+	public void unloadKeys(String key) {
+		TranslationTreeNode node = getNodeByKey(key);
+		if (node == null || loader == null) {
+			return;
+		}
+		getDescendantKeys(keys, key).clear();
+		getDescendantKeys(errorKeys, key).clear();
+		errorKeys.remove(key);
+		keys.add(key);
+		unloadedKeys.add(key);
+		node.getChildren().forEach(this::removeFromIndex);
+		node.removeAllChildren();
+		node.setError(false);
+		node.setLazy(true);
+		node.setLazyErrorCount(0);
+		nodeStructureChanged(node);
+		nodeWithParentsChanged(node);
+	}
+	
+	/**
+	 * Whether the descendant keys of the given key have not been loaded yet.
+	 *
+	 * @param 	key the key.
+	 * @return 	whether the key is unloaded.
+	 */
+	public boolean isUnloaded(String key) {
+		return unloadedKeys.contains(key);
+	}
+	
+	/**
+	 * Adds a node for the given key, including all of its missing ancestors.
+	 *
+	 * @param 	key the key of the node.
+	 * @return 	the node of the given key.
+	 */
+	public TranslationTreeNode addNodeByKey(String key) {
+		TranslationTreeNode node = getNodeByKey(key);
+		if (node == null) {
+			putKey(key, false);
+			refresh(key);
 			node = getNodeByKey(key);
-			count--;
 		}
-		if (node != null) {
-			return node;
+		return node;
+	}
+	
+	/**
+	 * Removes the node of the given key including all of its descendants.
+	 * The parent node will be kept, as a leaf node if it has no other children.
+	 *
+	 * @param 	key the key of the node.
+	 */
+	public void removeNodeByKey(String key) {
+		if (exists(key)) {
+			removeKeys(key);
+			refresh(key);
+		}
+	}
+	
+	/**
+	 * Moves or copies the node of the given key including all of its descendants to a new key.
+	 * When the node is a leaf, an existing node of the new key will be replaced,
+	 * otherwise the descendants will be merged into the existing node.
+	 *
+	 * @param 	key the key of the node.
+	 * @param 	newKey the new key of the node.
+	 * @param 	keepOld whether to keep the node of the old key.
+	 */
+	public void moveNodeByKey(String key, String newKey, boolean keepOld) {
+		if (!exists(key)) {
+			return;
+		}
+		List<String> sourceKeys = Lists.newArrayList();
+		if (keys.contains(key)) {
+			sourceKeys.add(key);
+		}
+		sourceKeys.addAll(getDescendantKeys(keys, key));
+		Set<String> sourceErrorKeys = ImmutableSortedSet.<String>naturalOrder()
+				.addAll(errorKeys.contains(key) ? Lists.newArrayList(key) : Lists.newArrayList())
+				.addAll(getDescendantKeys(errorKeys, key))
+				.build();
+		
+		if (!hasDescendants(key) && exists(newKey)) {
+			removeKeys(newKey);
+		}
+		if (!keepOld) {
+			removeKeys(key);
+		}
+		sourceKeys.forEach(k -> {
+			putKey(newKey + k.substring(key.length()), sourceErrorKeys.contains(k));
+		});
+		
+		if (!keepOld) {
+			refresh(key);
+		}
+		refresh(newKey);
+	}
+	
+	/**
+	 * Sets the keys of which the node should be marked as an error.
+	 *
+	 * @param 	errorKeys the error keys.
+	 */
+	public void setErrorKeys(Collection<String> errorKeys) {
+		this.errorKeys.clear();
+		this.errorKeys.addAll(errorKeys);
+		Enumeration<TranslationTreeNode> e = getEnumeration();
+		while (e.hasMoreElements()) {
+			TranslationTreeNode n = e.nextElement();
+			if (n.isLazy()) {
+				n.setLazyErrorCount(countErrorKeys(n.getKey()));
+			} else {
+				n.setError(this.errorKeys.contains(n.getKey()));
+			}
+			nodeChanged(n);
+		}
+	}
+	
+	/**
+	 * Marks the node of the given key as an error or not.
+	 *
+	 * @param 	key the key of the node.
+	 * @param 	error whether the node has an error.
+	 */
+	public void setError(String key, boolean error) {
+		if (error) {
+			errorKeys.add(key);
 		} else {
-			return (TranslationTreeNode) getRoot();
+			errorKeys.remove(key);
+		}
+		TranslationTreeNode node = nodesByKey.get(key);
+		if (node != null) {
+			node.setError(error);
+			nodeWithParentsChanged(node);
+			return;
+		}
+		// The node is not loaded, update the error count of its closest loaded ancestor instead
+		for (KeyPath path = KeyPath.of(key).getParent(); node == null; path = path.getParent()) {
+			node = nodesByKey.get(path.toString());
 		}
+		node.setLazyErrorCount(countErrorKeys(node.getKey()));
+		nodeWithParentsChanged(node);
 	}
 	
 	public void insertNodeInto(TranslationTreeNode newChild, TranslationTreeNode parent) {
 		insertNodeInto(newChild, parent, getNewChildIndex(newChild, parent));
 	}
 	
-	public void insertDescendantsInto(TranslationTreeNode source, TranslationTreeNode target) {
-		source.getChildren().forEach(child -> {
-			TranslationTreeNode existing = target.getChild(child.getName());
-			if (existing != null) {
-				if (existing.isLeaf()) {
-					removeNodeFromParent(existing);
-					insertNodeInto(child, target);
-				} else {
-					insertDescendantsInto(child, existing);					
-				}
-			} else {
-				insertNodeInto(child, target);
-			}
-		});
+	@Override
+	public void insertNodeInto(MutableTreeNode newChild, MutableTreeNode parent, int index) {
+		TranslationTreeNode node = (TranslationTreeNode) newChild;
+		removeFromIndex(node);
+		super.insertNodeInto(newChild, parent, index);
+		addToIndex(node);
+	}
+	
+	@Override
+	public void removeNodeFromParent(MutableTreeNode node) {
+		removeFromIndex((TranslationTreeNode) node);
+		super.removeNodeFromParent(node);
+	}
+	
+	@Override
+	public void setRoot(TreeNode root) {
+		nodesByKey.clear();
+		super.setRoot(root);
+		if (root != null) {
+			addToIndex((TranslationTreeNode) root);
+		}
 	}
 	
 	public void nodeWithParentsChanged(TranslationTreeNode node) {
@@ -98,6 +355,16 @@ public class TranslationTreeModel extends DefaultTreeModel {
 		}
 	}
 	
+	private void addToIndex(TranslationTreeNode node) {
+		nodesByKey.put(node.getKey(), node);
+		node.getChildren().forEach(this::addToIndex);
+	}
+	
+	private void removeFromIndex(TranslationTreeNode node) {
+		nodesByKey.remove(node.getKey(), node);
+		node.getChildren().forEach(this::removeFromIndex);
+	}
+	
 	private int getNewChildIndex(TranslationTreeNode newChild, TranslationTreeNode parent) {
 		int result = 0;
 		for (TranslationTreeNode n : parent.getChildren()) {
@@ -107,4 +374,229 @@ public class TranslationTreeModel extends DefaultTreeModel {
 		}
 		return result;
 	}
+	
+	private TranslationTreeNode createNode(String name, String key) {
+		TranslationTreeNode node = new TranslationTreeNode(name);
+		if (unloadedKeys.contains(key)) {
+			node.setLazy(true);
+		} else if (hasDescendants(key)) {
+			node.setLazy(true);
+			node.setLazyErrorCount(countErrorKeys(key));
+		} else {
+			node.setError(errorKeys.contains(key));
+		}
+		return node;
+	}
+	
+	/**
+	 * Brings the nodes along the path of the given key in line with the keys of this model,
+	 * the subtree of the node of the given key will be reconciled as a whole.
+	 */
+	private void refresh(String key) {
+		KeyPath path = KeyPath.of(key);
+		TranslationTreeNode node = (TranslationTreeNode) getRoot();
+		for (int i = 0; i < path.size(); i++) {
+			if (node.isLazy()) {
+				updateLazyNode(node);
+				return;
+			}
+			String name = path.getPart(i);
+			String childKey = path.subPath(0, i + 1).toString();
+			TranslationTreeNode child = node.getChild(name);
+			if (!exists(childKey)) {
+				if (child != null) {
+					removeChild(node, child);
+				}
+				return;
+			}
+			if (child == null) {
+				insertNodeInto(createNode(name, childKey), node);
+				return;
+			}
+			node = child;
+		}
+		reconcile(node);
+	}
+	
+	private void reconcile(TranslationTreeNode node) {
+		String key = node.getKey();
+		if (node.isLazy()) {
+			updateLazyNode(node);
+			return;
+		}
+		if (!hasDescendants(key)) {
+			node.getChildren().forEach(child -> removeChild(node, child));
+			node.setError(errorKeys.contains(key));
+			nodeWithParentsChanged(node);
+			return;
+		}
+		Set<String> names = getChildNames(key);
+		Map<String,TranslationTreeNode> children = Maps.newHashMap();
+		node.getChildren().forEach(child -> {
+			if (names.contains(child.getName())) {
+				children.put(child.getName(), child);
+			} else {
+				removeChild(node, child);
+			}
+		});
+		names.forEach(name -> {
+			String childKey = ResourceKeys.create(key, name);
+			TranslationTreeNode child = children.get(name);
+			if (child == null) {
+				insertNodeInto(createNode(name, childKey), node);
+			} else if (child.isLeaf() && hasDescendants(childKey)) {
+				child.setLazy(true);
+				child.setLazyErrorCount(countErrorKeys(childKey));
+				nodeStructureChanged(child);
+			} else {
+				reconcile(child);
+			}
+		});
+	}
+	
+	private void updateLazyNode(TranslationTreeNode node) {
+		String key = node.getKey();
+		if (unloadedKeys.contains(key)) {
+			nodeWithParentsChanged(node);
+		} else if (hasDescendants(key)) {
+			node.setLazyErrorCount(countErrorKeys(key));
+			nodeWithParentsChanged(node);
+		} else {
+			node.setLazy(false);
+			node.setError(errorKeys.contains(key));
+			nodeStructureChanged(node);
+			nodeWithParentsChanged(node);
+		}
+	}
+	
+	private void removeChild(TranslationTreeNode parent, TranslationTreeNode child) {
+		removeNodeFromParent(child);
+		if (parent.isLeaf()) {
+			parent.setError(errorKeys.contains(parent.getKey()));
+			nodeWithParentsChanged(parent);
+		}
+	}
+	
+	/**
+	 * Gets the names of the children of the given key in order of their first occurrence.
+	 * Whenever a deeper key is found, the whole subtree of that child is skipped at once.
+	 */
+	private Set<String> getChildNames(String key) {
+		Set<String> result = Sets.newLinkedHashSet();
+		NavigableSet<String> range = getDescendantKeys(keys, key);
+		int offset = key.isEmpty() ? 0 : key.length() + 1;
+		String k = range.isEmpty() ? null : range.first();
+		while (k != null) {
+			int end = k.indexOf('.', offset);
+			if (end < 0) {
+				result.add(k.substring(offset));
+				k = range.higher(k);
+			} else {
+				result.add(k.substring(offset, end));
+				k = range.ceiling(k.substring(0, end) + "/");
+			}
+		}
+		return result;
+	}
+	
+	private NavigableSet<String> getDescendantKeys(NavigableSet<String> set, String key) {
+		if (key.isEmpty()) {
+			return set;
+		}
+		return set.subSet(key + ".", true, key + "/", false);
+	}
+	
+	/**
+	 * Requests the descendant keys of the given key from the loader if the key is unloaded.
+	 * 
+	 * @return 	whether the descendant keys are available.
+	 */
+	private boolean load(String key) {
+		if (!unloadedKeys.contains(key)) {
+			return true;
+		}
+		Collection<String> loadedKeys = loader.apply(key);
+		if (loadedKeys == null) {
+			return false;
+		}
+		unloadedKeys.remove(key);
+		loadedKeys.forEach(k -> {
+			if (ResourceKeys.isChildKeyOf(k, key)) {
+				keys.add(k);
+			}
+		});
+		if (hasDescendants(key)) {
+			keys.remove(key);
+		}
+		return true;
+	}
+	
+	/**
+	 * Loads the unloaded ancestor of the given key, if any.
+	 * 
+	 * @return 	whether the given key exists afterwards.
+	 */
+	private boolean loadKeys(String key) {
+		KeyPath path = KeyPath.of(key);
+		for (int i = 1; i < path.size(); i++) {
+			String ancestorKey = path.subPath(0, i).toString();
+			TranslationTreeNode node = unloadedKeys.contains(ancestorKey) ? getNodeByKey(ancestorKey) : null;
+			if (node != null) {
+				loadChildren(node);
+				return exists(key);
+			}
+		}
+		return false;
+	}
+	
+	private boolean hasDescendants(String key) {
+		return !getDescendantKeys(keys, key).isEmpty();
+	}
+	
+	private boolean exists(String key) {
+		return key.isEmpty() || keys.contains(key) || hasDescendants(key);
+	}
+	
+	private int countErrorKeys(String key) {
+		int result = 0;
+		for (String k : getDescendantKeys(errorKeys, key)) {
+			if (keys.contains(k) && !hasDescendants(k)) {
+				result++;
+			}
+		}
+		return result;
+	}
+	
+	/**
+	 * Adds the given key, all keys of its ancestors and descendants will be removed.
+	 */
+	private void putKey(String key, boolean error) {
+		KeyPath path = KeyPath.of(key);
+		for (int i = 1; i < path.size(); i++) {
+			String parentKey = path.subPath(0, i).toString();
+			keys.remove(parentKey);
+			errorKeys.remove(parentKey);
+		}
+		getDescendantKeys(keys, key).clear();
+		getDescendantKeys(errorKeys, key).clear();
+		keys.add(key);
+		if (error) {
+			errorKeys.add(key);
+		}
+	}
+	
+	/**
+	 * Removes the given key and the keys of all its descendants.
+	 * The key of the parent will be kept if the parent has no other descendants.
+	 */
+	private void removeKeys(String key) {
+		keys.remove(key);
+		errorKeys.remove(key);
+		getDescendantKeys(keys, key).clear();
+		getDescendantKeys(errorKeys, key).clear();
+		String parentKey = ResourceKeys.withoutLastPart(key);
+		if (!parentKey.isEmpty() && !hasDescendants(parentKey)) {
+			keys.add(parentKey);
+		}
+	}
 }
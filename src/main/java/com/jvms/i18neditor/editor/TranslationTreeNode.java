@@ -1,14 +1,13 @@
 package com.jvms.i18neditor.editor;
 
-import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 import javax.swing.tree.DefaultMutableTreeNode;
-import javax.swing.tree.TreeNode;
+import javax.swing.tree.MutableTreeNode;
 
+import com.google.common.collect.Ordering;
 import com.jvms.i18neditor.util.ResourceKeys;
 
 /**
@@ -19,15 +18,21 @@ import com.jvms.i18neditor.util.ResourceKeys;
 public class TranslationTreeNode extends DefaultMutableTreeNode {
 	private final static long serialVersionUID = -7372403592538358822L;
 	private String name;
+	private String key;
 	private boolean error;
+	private int errorCount;
+	private boolean lazy;
+	private int lazyErrorCount;
+	
+	public TranslationTreeNode(String name) {
+		super();
+		this.name = name;
+	}
 	
 	public TranslationTreeNode(String name, List<String> keys) {
 		super();
 		this.name = name;
-		ResourceKeys.uniqueRootKeys(keys).forEach(rootKey -> {
-			List<String> subKeys = ResourceKeys.extractChildKeys(keys, rootKey);
-			add(new TranslationTreeNode(rootKey, subKeys));
-		});
+		TranslationTreeBuilder.build(this, Ordering.natural().isOrdered(keys) ? keys : Ordering.natural().sortedCopy(keys), 0);
 	}
 	
 	public String getName() {
@@ -36,27 +41,114 @@ public class TranslationTreeNode extends DefaultMutableTreeNode {
 	
 	public void setName(String name) {
 		this.name = name;
+		invalidateKey();
 	}
 	
 	public void setError(boolean error) {
-		this.error = error;
+		if (this.error != error) {
+			this.error = error;
+			if (isLeaf()) {
+				updateErrorCount(error ? 1 : -1);
+			}
+		}
+	}
+	
+	/**
+	 * Whether this node has children which are not loaded yet.
+	 * A lazy node is never a leaf, even though it has no child nodes.
+	 * 
+	 * @return 	whether this node is lazy.
+	 */
+	public boolean isLazy() {
+		return lazy;
+	}
+	
+	public void setLazy(boolean lazy) {
+		if (this.lazy != lazy) {
+			int oldCount = getOwnErrorCount();
+			this.lazy = lazy;
+			if (!lazy) {
+				lazyErrorCount = 0;
+			}
+			updateErrorCount(getOwnErrorCount() - oldCount);
+		}
+	}
+	
+	/**
+	 * Sets the number of leaf nodes with an error in the unloaded subtree of this lazy node.
+	 * 
+	 * @param 	count the number of leaf nodes with an error.
+	 */
+	public void setLazyErrorCount(int count) {
+		if (lazy) {
+			updateErrorCount(count - lazyErrorCount);
+			lazyErrorCount = count;
+		}
 	}
 	
 	public boolean hasError() {
 		return isEditable() && error;
 	}
 	
+	/**
+	 * Gets the number of leaf nodes with an error in the subtree of this node, including this node itself.
+	 * The count is kept up to date whenever an error changes or nodes are inserted or removed,
+	 * for a lazy node it includes the count of its unloaded subtree.
+	 * 
+	 * @return 	the number of leaf nodes with an error.
+	 */
+	public int getErrorCount() {
+		return errorCount;
+	}
+	
+	@Override
+	public boolean isLeaf() {
+		return !lazy && super.isLeaf();
+	}
+	
 	public boolean isEditable() {
 		return !isRoot() && isLeaf();
 	}
 	
 	public String getKey() {
-		List<TreeNode> path = Arrays.asList(getPath());
-		List<String> parts = path.stream()
-				.filter(p -> !((TranslationTreeNode)p).isRoot())
-				.map(p -> p.toString())
-				.collect(Collectors.toList());
-		return ResourceKeys.create(parts);
+		if (key == null) {
+			// The key is cached and invalidated for the whole subtree whenever the name or parent changes
+			TranslationTreeNode parent = (TranslationTreeNode) getParent();
+			key = parent == null ? "" : ResourceKeys.create(parent.getKey(), name);
+		}
+		return key;
+	}
+	
+	@Override
+	public void insert(MutableTreeNode newChild, int childIndex) {
+		MutableTreeNode oldParent = (MutableTreeNode) newChild.getParent();
+		if (oldParent != null) {
+			oldParent.remove(newChild);
+		}
+		boolean wasLeaf = isLeaf();
+		super.insert(newChild, childIndex);
+		int delta = ((TranslationTreeNode) newChild).errorCount;
+		if (wasLeaf && error) {
+			delta--;
+		}
+		updateErrorCount(delta);
+	}
+	
+	@Override
+	public void remove(int childIndex) {
+		TranslationTreeNode child = (TranslationTreeNode) getChildAt(childIndex);
+		super.remove(childIndex);
+		int delta = -child.errorCount;
+		if (isLeaf() && error) {
+			delta++;
+		}
+		updateErrorCount(delta);
+	}
+	
+	@Override
+	public void setParent(MutableTreeNode newParent) {
+		super.setParent(newParent);
+		invalidateKey();
 	}
 	
 	@SuppressWarnings("unchecked")
@@ -71,20 +163,28 @@ public class TranslationTreeNode extends DefaultMutableTreeNode {
 		return child.isPresent() ? child.get() : null;
 	}
 	
-	public TranslationTreeNode cloneWithChildren() {
-		return cloneWithChildren(this);
-	}
-	
 	@Override
 	public String toString() {
 		return name;
 	}
 	
-	private TranslationTreeNode cloneWithChildren(TranslationTreeNode parent) {
-		TranslationTreeNode newParent = (TranslationTreeNode) parent.clone();
-		for (TranslationTreeNode n : parent.getChildren()) {
-			newParent.add(cloneWithChildren(n));
+	private int getOwnErrorCount() {
+		return (error && isLeaf() ? 1 : 0) + lazyErrorCount;
+	}
+	
+	private void updateErrorCount(int delta) {
+		if (delta != 0) {
+			for (TranslationTreeNode n = this; n != null; n = (TranslationTreeNode) n.getParent()) {
+				n.errorCount += delta;
+			}
+		}
+	}
+	
+	private void invalidateKey() {
+		// When the key of a node is not cached, none of the keys of its descendants are cached either
+		if (key != null) {
+			key = null;
+			getChildren().forEach(TranslationTreeNode::invalidateKey);
 		}
-		return newParent;
 	}
 }
\ No newline at end of file
@@ -4,11 +4,23 @@ import java.awt.Component;
 import java.awt.Font;
 import java.awt.GridBagLayout;
 import java.awt.GridLayout;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 import javax.swing.BorderFactory;
+import javax.swing.JButton;
+import javax.swing.JDialog;
 import javax.swing.JLabel;
 import javax.swing.JOptionPane;
 import javax.swing.JPanel;
+import javax.swing.JProgressBar;
+import javax.swing.SwingUtilities;
+import javax.swing.UIManager;
+import javax.swing.WindowConstants;
 
 import com.google.common.base.Strings;
 import com.jvms.i18neditor.swing.JHtmlPane;
@@ -22,6 +34,7 @@ import com.jvms.i18neditor.swing.text.BlinkCaret;
  * @author Jacob van Mourik
  */
 public final class Dialogs {
+	private final static long PROGRESS_DIALOG_DELAY = 250;
 	
 	public static void showErrorDialog(Component parent, String title, String message) {
 		JOptionPane.showMessageDialog(parent, message, title, JOptionPane.ERROR_MESSAGE);
@@ -55,6 +68,11 @@ public final class Dialogs {
 		return JOptionPane.showConfirmDialog(parent, message, title, type) == JOptionPane.YES_OPTION;
 	}
 	
+	public static int showOptionDialog(Component parent, String title, String message, String... options) {
+		return JOptionPane.showOptionDialog(parent, message, title, JOptionPane.DEFAULT_OPTION, 
+				JOptionPane.QUESTION_MESSAGE, null, options, options[0]);
+	}
+	
 	public static String showInputDialog(Component parent, String title, String label, int type, String initialText, boolean selectAll) {
 		JPanel content = new JPanel(new GridLayout(0, 1));
 		
@@ -83,4 +101,55 @@ public final class Dialogs {
 	public static String showInputDialog(Component parent, String title, String label, int type) {
 		return showInputDialog(parent, title, label, type, null, false);
 	}
+	
+	/**
+	 * Shows a modal progress dialog until all of the given tasks are completed.
+	 * 
+	 * <p>The dialog is only shown when the tasks take longer than a short delay. While the dialog is shown,
+	 * events keep being dispatched so the UI stays responsive but does not accept any input.</p>
+	 * 
+	 * <p>The dialog has a cancel button which cancels all tasks. Tasks which have already been started may not 
+	 * support being cancelled, the dialog stays open until those have completed as well.</p>
+	 * 
+	 * @param 	parent the parent component of the dialog.
+	 * @param 	title the title of the dialog.
+	 * @param 	message the message of the dialog.
+	 * @param 	tasks the tasks to wait for.
+	 * @return 	whether none of the tasks has been cancelled.
+	 */
+	public static boolean showProgressDialog(Component parent, String title, String message, List<? extends CompletableFuture<?>> tasks) {
+		CompletableFuture<Void> all = CompletableFuture.allOf(tasks.toArray(new CompletableFuture<?>[0]));
+		try {
+			all.get(PROGRESS_DIALOG_DELAY, TimeUnit.MILLISECONDS);
+			return true;
+		} catch (TimeoutException e) {
+			// Show the dialog
+		} catch (InterruptedException | ExecutionException | CancellationException e) {
+			return tasks.stream().noneMatch(task -> task.isCancelled());
+		}
+		
+		JProgressBar progressBar = new JProgressBar(0, tasks.size());
+		JPanel content = new JPanel(new GridLayout(0, 1, 0, 5));
+		content.add(new JLabel(message));
+		content.add(progressBar);
+		
+		JButton cancelButton = new JButton(UIManager.getString("OptionPane.cancelButtonText"));
+		cancelButton.addActionListener(e -> {
+			cancelButton.setEnabled(false);
+			tasks.forEach(task -> task.cancel(false));
+		});
+		
+		JOptionPane pane = new JOptionPane(content, JOptionPane.PLAIN_MESSAGE, JOptionPane.DEFAULT_OPTION, null, 
+				new Object[] { cancelButton });
+		JDialog dialog = pane.createDialog(parent, title);
+		dialog.setDefaultCloseOperation(WindowConstants.DO_NOTHING_ON_CLOSE);
+		
+		tasks.forEach(task -> task.whenComplete((result, e) -> {
+			SwingUtilities.invokeLater(() -> progressBar.setValue(progressBar.getValue() + 1));
+		}));
+		// The dialog will be disposed from within its own event loop, even if the tasks complete before it is shown
+		all.whenComplete((result, e) -> SwingUtilities.invokeLater(dialog::dispose));
+		dialog.setVisible(true);
+		return tasks.stream().noneMatch(task -> task.isCancelled());
+	}
 }
\ No newline at end of file
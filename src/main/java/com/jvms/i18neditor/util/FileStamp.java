@@ -0,0 +1,141 @@
+package com.jvms.i18neditor.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Objects;
+
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+import com.google.common.hash.HashingInputStream;
+import com.google.common.hash.HashingOutputStream;
+import com.google.common.io.ByteStreams;
+
+/**
+ * This class represents the state of a file on disk at a certain moment, defined by its size,
+ * last modified time and a hash of its content.
+ * 
+ * @author Jacob van Mourik
+ */
+public final class FileStamp {
+	private final static HashFunction HASH_FUNCTION = Hashing.murmur3_128();
+	private final long size;
+	private final long lastModified;
+	private final long hash;
+	
+	public FileStamp(long size, long lastModified, long hash) {
+		this.size = size;
+		this.lastModified = lastModified;
+		this.hash = hash;
+	}
+	
+	/**
+	 * Creates a file stamp of the given file with an already computed hash of its content.
+	 * 
+	 * @param 	path the path of the file.
+	 * @param 	hash the hash of the content of the file, see {@link #hashFunction()}.
+	 * @return 	the file stamp.
+	 * @throws 	IOException if an I/O error occurs reading the file attributes.
+	 */
+	public static FileStamp of(Path path, long hash) throws IOException {
+		BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+		return new FileStamp(attributes.size(), attributes.lastModifiedTime().toMillis(), hash);
+	}
+	
+	/**
+	 * Creates a file stamp of the given file by reading its content.
+	 * 
+	 * @param 	path the path of the file.
+	 * @return 	the file stamp.
+	 * @throws 	IOException if an I/O error occurs reading the file.
+	 */
+	public static FileStamp of(Path path) throws IOException {
+		BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+		try (HashingInputStream in = new HashingInputStream(HASH_FUNCTION, Files.newInputStream(path))) {
+			ByteStreams.exhaust(in);
+			return new FileStamp(attributes.size(), attributes.lastModifiedTime().toMillis(), in.hash().asLong());
+		}
+	}
+	
+	/**
+	 * Gets the hash function used for hashing the content of files.
+	 * 
+	 * @return 	the hash function.
+	 */
+	public static HashFunction hashFunction() {
+		return HASH_FUNCTION;
+	}
+	
+	/**
+	 * Wraps the given input stream, so that the content of a file can be hashed while reading it.
+	 * 
+	 * @param 	in the input stream of the file.
+	 * @return 	the hashing input stream.
+	 */
+	public static HashingInputStream hashing(InputStream in) {
+		return new HashingInputStream(HASH_FUNCTION, in);
+	}
+	
+	/**
+	 * Wraps the given output stream, so that the content of a file can be hashed while writing it.
+	 * 
+	 * @param 	out the output stream of the file.
+	 * @return 	the hashing output stream.
+	 */
+	public static HashingOutputStream hashing(OutputStream out) {
+		return new HashingOutputStream(HASH_FUNCTION, out);
+	}
+	
+	public long getSize() {
+		return size;
+	}
+	
+	public long getLastModified() {
+		return lastModified;
+	}
+	
+	public long getHash() {
+		return hash;
+	}
+	
+	/**
+	 * Checks whether the given file still matches this file stamp.
+	 * 
+	 * <p>When the size or last modified time differ from the file attributes, the content of 
+	 * the file will be hashed to decide whether the file actually changed.</p>
+	 * 
+	 * @param 	path the path of the file.
+	 * @return 	whether the file matches.
+	 * @throws 	IOException if an I/O error occurs reading the file.
+	 */
+	public boolean matches(Path path) throws IOException {
+		if (!Files.isRegularFile(path)) {
+			return false;
+		}
+		BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+		if (attributes.size() != size) {
+			return false;
+		}
+		if (attributes.lastModifiedTime().toMillis() == lastModified) {
+			return true;
+		}
+		return of(path).hash == hash;
+	}
+	
+	@Override
+	public boolean equals(Object obj) {
+		if (!(obj instanceof FileStamp)) {
+			return false;
+		}
+		FileStamp other = (FileStamp) obj;
+		return size == other.size && lastModified == other.lastModified && hash == other.hash;
+	}
+	
+	@Override
+	public int hashCode() {
+		return Objects.hash(size, lastModified, hash);
+	}
+}
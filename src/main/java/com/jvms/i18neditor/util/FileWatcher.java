@@ -0,0 +1,134 @@
+package com.jvms.i18neditor.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+
+/**
+ * This class watches a collection of files for changes made on disk.
+ *
+ * <p>The parent directories of the files are registered with a {@link WatchService}, which is polled by
+ * a single daemon thread. Events are debounced, the listener will be called once the files have not been
+ * changed for the given delay, with all files which have been created, modified or deleted in the meantime.
+ * The listener is called on the watcher thread.</p>
+ *
+ * @author Jacob van Mourik
+ */
+public class FileWatcher implements Closeable {
+	private final static Logger log = LoggerFactory.getLogger(FileWatcher.class);
+	private final Map<Path,Path> files = Maps.newHashMap();
+	private final WatchService watchService;
+	private final Consumer<Set<Path>> listener;
+	private final long delay;
+	
+	/**
+	 * Creates a new file watcher and starts watching the given files.
+	 *
+	 * @param 	files the files to watch.
+	 * @param 	delay the time in milliseconds to wait for further changes before calling the listener.
+	 * @param 	listener the listener to call with the changed files.
+	 * @throws 	IOException if an I/O error occurs registering the directories of the files.
+	 */
+	public FileWatcher(Collection<Path> files, long delay, Consumer<Set<Path>> listener) throws IOException {
+		this.listener = listener;
+		this.delay = TimeUnit.MILLISECONDS.toNanos(delay);
+		this.watchService = files.isEmpty() ? null : files.iterator().next().getFileSystem().newWatchService();
+		try {
+			Set<Path> dirs = Sets.newHashSet();
+			for (Path file : files) {
+				Path absolute = file.toAbsolutePath().normalize();
+				this.files.put(absolute, file);
+				if (dirs.add(absolute.getParent())) {
+					absolute.getParent().register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+							StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+				}
+			}
+		} catch (IOException e) {
+			close();
+			throw e;
+		}
+		if (watchService != null) {
+			Thread thread = new Thread(this::run, "file-watcher");
+			thread.setDaemon(true);
+			thread.start();
+		}
+	}
+	
+	/**
+	 * Stops watching the files. The listener will not be called anymore afterwards,
+	 * unless it is already being called.
+	 */
+	@Override
+	public void close() throws IOException {
+		if (watchService != null) {
+			watchService.close();
+		}
+	}
+	
+	private void run() {
+		Set<Path> changed = Sets.newHashSet();
+		long deadline = 0;
+		try {
+			while (true) {
+				WatchKey key = changed.isEmpty()
+						? watchService.take()
+						: watchService.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+				if (key == null) {
+					notifyListener(ImmutableSet.copyOf(changed));
+					changed.clear();
+					continue;
+				}
+				Path dir = (Path) key.watchable();
+				boolean found = false;
+				for (WatchEvent<?> event : key.pollEvents()) {
+					if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+						// Events may have been lost, so consider all files within the directory changed
+						for (Map.Entry<Path,Path> entry : files.entrySet()) {
+							if (entry.getKey().getParent().equals(dir)) {
+								changed.add(entry.getValue());
+								found = true;
+							}
+						}
+					} else {
+						Path file = files.get(dir.resolve((Path) event.context()));
+						if (file != null) {
+							changed.add(file);
+							found = true;
+						}
+					}
+				}
+				key.reset();
+				if (found) {
+					deadline = System.nanoTime() + delay;
+				}
+			}
+		} catch (InterruptedException | ClosedWatchServiceException e) {
+			// The watcher has been closed
+		}
+	}
+	
+	private void notifyListener(Set<Path> changed) {
+		try {
+			listener.accept(changed);
+		} catch (RuntimeException e) {
+			log.error("Error handling changed files " + changed, e);
+		}
+	}
+}
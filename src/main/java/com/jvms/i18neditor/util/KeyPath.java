@@ -0,0 +1,283 @@
+package com.jvms.i18neditor.util;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * This class represents an immutable translation key as a path of parts separated by a dot.
+ *
+ * <p>The offsets of all parts are computed once when a key path is created. Sub paths, such as the parent
+ * of a key path, share the key and the offsets of the key path they are created from. All comparisons are done
+ * on character ranges of the key, so no regular expressions or temporary strings are involved.
+ * The string of a sub path and the hash code are computed once, when needed.</p>
+ *
+ * <p>The empty key is represented by {@link #ROOT}, which has no parts at all.</p>
+ *
+ * @author Jacob van Mourik
+ */
+public final class KeyPath implements Comparable<KeyPath> {
+	public final static KeyPath ROOT = new KeyPath("", new int[] { 0 }, 0, 0);
+	private final String source;
+	// The start offset of each part within the source, followed by the length of the source plus one
+	private final int[] offsets;
+	private final int first;
+	private final int last;
+	private String key;
+	private int hash;
+	
+	private KeyPath(String source, int[] offsets, int first, int last) {
+		this.source = source;
+		this.offsets = offsets;
+		this.first = first;
+		this.last = last;
+	}
+	
+	/**
+	 * Creates a key path of the given key.
+	 *
+	 * @param 	key the key.
+	 * @return 	the key path, or {@link #ROOT} if the key is empty.
+	 */
+	public static KeyPath of(String key) {
+		if (key.isEmpty()) {
+			return ROOT;
+		}
+		int size = 1;
+		for (int i = key.indexOf('.'); i >= 0; i = key.indexOf('.', i + 1)) {
+			size++;
+		}
+		int[] offsets = new int[size + 1];
+		for (int i = 1, j = key.indexOf('.'); i < size; i++, j = key.indexOf('.', j + 1)) {
+			offsets[i] = j + 1;
+		}
+		offsets[size] = key.length() + 1;
+		KeyPath result = new KeyPath(key, offsets, 0, size);
+		result.key = key;
+		return result;
+	}
+	
+	/**
+	 * Gets the number of parts of the key path.
+	 *
+	 * @return 	the number of parts.
+	 */
+	public int size() {
+		return last - first;
+	}
+	
+	public boolean isRoot() {
+		return first == last;
+	}
+	
+	/**
+	 * Gets the number of characters of the key.
+	 *
+	 * @return 	the length of the key.
+	 */
+	public int length() {
+		return end() - start();
+	}
+	
+	/**
+	 * Gets a part of the key path.
+	 *
+	 * @param 	index the index of the part.
+	 * @return 	the part.
+	 */
+	public String getPart(int index) {
+		Preconditions.checkElementIndex(index, size());
+		return source.substring(offsets[first + index], offsets[first + index + 1] - 1);
+	}
+	
+	/**
+	 * Checks whether a part of the key path equals the given name, without creating a string of the part.
+	 *
+	 * @param 	index the index of the part.
+	 * @param 	name the name to compare with.
+	 * @return 	whether the part equals the given name.
+	 */
+	public boolean partEquals(int index, String name) {
+		Preconditions.checkElementIndex(index, size());
+		int start = offsets[first + index];
+		int length = offsets[first + index + 1] - 1 - start;
+		return length == name.length() && source.regionMatches(start, name, 0, length);
+	}
+	
+	/**
+	 * Gets the last part of the key path.
+	 *
+	 * @return 	the last part, or an empty string for the root.
+	 */
+	public String getName() {
+		return isRoot() ? "" : getPart(size() - 1);
+	}
+	
+	/**
+	 * Gets the parent of the key path, which consists of all but the last part.
+	 *
+	 * @return 	the parent, or {@code null} for the root.
+	 */
+	public KeyPath getParent() {
+		return isRoot() ? null : subPath(0, size() - 1);
+	}
+	
+	/**
+	 * See {@link #subPath(int, int)}.
+	 */
+	public KeyPath subPath(int from) {
+		return subPath(from, size());
+	}
+	
+	/**
+	 * Creates a key path of a range of the parts of this key path.
+	 *
+	 * @param 	from the index of the first part, inclusive.
+	 * @param 	to the index of the last part, exclusive.
+	 * @return 	the sub path.
+	 */
+	public KeyPath subPath(int from, int to) {
+		Preconditions.checkPositionIndexes(from, to, size());
+		if (from == to) {
+			return ROOT;
+		}
+		if (from == 0 && to == size()) {
+			return this;
+		}
+		return new KeyPath(source, offsets, first + from, first + to);
+	}
+	
+	/**
+	 * Creates a key path of a child of this key path.
+	 *
+	 * @param 	name the name of the child, which may consist of multiple parts.
+	 * @return 	the key path of the child.
+	 */
+	public KeyPath resolve(String name) {
+		return isRoot() ? of(name) : of(toString() + "." + name);
+	}
+	
+	/**
+	 * Checks whether the given key path is equal to or a parent of this key path.
+	 *
+	 * @param 	other the possible parent.
+	 * @return 	whether this key path starts with all parts of the given key path.
+	 */
+	public boolean startsWith(KeyPath other) {
+		int length = other.length();
+		if (other.isRoot()) {
+			return true;
+		}
+		if (other.size() > size() || !source.regionMatches(start(), other.source, other.start(), length)) {
+			return false;
+		}
+		return length == length() || source.charAt(start() + length) == '.';
+	}
+	
+	/**
+	 * Checks whether this key path is a child of the given key path.
+	 * A key is a child of another key if it has the same parts at the beginning as the other key.
+	 *
+	 * @param 	parent the possible parent.
+	 * @return 	whether this key path is a child of the given key path.
+	 */
+	public boolean isChildOf(KeyPath parent) {
+		return size() > parent.size() && startsWith(parent);
+	}
+	
+	/**
+	 * Gets the child parts of this key path relative to the given parent key path.
+	 *
+	 * @param 	parent the parent.
+	 * @return 	the child parts, or {@link #ROOT} if this key path is not a child of the given key path.
+	 */
+	public KeyPath relativize(KeyPath parent) {
+		return isChildOf(parent) ? subPath(parent.size()) : ROOT;
+	}
+	
+	/**
+	 * Gets the number of leading parts which are equal in this and the given key path.
+	 *
+	 * @param 	other the other key path.
+	 * @return 	the number of common leading parts.
+	 */
+	public int commonPrefixSize(KeyPath other) {
+		int size = Math.min(size(), other.size());
+		for (int i = 0; i < size; i++) {
+			int start = offsets[first + i];
+			int length = offsets[first + i + 1] - start;
+			int otherStart = other.offsets[other.first + i];
+			if (length != other.offsets[other.first + i + 1] - otherStart ||
+				!source.regionMatches(start, other.source, otherStart, length - 1)) {
+				return i;
+			}
+		}
+		return size;
+	}
+	
+	@Override
+	public int compareTo(KeyPath o) {
+		// Compares the characters of both keys, which is consistent with the natural order of the keys
+		int start = start();
+		int otherStart = o.start();
+		int length = Math.min(length(), o.length());
+		for (int i = 0; i < length; i++) {
+			char a = source.charAt(start + i);
+			char b = o.source.charAt(otherStart + i);
+			if (a != b) {
+				return a - b;
+			}
+		}
+		return length() - o.length();
+	}
+	
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof KeyPath)) {
+			return false;
+		}
+		KeyPath other = (KeyPath) obj;
+		int length = length();
+		return length == other.length() && hashCode() == other.hashCode() &&
+				source.regionMatches(start(), other.source, other.start(), length);
+	}
+	
+	/**
+	 * Gets the hash code of the key path, which equals the hash code of the key.
+	 */
+	@Override
+	public int hashCode() {
+		int h = hash;
+		if (h == 0) {
+			for (int i = start(), end = end(); i < end; i++) {
+				h = 31 * h + source.charAt(i);
+			}
+			hash = h;
+		}
+		return h;
+	}
+	
+	/**
+	 * Gets the key of the key path.
+	 *
+	 * @return 	the key.
+	 */
+	@Override
+	public String toString() {
+		String result = key;
+		if (result == null) {
+			result = source.substring(start(), end());
+			key = result;
+		}
+		return result;
+	}
+	
+	private int start() {
+		return offsets[first];
+	}
+	
+	private int end() {
+		return isRoot() ? start() : offsets[last] - 1;
+	}
+}
@@ -0,0 +1,69 @@
+package com.jvms.i18neditor.util;
+
+import java.io.Closeable;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryNotificationInfo;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+
+import javax.management.ListenerNotFoundException;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * This class notifies a listener when the heap is running low on memory.
+ *
+ * <p>A collection usage threshold is set on each heap memory pool which supports it, the listener is called
+ * whenever a garbage collection leaves a pool filled beyond the given fraction of its maximum size. Only the memory
+ * which is still in use after a collection is taken into account, so the listener is not called for garbage
+ * which could have been collected. The listener is called on a thread of the JVM, it should return quickly.</p>
+ *
+ * <p>The thresholds are shared by all monitors, only one monitor should be open at a time.</p>
+ *
+ * @author Jacob van Mourik
+ */
+public class MemoryMonitor implements Closeable {
+	private final static Logger log = LoggerFactory.getLogger(MemoryMonitor.class);
+	private final NotificationListener listener;
+	
+	/**
+	 * Creates a new monitor and starts monitoring the heap.
+	 *
+	 * @param 	threshold the fraction of the maximum size of a memory pool above which the listener is called.
+	 * @param 	listener the listener to call when the heap is running low on memory.
+	 */
+	public MemoryMonitor(double threshold, Runnable listener) {
+		this.listener = (notification, handback) -> {
+			if (MemoryNotificationInfo.MEMORY_COLLECTION_THRESHOLD_EXCEEDED.equals(notification.getType())) {
+				listener.run();
+			}
+		};
+		for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+			long max = pool.getUsage().getMax();
+			if (pool.getType() == MemoryType.HEAP && pool.isCollectionUsageThresholdSupported() && max > 0) {
+				pool.setCollectionUsageThreshold((long) (max * threshold));
+			}
+		}
+		emitter().addNotificationListener(this.listener, null, null);
+	}
+	
+	/**
+	 * Stops monitoring the heap. The listener will not be called anymore afterwards,
+	 * unless it is already being called.
+	 */
+	@Override
+	public void close() {
+		try {
+			emitter().removeNotificationListener(listener);
+		} catch (ListenerNotFoundException e) {
+			log.warn("Memory monitor has already been closed", e);
+		}
+	}
+	
+	private static NotificationEmitter emitter() {
+		return (NotificationEmitter) ManagementFactory.getMemoryMXBean();
+	}
+}
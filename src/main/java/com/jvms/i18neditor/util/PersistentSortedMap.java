@@ -0,0 +1,466 @@
+package com.jvms.i18neditor.util;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * This class represents an immutable sorted map which shares its structure with the maps derived from it.
+ *
+ * <p>The map is backed by a persistent AVL tree. Modifications are done via {@link #plus(Comparable, Object)}
+ * and {@link #minus(Comparable)}, which leave the current map untouched and return a new map sharing all
+ * but {@code O(log n)} nodes with the current one. This makes taking a snapshot of the map an {@code O(1)}
+ * operation, a snapshot can safely be read by other threads while new versions of the map are created.</p>
+ *
+ * <p>Maps created by {@link #subMap(Comparable, Comparable)}, {@link #headMap(Comparable)} and
+ * {@link #tailMap(Comparable)} are views on the same tree restricted to a key range.</p>
+ *
+ * <p>The keys are sorted according to their natural ordering, {@code null} keys and values are not permitted.</p>
+ *
+ * @param 	<K> the type of keys.
+ * @param 	<V> the type of values.
+ * @author Jacob van Mourik
+ */
+public final class PersistentSortedMap<K extends Comparable<? super K>,V> extends AbstractMap<K,V>
+		implements SortedMap<K,V> {
+	@SuppressWarnings("rawtypes")
+	private final static PersistentSortedMap EMPTY = new PersistentSortedMap<>(null, null, null);
+	private final Node<K,V> root;
+	private final K fromKey;
+	private final K toKey;
+	private Set<Entry<K,V>> entrySet;
+	
+	/**
+	 * Gets an empty map.
+	 *
+	 * @return 	the empty map.
+	 */
+	@SuppressWarnings("unchecked")
+	public static <K extends Comparable<? super K>,V> PersistentSortedMap<K,V> empty() {
+		return EMPTY;
+	}
+	
+	/**
+	 * Creates a map containing the same mappings as the given map.
+	 *
+	 * <p>When the given map is already sorted by natural ordering the map will be created in linear time.</p>
+	 *
+	 * @param 	map the map whose mappings are to be placed in the new map.
+	 * @return 	the new map.
+	 */
+	@SuppressWarnings("unchecked")
+	public static <K extends Comparable<? super K>,V> PersistentSortedMap<K,V> copyOf(Map<K,V> map) {
+		if (map instanceof PersistentSortedMap) {
+			PersistentSortedMap<K,V> other = (PersistentSortedMap<K,V>) map;
+			if (other.fromKey == null && other.toKey == null) {
+				return other;
+			}
+		}
+		if (!(map instanceof SortedMap) || ((SortedMap<K,V>) map).comparator() != null) {
+			map = new TreeMap<>(map);
+		}
+		Entry<K,V>[] entries = map.entrySet().toArray(newEntries(map.size()));
+		return new PersistentSortedMap<>(build(entries, 0, entries.length), null, null);
+	}
+	
+	/**
+	 * Creates a map containing the given entries in linear time.
+	 *
+	 * @param 	entries the entries, strictly ascending by natural ordering of their keys.
+	 * @return 	the new map.
+	 * @throws 	IllegalArgumentException if the entries are not strictly ascending.
+	 */
+	public static <K extends Comparable<? super K>,V> PersistentSortedMap<K,V> copyOfSorted(List<? extends Entry<K,V>> entries) {
+		Entry<K,V>[] array = entries.toArray(newEntries(entries.size()));
+		for (int i = 1; i < array.length; i++) {
+			Preconditions.checkArgument(array[i - 1].getKey().compareTo(array[i].getKey()) < 0, "Entries are not strictly ascending.");
+		}
+		return new PersistentSortedMap<>(build(array, 0, array.length), null, null);
+	}
+	
+	private PersistentSortedMap(Node<K,V> root, K fromKey, K toKey) {
+		this.root = root;
+		this.fromKey = fromKey;
+		this.toKey = toKey;
+	}
+	
+	/**
+	 * Returns a map containing the mappings of this map plus the given mapping.
+	 * If the map already contains a mapping for the given key, the value will be replaced.
+	 *
+	 * @param 	key the key.
+	 * @param 	value the value, may not be {@code null}.
+	 * @return 	the new map.
+	 */
+	public PersistentSortedMap<K,V> plus(K key, V value) {
+		checkUnbounded();
+		Preconditions.checkNotNull(key);
+		Preconditions.checkNotNull(value);
+		return new PersistentSortedMap<>(put(root, key, value), null, null);
+	}
+	
+	/**
+	 * Returns a map containing the mappings of this map minus the mapping of the given key.
+	 * If the map does not contain the given key, this map will be returned.
+	 *
+	 * @param 	key the key.
+	 * @return 	the new map.
+	 */
+	public PersistentSortedMap<K,V> minus(K key) {
+		checkUnbounded();
+		Node<K,V> newRoot = remove(root, key);
+		return newRoot == root ? this : new PersistentSortedMap<>(newRoot, null, null);
+	}
+	
+	@Override
+	public V get(Object key) {
+		@SuppressWarnings("unchecked")
+		K k = (K) key;
+		if (k == null || !inRange(k)) {
+			return null;
+		}
+		Node<K,V> node = root;
+		while (node != null) {
+			int cmp = k.compareTo(node.key);
+			if (cmp == 0) {
+				return node.value;
+			}
+			node = cmp < 0 ? node.left : node.right;
+		}
+		return null;
+	}
+	
+	@Override
+	public boolean containsKey(Object key) {
+		return get(key) != null;
+	}
+	
+	@Override
+	public int size() {
+		int to = toKey == null ? size(root) : rank(root, toKey);
+		int from = fromKey == null ? 0 : rank(root, fromKey);
+		return Math.max(0, to - from);
+	}
+	
+	@Override
+	public boolean isEmpty() {
+		return first() == null;
+	}
+	
+	@Override
+	public Set<Entry<K,V>> entrySet() {
+		if (entrySet == null) {
+			entrySet = new EntrySet();
+		}
+		return entrySet;
+	}
+	
+	@Override
+	public Comparator<? super K> comparator() {
+		return null;
+	}
+	
+	@Override
+	public SortedMap<K,V> subMap(K fromKey, K toKey) {
+		Preconditions.checkArgument(fromKey.compareTo(toKey) <= 0, "fromKey > toKey");
+		return new PersistentSortedMap<>(root, max(this.fromKey, fromKey), min(this.toKey, toKey));
+	}
+	
+	@Override
+	public SortedMap<K,V> headMap(K toKey) {
+		return new PersistentSortedMap<>(root, fromKey, min(this.toKey, toKey));
+	}
+	
+	@Override
+	public SortedMap<K,V> tailMap(K fromKey) {
+		return new PersistentSortedMap<>(root, max(this.fromKey, fromKey), toKey);
+	}
+	
+	@Override
+	public K firstKey() {
+		Node<K,V> node = first();
+		if (node == null) {
+			throw new NoSuchElementException();
+		}
+		return node.key;
+	}
+	
+	@Override
+	public K lastKey() {
+		Node<K,V> result = null;
+		Node<K,V> node = root;
+		while (node != null) {
+			if (toKey != null && node.key.compareTo(toKey) >= 0) {
+				node = node.left;
+			} else {
+				result = node;
+				node = node.right;
+			}
+		}
+		if (result == null || (fromKey != null && result.key.compareTo(fromKey) < 0)) {
+			throw new NoSuchElementException();
+		}
+		return result.key;
+	}
+	
+	private Node<K,V> first() {
+		Node<K,V> result = null;
+		Node<K,V> node = root;
+		while (node != null) {
+			if (fromKey != null && node.key.compareTo(fromKey) < 0) {
+				node = node.right;
+			} else {
+				result = node;
+				node = node.left;
+			}
+		}
+		if (result == null || (toKey != null && result.key.compareTo(toKey) >= 0)) {
+			return null;
+		}
+		return result;
+	}
+	
+	private boolean inRange(K key) {
+		return (fromKey == null || key.compareTo(fromKey) >= 0) && (toKey == null || key.compareTo(toKey) < 0);
+	}
+	
+	private void checkUnbounded() {
+		if (fromKey != null || toKey != null) {
+			throw new UnsupportedOperationException("Unable to modify a range view of a map.");
+		}
+	}
+	
+	private K min(K a, K b) {
+		return a == null ? b : (b == null || a.compareTo(b) <= 0 ? a : b);
+	}
+	
+	private K max(K a, K b) {
+		return a == null ? b : (b == null || a.compareTo(b) >= 0 ? a : b);
+	}
+	
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	private static <K,V> Entry<K,V>[] newEntries(int size) {
+		return new Entry[size];
+	}
+	
+	private static <K extends Comparable<? super K>,V> Node<K,V> build(Entry<K,V>[] entries, int from, int to) {
+		if (from >= to) {
+			return null;
+		}
+		int mid = (from + to) >>> 1;
+		Entry<K,V> entry = entries[mid];
+		Preconditions.checkNotNull(entry.getValue());
+		return new Node<>(entry.getKey(), entry.getValue(), build(entries, from, mid), build(entries, mid + 1, to));
+	}
+	
+	private static <K extends Comparable<? super K>,V> Node<K,V> put(Node<K,V> node, K key, V value) {
+		if (node == null) {
+			return new Node<>(key, value, null, null);
+		}
+		int cmp = key.compareTo(node.key);
+		if (cmp == 0) {
+			return node.value == value ? node : new Node<>(key, value, node.left, node.right);
+		}
+		if (cmp < 0) {
+			return balance(node.key, node.value, put(node.left, key, value), node.right);
+		}
+		return balance(node.key, node.value, node.left, put(node.right, key, value));
+	}
+	
+	private static <K extends Comparable<? super K>,V> Node<K,V> remove(Node<K,V> node, K key) {
+		if (node == null) {
+			return null;
+		}
+		int cmp = key.compareTo(node.key);
+		if (cmp < 0) {
+			Node<K,V> left = remove(node.left, key);
+			return left == node.left ? node : balance(node.key, node.value, left, node.right);
+		}
+		if (cmp > 0) {
+			Node<K,V> right = remove(node.right, key);
+			return right == node.right ? node : balance(node.key, node.value, node.left, right);
+		}
+		if (node.left == null) {
+			return node.right;
+		}
+		if (node.right == null) {
+			return node.left;
+		}
+		Node<K,V> min = node.right;
+		while (min.left != null) {
+			min = min.left;
+		}
+		return balance(min.key, min.value, node.left, remove(node.right, min.key));
+	}
+	
+	private static <K extends Comparable<? super K>,V> Node<K,V> balance(K key, V value, Node<K,V> left, Node<K,V> right) {
+		int lh = height(left);
+		int rh = height(right);
+		if (lh > rh + 1) {
+			if (height(left.left) >= height(left.right)) {
+				return new Node<>(left.key, left.value, left.left, new Node<>(key, value, left.right, right));
+			}
+			return new Node<>(left.right.key, left.right.value,
+					new Node<>(left.key, left.value, left.left, left.right.left),
+					new Node<>(key, value, left.right.right, right));
+		}
+		if (rh > lh + 1) {
+			if (height(right.right) >= height(right.left)) {
+				return new Node<>(right.key, right.value, new Node<>(key, value, left, right.left), right.right);
+			}
+			return new Node<>(right.left.key, right.left.value,
+					new Node<>(key, value, left, right.left.left),
+					new Node<>(right.key, right.value, right.left.right, right.right));
+		}
+		return new Node<>(key, value, left, right);
+	}
+	
+	/**
+	 * Returns the number of keys in the tree which are less than the given key.
+	 */
+	private static <K extends Comparable<? super K>,V> int rank(Node<K,V> node, K key) {
+		int result = 0;
+		while (node != null) {
+			if (key.compareTo(node.key) <= 0) {
+				node = node.left;
+			} else {
+				result += size(node.left) + 1;
+				node = node.right;
+			}
+		}
+		return result;
+	}
+	
+	private static int height(Node<?,?> node) {
+		return node == null ? 0 : node.height;
+	}
+	
+	private static int size(Node<?,?> node) {
+		return node == null ? 0 : node.size;
+	}
+	
+	private final static class Node<K,V> implements Entry<K,V> {
+		private final K key;
+		private final V value;
+		private final Node<K,V> left;
+		private final Node<K,V> right;
+		private final int height;
+		private final int size;
+		
+		private Node(K key, V value, Node<K,V> left, Node<K,V> right) {
+			this.key = key;
+			this.value = value;
+			this.left = left;
+			this.right = right;
+			this.height = Math.max(height(left), height(right)) + 1;
+			this.size = size(left) + size(right) + 1;
+		}
+		
+		@Override
+		public K getKey() {
+			return key;
+		}
+		
+		@Override
+		public V getValue() {
+			return value;
+		}
+		
+		@Override
+		public V setValue(V value) {
+			throw new UnsupportedOperationException();
+		}
+		
+		@Override
+		public boolean equals(Object o) {
+			if (!(o instanceof Entry)) {
+				return false;
+			}
+			Entry<?,?> e = (Entry<?,?>) o;
+			return key.equals(e.getKey()) && value.equals(e.getValue());
+		}
+		
+		@Override
+		public int hashCode() {
+			return key.hashCode() ^ value.hashCode();
+		}
+		
+		@Override
+		public String toString() {
+			return key + "=" + value;
+		}
+	}
+	
+	private class EntrySet extends AbstractSet<Entry<K,V>> {
+		@Override
+		public Iterator<Entry<K,V>> iterator() {
+			return new EntryIterator();
+		}
+		
+		@Override
+		public int size() {
+			return PersistentSortedMap.this.size();
+		}
+		
+		@Override
+		public boolean isEmpty() {
+			return PersistentSortedMap.this.isEmpty();
+		}
+	}
+	
+	private class EntryIterator implements Iterator<Entry<K,V>> {
+		private final Deque<Node<K,V>> stack = new ArrayDeque<>();
+		private Node<K,V> next;
+		
+		private EntryIterator() {
+			Node<K,V> node = root;
+			while (node != null) {
+				if (fromKey != null && node.key.compareTo(fromKey) < 0) {
+					node = node.right;
+				} else {
+					stack.push(node);
+					node = node.left;
+				}
+			}
+			advance();
+		}
+		
+		@Override
+		public boolean hasNext() {
+			return next != null;
+		}
+		
+		@Override
+		public Entry<K,V> next() {
+			if (next == null) {
+				throw new NoSuchElementException();
+			}
+			Node<K,V> result = next;
+			advance();
+			return result;
+		}
+		
+		private void advance() {
+			if (stack.isEmpty()) {
+				next = null;
+				return;
+			}
+			Node<K,V> node = stack.pop();
+			for (Node<K,V> n = node.right; n != null; n = n.left) {
+				stack.push(n);
+			}
+			next = toKey != null && node.key.compareTo(toKey) >= 0 ? null : node;
+		}
+	}
+}
@@ -0,0 +1,439 @@
+package com.jvms.i18neditor.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.SortedMap;
+
+import com.google.common.collect.Maps;
+
+/**
+ * This class provides a reader for translations in the JSON format, which records the position of each key
+ * in the file while reading.
+ *
+ * <p>The reader decodes UTF-8 directly from the bytes of the file, so the recorded positions are byte offsets.
+ * It only accepts plain JSON objects, for any other input an {@link IllegalArgumentException} is thrown.</p>
+ * 
+ * <p>For objects exported by a JavaScript module, such as {@code export default {...};} or
+ * {@code module.exports = {...};}, the reader also accepts the object literal syntax of JavaScript: comments, 
+ * unquoted and single quoted names, single quoted and template strings without substitutions, and trailing commas.
+ * The file is tokenized in a single pass, only the path of the currently open objects is kept in memory.</p>
+ *
+ * @author Jacob van Mourik
+ */
+final class ResourceJson {
+	
+	/**
+	 * Reads translations from the given input stream, the stream will not be closed.
+	 *
+	 * @param 	in the input stream.
+	 * @param 	script whether the object is exported by a JavaScript module, in which case the statements before 
+	 * 			the object are skipped and the object literal syntax of JavaScript is accepted.
+	 * @param 	layout the layout builder, may be {@code null}.
+	 * @return 	the translations.
+	 * @throws 	IOException if an I/O error occurs reading from the stream.
+	 * @throws 	IllegalArgumentException if the input is not a valid JSON object.
+	 */
+	static SortedMap<String,String> read(InputStream in, boolean script, ResourceLayout.Builder layout)
+			throws IOException {
+		return new Parser(in, script, layout).parse();
+	}
+	
+	private final static class Parser {
+		private final static int EOF = -1;
+		private final InputStream in;
+		private final boolean script;
+		private final ResourceLayout.Builder layout;
+		private final byte[] buffer = new byte[8192];
+		private final StringBuilder string = new StringBuilder();
+		private final StringBuilder whitespace = new StringBuilder();
+		private final SortedMap<String,String> result = Maps.newTreeMap();
+		private int position;
+		private int limit;
+		// The current byte, or EOF
+		private int ch;
+		// The position of the current byte in the stream
+		private long index = -1;
+		
+		private Parser(InputStream in, boolean script, ResourceLayout.Builder layout) {
+			this.in = in;
+			this.script = script;
+			this.layout = layout;
+		}
+		
+		private SortedMap<String,String> parse() throws IOException {
+			advance();
+			skipWhitespace();
+			if (script) {
+				skipStatements();
+			}
+			if (ch != '{') {
+				throw invalid();
+			}
+			// The reader stops after the object, any content after it is ignored
+			readObject(null, null, -1);
+			return result;
+		}
+		
+		private void readObject(String key, String name, long start) throws IOException {
+			advance();
+			if (layout != null) {
+				layout.beginObject(key, name, start, index);
+			}
+			skipWhitespace();
+			String indent = whitespace.toString();
+			if (ch != '}') {
+				while (true) {
+					long memberStart = index;
+					String memberName = readName();
+					skipWhitespace();
+					String separator = whitespace.toString();
+					if (ch != ':') {
+						throw invalid();
+					}
+					advance();
+					skipWhitespace();
+					if (layout != null) {
+						layout.nameSeparator(separator + ":" + whitespace);
+					}
+					String memberKey = key == null ? memberName : memberName.isEmpty() ? key : key + "." + memberName;
+					readValue(memberKey, memberName, memberStart);
+					skipWhitespace();
+					if (ch == ',') {
+						advance();
+						skipWhitespace();
+						if (script && ch == '}') {
+							break;
+						}
+					} else if (ch == '}') {
+						break;
+					} else {
+						throw invalid();
+					}
+				}
+			}
+			if (layout != null) {
+				layout.endObject(index, indent, whitespace.toString());
+			}
+			advance();
+		}
+		
+		private void readValue(String key, String name, long start) throws IOException {
+			long valueStart = index;
+			String value;
+			switch (ch) {
+			case '{':
+				readObject(key, name, start);
+				return;
+			case '"':
+				value = Resources.unescape(readString());
+				break;
+			case '\'':
+			case '`':
+				if (!script) {
+					throw invalid();
+				}
+				value = Resources.unescape(readString());
+				break;
+			case 't':
+				value = readLiteral("true");
+				break;
+			case 'f':
+				value = readLiteral("false");
+				break;
+			case 'n':
+				readLiteral("null");
+				value = "";
+				break;
+			default:
+				value = readNumber();
+			}
+			key = ResourceKeys.intern(key);
+			result.put(key, value);
+			if (layout != null) {
+				layout.leaf(key, name, start, valueStart, index, index, true);
+			}
+		}
+		
+		private String readName() throws IOException {
+			if (ch == '"' || script && ch == '\'') {
+				return readString();
+			}
+			if (!script || !isIdentifierPart(ch)) {
+				throw invalid();
+			}
+			string.setLength(0);
+			while (isIdentifierPart(ch)) {
+				appendCurrent();
+			}
+			return string.toString();
+		}
+		
+		private String readString() throws IOException {
+			int quote = ch;
+			string.setLength(0);
+			advance();
+			while (ch != quote) {
+				if (ch == EOF) {
+					throw invalid();
+				} else if (ch == '\\') {
+					advance();
+					readEscape();
+				} else if (quote == '`' && ch == '$') {
+					// Substitutions can not be evaluated
+					advance();
+					if (ch == '{') {
+						throw invalid();
+					}
+					string.append('$');
+				} else {
+					appendCurrent();
+				}
+			}
+			advance();
+			return string.toString();
+		}
+		
+		private void readEscape() throws IOException {
+			// Appends the character of the escape sequence after a backslash and advances past the sequence
+			switch (ch) {
+			case '"':
+			case '\\':
+			case '/':
+				string.append((char) ch);
+				break;
+			case 'b':
+				string.append('\b');
+				break;
+			case 'f':
+				string.append('\f');
+				break;
+			case 'n':
+				string.append('\n');
+				break;
+			case 'r':
+				string.append('\r');
+				break;
+			case 't':
+				string.append('\t');
+				break;
+			case 'u':
+				advance();
+				if (script && ch == '{') {
+					advance();
+					int codePoint = readHex(1, '}');
+					if (codePoint > Character.MAX_CODE_POINT) {
+						throw invalid();
+					}
+					string.appendCodePoint(codePoint);
+				} else {
+					string.append((char) readHex(4, EOF));
+				}
+				return;
+			default:
+				if (!script) {
+					throw invalid();
+				}
+				readScriptEscape();
+				return;
+			}
+			advance();
+		}
+		
+		private void readScriptEscape() throws IOException {
+			switch (ch) {
+			case EOF:
+				throw invalid();
+			case '\r':
+				// A line continuation is not part of the string
+				advance();
+				if (ch == '\n') {
+					advance();
+				}
+				break;
+			case '\n':
+				advance();
+				break;
+			case 'v':
+				string.append('\u000B');
+				advance();
+				break;
+			case '0':
+				string.append('\0');
+				advance();
+				break;
+			case 'x':
+				advance();
+				string.append((char) readHex(2, EOF));
+				break;
+			default:
+				// Any other escaped character stands for itself
+				appendCurrent();
+			}
+		}
+		
+		private int readHex(int digits, int terminator) throws IOException {
+			// Reads the given number of hex digits, or any number of digits up to the given terminator
+			int result = 0;
+			int count = 0;
+			while (terminator == EOF ? count < digits : ch != terminator || count < digits) {
+				int digit = Character.digit(ch, 16);
+				if (ch == EOF || digit < 0 || result > Character.MAX_CODE_POINT) {
+					throw invalid();
+				}
+				result = (result << 4) | digit;
+				count++;
+				advance();
+			}
+			if (terminator != EOF) {
+				advance();
+			}
+			return result;
+		}
+		
+		private void appendCurrent() throws IOException {
+			if (ch < 0x80) {
+				string.append((char) ch);
+			} else {
+				string.appendCodePoint(readCodePoint());
+			}
+			advance();
+		}
+		
+		private int readCodePoint() throws IOException {
+			// Decodes a multi-byte UTF-8 sequence, of which the current byte is the first byte
+			int length;
+			int result;
+			if (ch < 0xC2) {
+				throw invalid();
+			} else if (ch < 0xE0) {
+				length = 1;
+				result = ch & 0x1F;
+			} else if (ch < 0xF0) {
+				length = 2;
+				result = ch & 0x0F;
+			} else if (ch < 0xF5) {
+				length = 3;
+				result = ch & 0x07;
+			} else {
+				throw invalid();
+			}
+			for (int i = 0; i < length; i++) {
+				advance();
+				if ((ch & 0xC0) != 0x80) {
+					throw invalid();
+				}
+				result = (result << 6) | (ch & 0x3F);
+			}
+			if (length == 2 && (result < 0x800 || result >= 0xD800 && result <= 0xDFFF)
+					|| length == 3 && (result < 0x10000 || result > 0x10FFFF)) {
+				throw invalid();
+			}
+			return result;
+		}
+		
+		private String readLiteral(String literal) throws IOException {
+			for (int i = 0; i < literal.length(); i++) {
+				if (ch != literal.charAt(i)) {
+					throw invalid();
+				}
+				advance();
+			}
+			if (!isDelimiter(ch)) {
+				throw invalid();
+			}
+			return literal;
+		}
+		
+		private String readNumber() throws IOException {
+			string.setLength(0);
+			while (ch == '-' || ch == '+' || ch == '.' || ch == 'e' || ch == 'E' || ch >= '0' && ch <= '9') {
+				string.append((char) ch);
+				advance();
+			}
+			if (string.length() == 0 || !isDelimiter(ch)) {
+				throw invalid();
+			}
+			return string.toString();
+		}
+		
+		private void skipWhitespace() throws IOException {
+			whitespace.setLength(0);
+			while (true) {
+				if (ch == ' ' || ch == '\t' || ch == '\n' || ch == '\r') {
+					whitespace.append((char) ch);
+					advance();
+				} else if (script && ch == '/') {
+					skipComment();
+					// Only the whitespace after the last comment is kept, which is used to indent new members
+					whitespace.setLength(0);
+				} else {
+					return;
+				}
+			}
+		}
+		
+		private void skipComment() throws IOException {
+			advance();
+			if (ch == '/') {
+				while (ch != EOF && ch != '\n' && ch != '\r') {
+					advance();
+				}
+			} else if (ch == '*') {
+				advance();
+				int previous;
+				do {
+					previous = ch;
+					advance();
+					if (ch == EOF) {
+						throw invalid();
+					}
+				} while (previous != '*' || ch != '/');
+				advance();
+			} else {
+				throw invalid();
+			}
+		}
+		
+		private void skipStatements() throws IOException {
+			// Skips the statements before the exported object, such as "export default" or "module.exports =",
+			// strings and comments are skipped as a whole, so a brace within them is not taken as the object
+			while (ch != EOF && ch != '{') {
+				if (ch == '"' || ch == '\'' || ch == '`') {
+					readString();
+				} else {
+					advance();
+				}
+				skipWhitespace();
+			}
+		}
+		
+		private void advance() throws IOException {
+			if (ch != EOF) {
+				index++;
+			}
+			if (position == limit) {
+				limit = in.read(buffer);
+				position = 0;
+				if (limit <= 0) {
+					limit = 0;
+					ch = EOF;
+					return;
+				}
+			}
+			ch = buffer[position++] & 0xFF;
+		}
+		
+		private static boolean isDelimiter(int c) {
+			return c == ',' || c == '}' || c == '/' || c == ' ' || c == '\t' || c == '\n' || c == '\r' || c == EOF;
+		}
+		
+		private static boolean isIdentifierPart(int c) {
+			return c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z' || c >= '0' && c <= '9' || c == '_' || c == '$'
+					|| c >= 0x80;
+		}
+		
+		private static IllegalArgumentException invalid() {
+			return new IllegalArgumentException("Found invalid json element.");
+		}
+	}
+}
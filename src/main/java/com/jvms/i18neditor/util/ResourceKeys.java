@@ -2,8 +2,9 @@ package com.jvms.i18neditor.util;
 
 import java.util.Arrays;
 import java.util.List;
-import java.util.stream.Collectors;
 
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
 import com.google.common.collect.Lists;
 import com.jvms.i18neditor.Resource;
 
@@ -13,9 +14,28 @@ import com.jvms.i18neditor.Resource;
  * <p>A translation key is a {@code String} consisting of one or more parts separated by a dot.<br>
  * A key starting or ending with a dot or a key containing white spaces is considered to be invalid.<p> 
  * 
+ * <p>All functions work on the characters of the keys directly, none of them uses regular expressions. 
+ * For repeated operations on the parts of a single key, see {@link KeyPath}.</p>
+ * 
  * @author Jacob van Mourik
  */
 public final class ResourceKeys {
+	private final static Interner<String> KEYS = Interners.newWeakInterner();
+	
+	/**
+	 * Gets the canonical instance of the given key.
+	 * 
+	 * <p>All resources of a project contain mostly the same keys, by storing the canonical instance of a key 
+	 * each key is only held once in memory, regardless of the number of resources. The canonical instances are 
+	 * weakly referenced, so keys which are no longer used by any resource can be garbage collected.
+	 * This method is thread-safe.</p>
+	 * 
+	 * @param 	key the key.
+	 * @return 	the canonical instance of the key.
+	 */
+	public static String intern(String key) {
+		return KEYS.intern(key);
+	}
 	
 	/**
 	 * See {@link #create(List)}.
@@ -31,7 +51,16 @@ public final class ResourceKeys {
 	 * @return 	the created key.
 	 */
 	public static String create(List<String> parts) {
-		return parts.stream().filter(p -> p != null && !p.isEmpty()).collect(Collectors.joining("."));
+		StringBuilder result = new StringBuilder();
+		for (String part : parts) {
+			if (part != null && !part.isEmpty()) {
+				if (result.length() > 0) {
+					result.append('.');
+				}
+				result.append(part);
+			}
+		}
+		return result.toString();
 	}
 	
 	/**
@@ -42,7 +71,15 @@ public final class ResourceKeys {
 	 * @return	whether the key is valid or not.
 	 */
 	public static boolean isValid(String key) {
-		return !key.isEmpty() && !key.startsWith(".") && !key.endsWith(".") && key.matches("[^\\s]+");
+		if (key.isEmpty() || key.charAt(0) == '.' || key.charAt(key.length() - 1) == '.') {
+			return false;
+		}
+		for (int i = 0; i < key.length(); i++) {
+			if (isWhitespace(key.charAt(i))) {
+				return false;
+			}
+		}
+		return true;
 	}
 	
 	/**
@@ -63,7 +100,21 @@ public final class ResourceKeys {
 	 * @return	the parts of the key.
 	 */
 	public static String[] parts(String key) {
-		return key.split("\\.");
+		// Splits the key like String.split does, trailing empty parts are removed unless the key is empty
+		List<String> result = Lists.newArrayList();
+		int start = 0;
+		for (int end = key.indexOf('.'); end >= 0; end = key.indexOf('.', start)) {
+			result.add(key.substring(start, end));
+			start = end + 1;
+		}
+		result.add(key.substring(start));
+		while (result.size() > 1 && result.get(result.size() - 1).isEmpty()) {
+			result.remove(result.size() - 1);
+		}
+		if (!key.isEmpty() && result.size() == 1 && result.get(0).isEmpty()) {
+			result.clear();
+		}
+		return result.toArray(new String[result.size()]);
 	}
 	
 	/**
@@ -86,7 +137,8 @@ public final class ResourceKeys {
 	 * @return 	the first part.
 	 */
 	public static String firstPart(String key) {
-		return parts(key)[0];
+		int index = key.indexOf('.');
+		return index < 0 ? key : key.substring(0, index);
 	}
 	
 	/**
@@ -96,8 +148,7 @@ public final class ResourceKeys {
 	 * @return 	the last part.
 	 */
 	public static String lastPart(String key) {
-		String[] parts = parts(key);
-		return parts[parts.length-1];
+		return key.substring(key.lastIndexOf('.') + 1);
 	}
 	
 	/**
@@ -108,8 +159,8 @@ public final class ResourceKeys {
 	 * @return	the key without the first part.
 	 */
 	public static String withoutFirstPart(String key) {
-		if (size(key) == 1) return "";
-		return key.replaceAll("^[^.]+\\.", "");
+		int index = key.indexOf('.');
+		return index < 0 ? "" : key.substring(index + 1);
 	}
 	
 	/**
@@ -120,8 +171,8 @@ public final class ResourceKeys {
 	 * @return	the key without the last part.
 	 */
 	public static String withoutLastPart(String key) {
-		if (size(key) == 1) return "";
-		return key.replaceAll("\\.[^.]+$", "");
+		int index = key.lastIndexOf('.');
+		return index < 0 ? "" : key.substring(0, index);
 	}
 	
 	/**
@@ -139,9 +190,8 @@ public final class ResourceKeys {
 	public static String childKey(String key, String parentKey) {
 		if (key == null || key.isEmpty()) return "";
 		if (parentKey == null || parentKey.isEmpty()) return key;
-		String result = key.replaceFirst(parentKey + "\\.", "");
-		if (result.equals(key)) return "";
-		return result;
+		if (!isChildKeyOf(key, parentKey)) return "";
+		return key.substring(parentKey.length() + 1);
 	}
 	
 	/**
@@ -153,7 +203,8 @@ public final class ResourceKeys {
 	 * @return	whether the given key is a child of the given parent key.
 	 */
 	public static boolean isChildKeyOf(String key, String parentKey) {
-		return key.startsWith(parentKey + ".");
+		int length = parentKey.length();
+		return key.length() > length && key.charAt(length) == '.' && key.startsWith(parentKey);
 	}
 	
 	/**
@@ -190,4 +241,9 @@ public final class ResourceKeys {
 		});
 		return result;
 	}
+	
+	private static boolean isWhitespace(char c) {
+		// The same characters as matched by the \s character class of a regular expression
+		return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+	}
 }
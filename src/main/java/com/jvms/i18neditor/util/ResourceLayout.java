@@ -0,0 +1,750 @@
+package com.jvms.i18neditor.util;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.SortedMap;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import com.google.gson.JsonPrimitive;
+import com.jvms.i18neditor.ResourceType;
+
+/**
+ * This class describes where the translations of a resource are located in its file, so that changed translations
+ * can be saved by only replacing the affected parts of the file.
+ *
+ * <p>The layout holds the byte offsets of each key in the file, as recorded while reading the file. From the
+ * translations as stored in the file and the current translations it computes the edits needed to save the
+ * changes, keeping the order of the keys, comments, blank lines and indentation of the file. Changed values are
+ * replaced in place, removed keys are cut out and new keys are inserted next to their siblings. When the changes
+ * can not be expressed as edits of the file, for example when a key becomes the parent of other keys,
+ * the file has to be written as a whole instead.</p>
+ *
+ * <p>A layout is only valid for the exact file it has been recorded from, after the edits have been written
+ * the layout is updated by {@link #apply(List)}. A layout is not thread-safe.</p>
+ *
+ * @author Jacob van Mourik
+ */
+public final class ResourceLayout {
+	private final static Comparator<Node> FILE_ORDER = Comparator.comparingLong(node -> node.start);
+	private final ResourceType type;
+	private final ObjectNode root;
+	private final Map<String,Node> nodes;
+	private final String nameSeparator;
+	private final String lineSeparator;
+	
+	private ResourceLayout(Builder builder) {
+		this.type = builder.type;
+		this.root = builder.root;
+		this.nodes = builder.nodes;
+		this.nameSeparator = builder.nameSeparator;
+		this.lineSeparator = builder.lineSeparator;
+	}
+	
+	/**
+	 * Whether the members of objects are written on separate lines,
+	 * only applicable to JSON and ES6 resources.
+	 *
+	 * @return 	whether the file is pretty printed.
+	 */
+	boolean isPrettyPrinted() {
+		return root.indent.indexOf('\n') >= 0;
+	}
+	
+	/**
+	 * Computes the edits to save the given translations to the file of this layout.
+	 *
+	 * @param 	saved the translations as stored in the file.
+	 * @param 	translations the translations to save.
+	 * @return 	the edits ordered by their position in the file,
+	 * 			or {@code null} if the file has to be written as a whole.
+	 */
+	List<Edit> edits(SortedMap<String,String> saved, SortedMap<String,String> translations) {
+		Map<String,String> changes = Resources.diff(saved, translations);
+		List<Edit> edits = type == ResourceType.Properties
+				? propertiesEdits(changes)
+				: jsonEdits(changes, translations);
+		if (edits == null) {
+			return null;
+		}
+		edits.sort(Comparator.comparingLong((Edit e) -> e.start).thenComparingLong(e -> e.end));
+		for (int i = 1; i < edits.size(); i++) {
+			if (edits.get(i).start < edits.get(i - 1).end) {
+				return null;
+			}
+		}
+		return edits;
+	}
+	
+	/**
+	 * Updates the layout after the given edits have been written to the file.
+	 *
+	 * @param 	edits the edits as returned by {@link #edits(SortedMap, SortedMap)}.
+	 */
+	void apply(List<Edit> edits) {
+		int size = edits.size();
+		long[] starts = new long[size];
+		long[] ends = new long[size];
+		long[] deltas = new long[size];
+		long delta = 0;
+		Set<Node> removed = Sets.newIdentityHashSet();
+		Set<ObjectNode> changed = Sets.newIdentityHashSet();
+		for (int i = 0; i < size; i++) {
+			Edit edit = edits.get(i);
+			starts[i] = edit.start;
+			ends[i] = edit.end;
+			delta += edit.text.length - (edit.end - edit.start);
+			deltas[i] = delta;
+			edit.removed.forEach(node -> {
+				removed.add(node);
+				changed.add(node.parent);
+				unregister(node);
+			});
+		}
+		changed.forEach(object -> object.members.removeIf(removed::contains));
+		
+		Shift shift = new Shift(starts, ends, deltas);
+		shift.apply(root);
+		nodes.values().forEach(shift::apply);
+		
+		for (int i = 0; i < size; i++) {
+			Edit edit = edits.get(i);
+			long base = edit.start + (i == 0 ? 0 : deltas[i - 1]);
+			edit.added.forEach(node -> {
+				node.rebase(base);
+				node.parent.members.add(node);
+				changed.add(node.parent);
+				register(node);
+			});
+			if (edit.leaf != null) {
+				edit.leaf.valueStart = base + edit.valueOffset;
+				edit.leaf.valueEnd = base + edit.text.length;
+				edit.leaf.separated = true;
+				if (type != ResourceType.Properties) {
+					edit.leaf.end = edit.leaf.valueEnd;
+				}
+			}
+			if (edit.terminated != null) {
+				edit.terminated.end = base + lineSeparator.length();
+			}
+		}
+		changed.forEach(object -> object.members.sort(FILE_ORDER));
+	}
+	
+	private void register(Node node) {
+		nodes.put(node.key, node);
+		if (node instanceof ObjectNode) {
+			((ObjectNode) node).members.forEach(this::register);
+		}
+	}
+	
+	private void unregister(Node node) {
+		nodes.remove(node.key);
+		if (node instanceof ObjectNode) {
+			((ObjectNode) node).members.forEach(this::unregister);
+		}
+	}
+	
+	private List<Edit> propertiesEdits(Map<String,String> changes) {
+		List<Edit> edits = Lists.newArrayList();
+		Set<Node> removed = Sets.newIdentityHashSet();
+		SortedMap<String,String> added = Maps.newTreeMap();
+		for (Map.Entry<String,String> change : changes.entrySet()) {
+			String key = change.getKey();
+			String value = change.getValue();
+			Leaf leaf = (Leaf) nodes.get(key);
+			if (leaf == null) {
+				if (value == null) {
+					return null;
+				}
+				added.put(key, value);
+			} else if (value == null) {
+				removed.add(leaf);
+				edits.add(new Edit(leaf.start, leaf.end, new byte[0]).removing(leaf));
+			} else {
+				// A key without a separator is followed by the end of the line
+				StringBuilder text = new StringBuilder(leaf.separated ? "" : "=");
+				ResourceProperties.escape(value, false, text);
+				Edit edit = new Edit(leaf.valueStart, leaf.valueEnd, text.toString().getBytes(StandardCharsets.ISO_8859_1));
+				edit.leaf = leaf;
+				edit.valueOffset = leaf.separated ? 0 : 1;
+				edits.add(edit);
+			}
+		}
+		if (added.isEmpty()) {
+			return edits;
+		}
+		
+		// New keys are inserted after the preceding key, or before the first key of the file
+		NavigableMap<String,Node> siblings = membersByName(root, removed);
+		Map<Node,List<String>> insertions = Maps.newLinkedHashMap();
+		List<String> leading = Lists.newArrayList();
+		for (String key : added.keySet()) {
+			Node sibling = precedingSibling(siblings, key);
+			if (sibling == null) {
+				leading.add(key);
+			} else {
+				insertions.computeIfAbsent(sibling, s -> Lists.newArrayList()).add(key);
+			}
+		}
+		if (!leading.isEmpty()) {
+			Node first = firstMember(root, removed);
+			if (first == null) {
+				return null;
+			}
+			Text text = new Text(StandardCharsets.ISO_8859_1);
+			Edit edit = new Edit(first.start, first.start, null);
+			for (String key : leading) {
+				edit.added.add(appendLine(text, key, added.get(key)));
+				text.append(lineSeparator);
+				edit.added.get(edit.added.size() - 1).end = text.length();
+			}
+			edits.add(edit.text(text));
+		}
+		for (Map.Entry<Node,List<String>> insertion : insertions.entrySet()) {
+			Leaf sibling = (Leaf) insertion.getKey();
+			// The last line of a file may not be terminated
+			boolean terminated = sibling.end > sibling.valueEnd;
+			Text text = new Text(StandardCharsets.ISO_8859_1);
+			Edit edit = new Edit(sibling.end, sibling.end, null);
+			Leaf previous = null;
+			for (String key : insertion.getValue()) {
+				if (!terminated) {
+					text.append(lineSeparator);
+					if (previous == null) {
+						edit.terminated = sibling;
+					} else {
+						previous.end = text.length();
+					}
+				}
+				previous = appendLine(text, key, added.get(key));
+				if (terminated) {
+					text.append(lineSeparator);
+				}
+				previous.end = text.length();
+				edit.added.add(previous);
+			}
+			edits.add(edit.text(text));
+		}
+		return edits;
+	}
+	
+	private Leaf appendLine(Text text, String key, String value) {
+		long start = text.length();
+		StringBuilder line = new StringBuilder();
+		ResourceProperties.escape(key, true, line);
+		line.append('=');
+		text.append(line.toString());
+		long valueStart = text.length();
+		line.setLength(0);
+		ResourceProperties.escape(value, false, line);
+		text.append(line.toString());
+		Leaf leaf = new Leaf(key, root, start);
+		leaf.valueStart = valueStart;
+		leaf.valueEnd = text.length();
+		leaf.end = text.length();
+		leaf.separated = true;
+		return leaf;
+	}
+	
+	private List<Edit> jsonEdits(Map<String,String> changes, SortedMap<String,String> translations) {
+		List<Edit> edits = Lists.newArrayList();
+		Map<ObjectNode,Set<Node>> removals = Maps.newIdentityHashMap();
+		Map<ObjectNode,SortedMap<String,String>> additions = Maps.newIdentityHashMap();
+		for (Map.Entry<String,String> change : changes.entrySet()) {
+			String key = change.getKey();
+			String value = change.getValue();
+			Node node = nodes.get(key);
+			// A key which is also the parent of other keys can not be represented as a value
+			if (node instanceof ObjectNode || value != null && hasChildKeys(translations, key)) {
+				return null;
+			}
+			if (value == null) {
+				if (node == null) {
+					return null;
+				}
+				removals.computeIfAbsent(node.parent, o -> Sets.newIdentityHashSet()).add(node);
+			} else if (node != null) {
+				Leaf leaf = (Leaf) node;
+				Edit edit = new Edit(leaf.valueStart, leaf.valueEnd, quote(value).getBytes(StandardCharsets.UTF_8));
+				edit.leaf = leaf;
+				edits.add(edit);
+			} else {
+				// The key is added to the deepest object in the file of which it is a child key
+				ObjectNode parent = root;
+				int offset = 0;
+				for (int i = key.indexOf('.'); i >= 0; i = key.indexOf('.', i + 1)) {
+					String prefix = key.substring(0, i);
+					Node ancestor = nodes.get(prefix);
+					if (ancestor instanceof Leaf || translations.containsKey(prefix)) {
+						return null;
+					}
+					if (ancestor instanceof ObjectNode) {
+						parent = (ObjectNode) ancestor;
+						offset = i + 1;
+					}
+				}
+				String name = key.substring(offset);
+				if (name.isEmpty() || name.startsWith(".") || name.endsWith(".") || name.contains("..")) {
+					return null;
+				}
+				additions.computeIfAbsent(parent, o -> Maps.newTreeMap()).put(name, value);
+			}
+		}
+		
+		// Objects of which all members are removed are removed themselves, starting with the deepest objects
+		PriorityQueue<ObjectNode> queue = new PriorityQueue<>(Comparator.comparingInt((ObjectNode o) -> o.depth).reversed());
+		queue.addAll(removals.keySet());
+		while (!queue.isEmpty()) {
+			ObjectNode object = queue.poll();
+			Set<Node> removed = removals.get(object);
+			List<Node> members = object.members;
+			if (removed.size() == members.size()) {
+				if (additions.containsKey(object)) {
+					return null;
+				}
+				if (object == root) {
+					Edit edit = new Edit(root.open, root.close, new byte[0]);
+					members.forEach(edit::removing);
+					edits.add(edit);
+				} else if (removals.containsKey(object.parent)) {
+					removals.get(object.parent).add(object);
+				} else {
+					Set<Node> parentRemoved = Sets.newIdentityHashSet();
+					parentRemoved.add(object);
+					removals.put(object.parent, parentRemoved);
+					queue.add(object.parent);
+				}
+				continue;
+			}
+			// A member is removed together with the separator before it,
+			// the first members are removed together with the separator after them
+			int first = 0;
+			while (removed.contains(members.get(first))) {
+				first++;
+			}
+			if (first > 0) {
+				Edit edit = new Edit(members.get(0).start, members.get(first).start, new byte[0]);
+				members.subList(0, first).forEach(edit::removing);
+				edits.add(edit);
+			}
+			for (int i = first + 1; i < members.size(); i++) {
+				Node member = members.get(i);
+				if (removed.contains(member)) {
+					edits.add(new Edit(members.get(i - 1).end, member.end, new byte[0]).removing(member));
+				}
+			}
+		}
+		
+		// New members are inserted after their preceding sibling, or before the first member of the object
+		for (Map.Entry<ObjectNode,SortedMap<String,String>> addition : additions.entrySet()) {
+			ObjectNode object = addition.getKey();
+			Set<Node> removed = removals.getOrDefault(object, Collections.emptySet());
+			NavigableMap<String,Node> siblings = membersByName(object, removed);
+			Map<Node,List<String>> insertions = Maps.newLinkedHashMap();
+			List<String> leading = Lists.newArrayList();
+			SortedMap<String,SortedMap<String,String>> members = group(addition.getValue());
+			for (String name : members.keySet()) {
+				Node sibling = precedingSibling(siblings, name);
+				if (sibling == null) {
+					leading.add(name);
+				} else {
+					insertions.computeIfAbsent(sibling, s -> Lists.newArrayList()).add(name);
+				}
+			}
+			String indent = object.indent;
+			String unit = object.indent.startsWith(object.closeIndent)
+					? object.indent.substring(object.closeIndent.length()) : "";
+			if (!leading.isEmpty()) {
+				Node first = firstMember(object, removed);
+				if (first == null) {
+					return null;
+				}
+				Text text = new Text(StandardCharsets.UTF_8);
+				Edit edit = new Edit(first.start, first.start, null);
+				for (String name : leading) {
+					edit.added.add(appendMember(text, object, name, members.get(name), indent, unit));
+					text.append(",").append(indent);
+				}
+				edits.add(edit.text(text));
+			}
+			for (Map.Entry<Node,List<String>> insertion : insertions.entrySet()) {
+				Node sibling = insertion.getKey();
+				Text text = new Text(StandardCharsets.UTF_8);
+				Edit edit = new Edit(sibling.end, sibling.end, null);
+				for (String name : insertion.getValue()) {
+					text.append(",").append(indent);
+					edit.added.add(appendMember(text, object, name, members.get(name), indent, unit));
+				}
+				edits.add(edit.text(text));
+			}
+		}
+		return edits;
+	}
+	
+	private Node appendMember(Text text, ObjectNode parent, String name, SortedMap<String,String> translations,
+			String indent, String unit) {
+		String key = parent == root ? name : parent.key + "." + name;
+		long start = text.length();
+		text.append(quote(name)).append(nameSeparator);
+		String value = translations.get("");
+		if (value != null) {
+			Leaf leaf = new Leaf(key, parent, start);
+			leaf.valueStart = text.length();
+			text.append(quote(value));
+			leaf.valueEnd = text.length();
+			leaf.end = text.length();
+			return leaf;
+		}
+		ObjectNode object = new ObjectNode(key, parent, start);
+		String memberIndent = indent + unit;
+		object.indent = memberIndent;
+		object.closeIndent = indent;
+		text.append("{");
+		object.open = text.length();
+		boolean first = true;
+		for (Map.Entry<String,SortedMap<String,String>> member : group(translations).entrySet()) {
+			if (!first) {
+				text.append(",");
+			}
+			text.append(memberIndent);
+			object.members.add(appendMember(text, object, member.getKey(), member.getValue(), memberIndent, unit));
+			first = false;
+		}
+		text.append(indent);
+		object.close = text.length();
+		text.append("}");
+		object.end = text.length();
+		return object;
+	}
+	
+	private static SortedMap<String,SortedMap<String,String>> group(SortedMap<String,String> translations) {
+		// Groups the given keys by their first part, a key without parts is stored as an empty key
+		SortedMap<String,SortedMap<String,String>> result = Maps.newTreeMap();
+		translations.forEach((key, value) -> {
+			int i = key.indexOf('.');
+			String name = i < 0 ? key : key.substring(0, i);
+			result.computeIfAbsent(name, n -> Maps.newTreeMap()).put(i < 0 ? "" : key.substring(i + 1), value);
+		});
+		return result;
+	}
+	
+	private static NavigableMap<String,Node> membersByName(ObjectNode object, Set<Node> removed) {
+		NavigableMap<String,Node> result = Maps.newTreeMap();
+		object.members.stream()
+				.filter(node -> !removed.contains(node))
+				.forEach(node -> result.put(node.getName(), node));
+		return result;
+	}
+	
+	private static Node precedingSibling(NavigableMap<String,Node> siblings, String name) {
+		Map.Entry<String,Node> entry = siblings.lowerEntry(name);
+		return entry == null ? null : entry.getValue();
+	}
+	
+	private static Node firstMember(ObjectNode object, Set<Node> removed) {
+		return object.members.stream()
+				.filter(node -> !removed.contains(node))
+				.findFirst()
+				.orElse(null);
+	}
+	
+	private static boolean hasChildKeys(SortedMap<String,String> translations, String key) {
+		return !translations.subMap(key + ".", key + "/").isEmpty();
+	}
+	
+	private static String quote(String value) {
+		return new JsonPrimitive(value).toString();
+	}
+	
+	/**
+	 * A replacement of a range of bytes of the file.
+	 */
+	static final class Edit {
+		private final long start;
+		private final long end;
+		private byte[] text;
+		private final List<Node> removed = Lists.newArrayList();
+		private final List<Node> added = Lists.newArrayList();
+		private Leaf leaf;
+		private int valueOffset;
+		private Leaf terminated;
+		
+		private Edit(long start, long end, byte[] text) {
+			this.start = start;
+			this.end = end;
+			this.text = text;
+		}
+		
+		long getStart() {
+			return start;
+		}
+		
+		long getEnd() {
+			return end;
+		}
+		
+		byte[] getText() {
+			return text;
+		}
+		
+		private Edit removing(Node node) {
+			removed.add(node);
+			return this;
+		}
+		
+		private Edit text(Text text) {
+			this.text = text.toByteArray();
+			return this;
+		}
+	}
+	
+	/**
+	 * Records the layout of a file while it is being read.
+	 * When the file contains duplicate keys, no layout will be built.
+	 */
+	static final class Builder {
+		private final ResourceType type;
+		private final Map<String,Node> nodes = Maps.newHashMap();
+		private final Deque<ObjectNode> objects = new ArrayDeque<>();
+		private ObjectNode root;
+		private String nameSeparator;
+		private String lineSeparator;
+		private boolean valid = true;
+		
+		Builder(ResourceType type) {
+			this.type = type;
+		}
+		
+		void beginObject(String key, String name, long start, long open) {
+			ObjectNode object;
+			if (root == null) {
+				object = new ObjectNode(null, null, start);
+				root = object;
+			} else {
+				object = new ObjectNode(key, objects.peek(), start);
+				add(object, name);
+			}
+			object.open = open;
+			objects.push(object);
+		}
+		
+		void endObject(long close, String indent, String closeIndent) {
+			ObjectNode object = objects.pop();
+			object.close = close;
+			object.end = close + 1;
+			object.indent = indent;
+			object.closeIndent = closeIndent;
+		}
+		
+		void leaf(String key, String name, long start, long valueStart, long valueEnd, long end, boolean separated) {
+			if (root == null) {
+				root = new ObjectNode(null, null, 0);
+				objects.push(root);
+			}
+			Leaf leaf = new Leaf(key, objects.peek(), start);
+			leaf.valueStart = valueStart;
+			leaf.valueEnd = valueEnd;
+			leaf.end = end;
+			leaf.separated = separated;
+			add(leaf, name);
+		}
+		
+		void nameSeparator(String separator) {
+			if (nameSeparator == null) {
+				nameSeparator = separator;
+			}
+		}
+		
+		void lineSeparator(String separator) {
+			if (lineSeparator == null) {
+				lineSeparator = separator;
+			}
+		}
+		
+		private void add(Node node, String name) {
+			// Keys of the file must be unique, a member without a name has the key of its object
+			if (name.isEmpty() || nodes.put(node.key, node) != null) {
+				valid = false;
+			}
+			node.parent.members.add(node);
+		}
+		
+		ResourceLayout build() {
+			if (!valid) {
+				return null;
+			}
+			if (root == null) {
+				root = new ObjectNode(null, null, 0);
+			}
+			if (nameSeparator == null) {
+				nameSeparator = root.indent.indexOf('\n') >= 0 ? ": " : ":";
+			}
+			if (lineSeparator == null) {
+				lineSeparator = System.lineSeparator();
+			}
+			return new ResourceLayout(this);
+		}
+	}
+	
+	private static class Node {
+		final String key;
+		final ObjectNode parent;
+		long start;
+		long end;
+		
+		Node(String key, ObjectNode parent, long start) {
+			this.key = key;
+			this.parent = parent;
+			this.start = start;
+		}
+		
+		String getName() {
+			return parent.key == null ? key : key.substring(parent.key.length() + 1);
+		}
+		
+		void rebase(long base) {
+			start += base;
+			end += base;
+		}
+	}
+	
+	private final static class Leaf extends Node {
+		long valueStart;
+		long valueEnd;
+		// Whether the key is followed by a separator, only applicable to properties files
+		boolean separated;
+		
+		Leaf(String key, ObjectNode parent, long start) {
+			super(key, parent, start);
+		}
+		
+		@Override
+		void rebase(long base) {
+			super.rebase(base);
+			valueStart += base;
+			valueEnd += base;
+		}
+	}
+	
+	private final static class ObjectNode extends Node {
+		// The members in the order of the file
+		final List<Node> members = Lists.newArrayList();
+		final int depth;
+		long open;
+		long close;
+		// The whitespace before the first member and before the end of the object
+		String indent = "";
+		String closeIndent = "";
+		
+		ObjectNode(String key, ObjectNode parent, long start) {
+			super(key, parent, start);
+			this.depth = parent == null ? 0 : parent.depth + 1;
+		}
+		
+		@Override
+		void rebase(long base) {
+			super.rebase(base);
+			open += base;
+			close += base;
+			members.forEach(member -> member.rebase(base));
+		}
+	}
+	
+	/**
+	 * Maps the positions of the file before the edits to the positions after the edits.
+	 */
+	private final static class Shift {
+		private final long[] starts;
+		private final long[] ends;
+		private final long[] deltas;
+		
+		private Shift(long[] starts, long[] ends, long[] deltas) {
+			this.starts = starts;
+			this.ends = ends;
+			this.deltas = deltas;
+		}
+		
+		private void apply(Node node) {
+			node.start = start(node.start);
+			node.end = end(node.end);
+			if (node instanceof Leaf) {
+				Leaf leaf = (Leaf) node;
+				leaf.valueStart = start(leaf.valueStart);
+				leaf.valueEnd = end(leaf.valueEnd);
+			} else {
+				ObjectNode object = (ObjectNode) node;
+				// Members inserted at the start of an object are inside the object, at the end they precede its end
+				object.open = end(object.open);
+				object.close = start(object.close);
+			}
+		}
+		
+		private long start(long position) {
+			// A position at which text is inserted moves behind the inserted text
+			return position + delta(upperBound(position));
+		}
+		
+		private long end(long position) {
+			// A position at which text is inserted stays in front of the inserted text
+			int i = upperBound(position);
+			while (i > 0 && ends[i - 1] == position && starts[i - 1] == position) {
+				i--;
+			}
+			return position + delta(i);
+		}
+		
+		private long delta(int count) {
+			return count == 0 ? 0 : deltas[count - 1];
+		}
+		
+		private int upperBound(long position) {
+			// The number of edits which end at or before the given position
+			int low = 0;
+			int high = ends.length;
+			while (low < high) {
+				int mid = (low + high) >>> 1;
+				if (ends[mid] <= position) {
+					low = mid + 1;
+				} else {
+					high = mid;
+				}
+			}
+			return low;
+		}
+	}
+	
+	private final static class Text {
+		private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		private final Charset charset;
+		
+		private Text(Charset charset) {
+			this.charset = charset;
+		}
+		
+		private Text append(String s) {
+			byte[] b = s.getBytes(charset);
+			bytes.write(b, 0, b.length);
+			return this;
+		}
+		
+		private int length() {
+			return bytes.size();
+		}
+		
+		private byte[] toByteArray() {
+			return bytes.toByteArray();
+		}
+	}
+}
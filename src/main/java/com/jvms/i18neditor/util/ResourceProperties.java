@@ -0,0 +1,352 @@
+package com.jvms.i18neditor.util;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.SortedMap;
+
+import com.google.common.collect.Maps;
+
+/**
+ * This class provides a reader and writer for translations in the {@code .properties} format.
+ *
+ * <p>The format is the same as read and written by {@link java.util.Properties}: files are encoded in
+ * ISO-8859-1, any other character is written as a {@code \}{@code uXXXX} escape sequence. Unlike
+ * {@link java.util.Properties}, the translations are read in a single pass directly into a sorted map, escape sequences
+ * and line continuations are resolved while reading, and the translations are written in the order of their keys
+ * without a timestamp, so saving unchanged translations results in the same file.</p>
+ *
+ * @author Jacob van Mourik
+ */
+public final class ResourceProperties {
+	private final static char[] HEX_DIGITS = "0123456789ABCDEF".toCharArray();
+	
+	/**
+	 * Reads translations from the given input stream, the stream will not be closed.
+	 *
+	 * @param 	in the input stream.
+	 * @return 	the translations.
+	 * @throws 	IOException if an I/O error occurs reading from the stream.
+	 * @throws 	IllegalArgumentException if the input contains a malformed {@code \}{@code uXXXX} escape sequence.
+	 */
+	public static SortedMap<String,String> read(InputStream in) throws IOException {
+		return read(in, null);
+	}
+	
+	/**
+	 * Reads translations from the given input stream and records the position of each key in the given layout.
+	 * 
+	 * @param 	in the input stream.
+	 * @param 	layout the layout builder, may be {@code null}.
+	 * @return 	the translations.
+	 * @throws 	IOException if an I/O error occurs reading from the stream.
+	 */
+	static SortedMap<String,String> read(InputStream in, ResourceLayout.Builder layout) throws IOException {
+		return new Parser(in, layout).parse();
+	}
+	
+	/**
+	 * Writes translations to the given output stream in the order of their keys, the stream will not be closed.
+	 *
+	 * @param 	translations the translations.
+	 * @param 	out the output stream.
+	 * @throws 	IOException if an I/O error occurs writing to the stream.
+	 */
+	public static void write(SortedMap<String,String> translations, OutputStream out) throws IOException {
+		BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.ISO_8859_1));
+		StringBuilder line = new StringBuilder();
+		for (Map.Entry<String,String> entry : translations.entrySet()) {
+			line.setLength(0);
+			escape(entry.getKey(), true, line);
+			line.append('=');
+			escape(entry.getValue(), false, line);
+			writer.append(line);
+			writer.newLine();
+		}
+		writer.flush();
+	}
+	
+	static void escape(String s, boolean key, StringBuilder out) {
+		for (int i = 0; i < s.length(); i++) {
+			char c = s.charAt(i);
+			switch (c) {
+			case ' ':
+				// Spaces separate a key from its value, within values only a leading space has to be escaped
+				if (key || i == 0) {
+					out.append('\\');
+				}
+				out.append(' ');
+				break;
+			case '\t':
+				out.append("\\t");
+				break;
+			case '\n':
+				out.append("\\n");
+				break;
+			case '\r':
+				out.append("\\r");
+				break;
+			case '\f':
+				out.append("\\f");
+				break;
+			case '\\':
+			case '=':
+			case ':':
+			case '#':
+			case '!':
+				out.append('\\').append(c);
+				break;
+			default:
+				if (c < 0x20 || c > 0x7e) {
+					out.append("\\u")
+						.append(HEX_DIGITS[(c >> 12) & 0xF])
+						.append(HEX_DIGITS[(c >> 8) & 0xF])
+						.append(HEX_DIGITS[(c >> 4) & 0xF])
+						.append(HEX_DIGITS[c & 0xF]);
+				} else {
+					out.append(c);
+				}
+			}
+		}
+	}
+	
+	private final static class Parser {
+		private final static int EOF = -1;
+		private final static int CONTINUATION = -2;
+		private final InputStream in;
+		private final ResourceLayout.Builder layout;
+		private final byte[] buffer = new byte[8192];
+		private final StringBuilder key = new StringBuilder();
+		private final StringBuilder value = new StringBuilder();
+		private int position;
+		private int limit;
+		// The current character, or EOF
+		private int ch;
+		// The position of the current character in the stream
+		private long index = -1;
+		private long lineStart;
+		private long valueStart;
+		private long valueEnd;
+		private boolean separated;
+		
+		private Parser(InputStream in, ResourceLayout.Builder layout) {
+			this.in = in;
+			this.layout = layout;
+		}
+		
+		private SortedMap<String,String> parse() throws IOException {
+			SortedMap<String,String> result = Maps.newTreeMap();
+			advance();
+			while (true) {
+				while (isWhitespace(ch) || isLineEnd(ch)) {
+					if (isLineEnd(ch)) {
+						skipLineEnd();
+					} else {
+						advance();
+					}
+				}
+				if (ch == EOF) {
+					return result;
+				}
+				if (ch == '#' || ch == '!') {
+					while (ch != EOF && !isLineEnd(ch)) {
+						advance();
+					}
+					continue;
+				}
+				long start = lineStart;
+				parseEntry();
+				if (key.length() == 0 && value.length() == 0 && !separated) {
+					// The line only consisted of line continuations, which is an empty line
+					skipLineEnd();
+					continue;
+				}
+				String entryKey = ResourceKeys.intern(key.toString());
+				result.put(entryKey, value.toString());
+				skipLineEnd();
+				if (layout != null) {
+					layout.leaf(entryKey, entryKey, start, valueStart, valueEnd, index, separated);
+				}
+			}
+		}
+		
+		private void parseEntry() throws IOException {
+			key.setLength(0);
+			value.setLength(0);
+			boolean separator = false;
+			separated = false;
+			
+			// The key ends at the first unescaped separator or whitespace
+			while (ch != EOF && !isLineEnd(ch)) {
+				if (ch == '\\') {
+					appendEscape(key);
+				} else if (ch == '=' || ch == ':') {
+					separator = true;
+					separated = true;
+					advance();
+					break;
+				} else if (isWhitespace(ch)) {
+					separated = true;
+					advance();
+					break;
+				} else {
+					key.append((char) ch);
+					advance();
+				}
+			}
+			
+			// Whitespace and a single separator may precede the value
+			valueStart = index;
+			while (ch != EOF && !isLineEnd(ch)) {
+				if (isWhitespace(ch)) {
+					advance();
+				} else if (!separator && (ch == '=' || ch == ':')) {
+					separator = true;
+					advance();
+				} else if (ch == '\\') {
+					long escapeStart = index;
+					if (appendEscape(value)) {
+						valueStart = escapeStart;
+						break;
+					}
+				} else {
+					break;
+				}
+				valueStart = index;
+			}
+			
+			while (ch != EOF && !isLineEnd(ch)) {
+				if (ch == '\\') {
+					appendEscape(value);
+				} else {
+					value.append((char) ch);
+					advance();
+				}
+			}
+			valueEnd = index;
+		}
+		
+		private void skipLineEnd() throws IOException {
+			if (ch == '\r') {
+				advance();
+				if (ch == '\n') {
+					advance();
+					lineSeparator("\r\n");
+				} else {
+					lineSeparator("\r");
+				}
+			} else if (ch == '\n') {
+				advance();
+				lineSeparator("\n");
+			} else {
+				return;
+			}
+			lineStart = index;
+		}
+		
+		private void lineSeparator(String separator) {
+			if (layout != null) {
+				layout.lineSeparator(separator);
+			}
+		}
+		
+		/**
+		 * Resolves the escape sequence at the current backslash.
+		 *
+		 * @return 	whether a character has been appended, as opposed to a line continuation.
+		 */
+		private boolean appendEscape(StringBuilder out) throws IOException {
+			int c = readEscape();
+			if (c < 0) {
+				return false;
+			}
+			out.append((char) c);
+			return true;
+		}
+		
+		private int readEscape() throws IOException {
+			advance();
+			int c = ch;
+			if (c == EOF) {
+				return CONTINUATION;
+			}
+			advance();
+			switch (c) {
+			case '\r':
+			case '\n':
+				skipContinuation(c);
+				return CONTINUATION;
+			case 't':
+				return '\t';
+			case 'n':
+				return '\n';
+			case 'r':
+				return '\r';
+			case 'f':
+				return '\f';
+			case 'u':
+				int result = 0;
+				for (int i = 0; i < 4; i++) {
+					// Lines are joined before escape sequences are resolved, so a continuation may split the digits
+					while (ch == '\\') {
+						advance();
+						int lineEnd = ch;
+						if (!isLineEnd(lineEnd)) {
+							throw new IllegalArgumentException("Malformed \\uxxxx encoding.");
+						}
+						advance();
+						skipContinuation(lineEnd);
+					}
+					int digit = Character.digit(ch, 16);
+					if (ch == EOF || digit < 0) {
+						throw new IllegalArgumentException("Malformed \\uxxxx encoding.");
+					}
+					result = (result << 4) | digit;
+					advance();
+				}
+				return result;
+			default:
+				return c;
+			}
+		}
+		
+		private void skipContinuation(int lineEnd) throws IOException {
+			// Skips the rest of the line end after a backslash,
+			// the leading whitespace of a continuation line is ignored as well
+			if (lineEnd == '\r' && ch == '\n') {
+				advance();
+			}
+			while (isWhitespace(ch)) {
+				advance();
+			}
+		}
+		
+		private void advance() throws IOException {
+			if (ch != EOF) {
+				index++;
+			}
+			if (position == limit) {
+				limit = in.read(buffer);
+				position = 0;
+				if (limit <= 0) {
+					limit = 0;
+					ch = EOF;
+					return;
+				}
+			}
+			ch = buffer[position++] & 0xFF;
+		}
+		
+		private static boolean isWhitespace(int c) {
+			return c == ' ' || c == '\t' || c == '\f';
+		}
+		
+		private static boolean isLineEnd(int c) {
+			return c == '\n' || c == '\r';
+		}
+	}
+}
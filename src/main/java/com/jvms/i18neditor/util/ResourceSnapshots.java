@@ -0,0 +1,244 @@
+package com.jvms.i18neditor.util;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.SortedMap;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import com.google.common.io.CountingInputStream;
+import com.jvms.i18neditor.Resource;
+
+/**
+ * This class provides utility functions for storing the translations of resources in a binary snapshot file,
+ * which allows restoring unchanged resources without parsing their files.
+ * 
+ * <p>A snapshot consists of a sorted dictionary of all keys, in which each key only stores the part which 
+ * differs from the previous key, followed by a record for each resource. A record holds the path of the 
+ * resource file relative to the root directory, the {@link FileStamp} of the file and the saved translations
+ * of the resource as pairs of a key index and a value. All strings are stored as length-prefixed UTF-8.</p>
+ * 
+ * @author Jacob van Mourik
+ */
+public final class ResourceSnapshots {
+	private final static int MAGIC = 0x4931384E;
+	private final static int VERSION = 1;
+	
+	/**
+	 * Writes a snapshot of the saved translations of the given resources.
+	 * Resources without a file stamp will not be included in the snapshot.
+	 * 
+	 * @param 	file the path of the snapshot file.
+	 * @param 	rootDir the root directory of the resources.
+	 * @param 	resources the resources.
+	 * @throws 	IOException if an I/O error occurs writing the file.
+	 */
+	public static void write(Path file, Path rootDir, Collection<Resource> resources) throws IOException {
+		List<Resource> resourceList = Lists.newArrayList();
+		List<FileStamp> fileStamps = Lists.newArrayList();
+		List<SortedMap<String,String>> translations = Lists.newArrayList();
+		NavigableSet<String> keys = Sets.newTreeSet();
+		resources.forEach(resource -> {
+			// Read the file stamp before the translations, so they will never be newer than the file stamp
+			FileStamp fileStamp = resource.getFileStamp();
+			if (fileStamp != null) {
+				SortedMap<String,String> savedTranslations = resource.getSavedTranslations();
+				resourceList.add(resource);
+				fileStamps.add(fileStamp);
+				translations.add(savedTranslations);
+				keys.addAll(savedTranslations.keySet());
+			}
+		});
+		
+		Path tempFile = file.resolveSibling(file.getFileName() + ".tmp");
+		try {
+			try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile)))) {
+				out.writeInt(MAGIC);
+				out.writeInt(VERSION);
+				
+				Map<String,Integer> indices = Maps.newHashMapWithExpectedSize(keys.size());
+				writeVarInt(out, keys.size());
+				String previous = "";
+				for (String key : keys) {
+					int prefix = commonPrefixLength(previous, key);
+					writeVarInt(out, prefix);
+					writeString(out, key.substring(prefix));
+					indices.put(key, indices.size());
+					previous = key;
+				}
+				
+				writeVarInt(out, resourceList.size());
+				for (int i = 0; i < resourceList.size(); i++) {
+					FileStamp fileStamp = fileStamps.get(i);
+					writeString(out, rootDir.relativize(resourceList.get(i).getPath()).toString());
+					out.writeLong(fileStamp.getSize());
+					out.writeLong(fileStamp.getLastModified());
+					out.writeLong(fileStamp.getHash());
+					writeVarInt(out, translations.get(i).size());
+					int previousIndex = 0;
+					for (Map.Entry<String,String> entry : translations.get(i).entrySet()) {
+						int index = indices.get(entry.getKey());
+						writeVarInt(out, index - previousIndex);
+						writeString(out, entry.getValue());
+						previousIndex = index;
+					}
+				}
+			}
+			try {
+				Files.move(tempFile, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+			} catch (AtomicMoveNotSupportedException e) {
+				Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING);
+			}
+		} finally {
+			Files.deleteIfExists(tempFile);
+		}
+	}
+	
+	/**
+	 * Restores the translations of the given resources from a snapshot.
+	 * 
+	 * <p>The translations of a resource will only be restored when its file still matches the file stamp 
+	 * in the snapshot, see {@link FileStamp#matches(Path)}. Resources which are not restored are left untouched
+	 * and should be loaded from their files instead.</p>
+	 * 
+	 * @param 	file the path of the snapshot file.
+	 * @param 	rootDir the root directory of the resources.
+	 * @param 	resources the resources to restore.
+	 * @return 	the resources which have been restored.
+	 * @throws 	IOException if an I/O error occurs reading the file or if the file is corrupt.
+	 */
+	public static Set<Resource> restore(Path file, Path rootDir, Collection<Resource> resources) throws IOException {
+		Set<Resource> result = Sets.newHashSet();
+		if (!Files.isRegularFile(file)) {
+			return result;
+		}
+		Map<String,Resource> resourcesByPath = Maps.newHashMap();
+		resources.forEach(r -> resourcesByPath.put(rootDir.relativize(r.getPath()).toString(), r));
+		
+		// The translations are only applied once the whole snapshot has been read,
+		// so a corrupt snapshot leaves all resources untouched
+		Map<Resource,PersistentSortedMap<String,String>> translations = Maps.newHashMap();
+		Map<Resource,FileStamp> fileStamps = Maps.newHashMap();
+		long fileSize = Files.size(file);
+		CountingInputStream counter = new CountingInputStream(new BufferedInputStream(Files.newInputStream(file)));
+		try (DataInputStream in = new DataInputStream(counter)) {
+			if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+				return result;
+			}
+			
+			String[] keys = new String[readLength(in, fileSize - counter.getCount())];
+			String previous = "";
+			for (int i = 0; i < keys.length; i++) {
+				int prefix = readVarInt(in);
+				String suffix = readString(in, fileSize - counter.getCount());
+				keys[i] = ResourceKeys.intern(previous.substring(0, prefix) + suffix);
+				previous = keys[i];
+			}
+			
+			int count = readLength(in, fileSize - counter.getCount());
+			for (int i = 0; i < count; i++) {
+				Resource resource = resourcesByPath.get(readString(in, fileSize - counter.getCount()));
+				FileStamp fileStamp = new FileStamp(in.readLong(), in.readLong(), in.readLong());
+				boolean valid = resource != null && !translations.containsKey(resource) 
+						&& fileStamp.matches(resource.getPath());
+				
+				int size = readLength(in, fileSize - counter.getCount());
+				List<Map.Entry<String,String>> entries = Lists.newArrayListWithCapacity(valid ? size : 0);
+				int index = 0;
+				for (int j = 0; j < size; j++) {
+					index += readVarInt(in);
+					String value = readString(in, fileSize - counter.getCount());
+					if (valid) {
+						entries.add(Maps.immutableEntry(keys[index], value));
+					}
+				}
+				if (valid) {
+					translations.put(resource, PersistentSortedMap.copyOfSorted(entries));
+					fileStamps.put(resource, FileStamp.of(resource.getPath(), fileStamp.getHash()));
+				}
+			}
+		} catch (RuntimeException e) {
+			throw new IOException("Snapshot file is corrupt.", e);
+		}
+		translations.forEach((resource, restored) -> {
+			resource.setTranslations(restored);
+			resource.setFileStamp(fileStamps.get(resource));
+			resource.setLayout(null);
+			result.add(resource);
+		});
+		return result;
+	}
+	
+	private static int commonPrefixLength(String a, String b) {
+		int length = Math.min(a.length(), b.length());
+		int i = 0;
+		while (i < length && a.charAt(i) == b.charAt(i)) {
+			i++;
+		}
+		// Never split a surrogate pair, as each part is encoded separately
+		if (i > 0 && Character.isHighSurrogate(a.charAt(i - 1))) {
+			i--;
+		}
+		return i;
+	}
+	
+	private static void writeString(DataOutputStream out, String value) throws IOException {
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		writeVarInt(out, bytes.length);
+		out.write(bytes);
+	}
+	
+	private static String readString(DataInputStream in, long remaining) throws IOException {
+		byte[] bytes = new byte[readLength(in, remaining)];
+		in.readFully(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+	
+	private static void writeVarInt(DataOutputStream out, int value) throws IOException {
+		while ((value & ~0x7F) != 0) {
+			out.writeByte((value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+		out.writeByte(value);
+	}
+	
+	private static int readVarInt(DataInputStream in) throws IOException {
+		int result = 0;
+		for (int shift = 0; shift < 32; shift += 7) {
+			int b = in.readByte();
+			result |= (b & 0x7F) << shift;
+			if ((b & 0x80) == 0) {
+				if (result < 0) {
+					break;
+				}
+				return result;
+			}
+		}
+		throw new IOException("Malformed variable length integer.");
+	}
+	
+	private static int readLength(DataInputStream in, long remaining) throws IOException {
+		// A length never exceeds the number of remaining bytes, as each element takes at least one byte
+		int length = readVarInt(in);
+		if (length > remaining) {
+			throw new IOException("Snapshot file is corrupt.");
+		}
+		return length;
+	}
+	
+	private ResourceSnapshots() {}
+}
@@ -1,15 +1,40 @@
 package com.jvms.i18neditor.util;
 
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.EOFException;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
 import java.nio.charset.Charset;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileVisitOption;
+import java.nio.file.FileVisitResult;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.SortedMap;
+import java.util.function.Function;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -17,13 +42,23 @@ import java.util.stream.Collectors;
 import org.apache.commons.lang3.LocaleUtils;
 import org.apache.commons.lang3.StringEscapeUtils;
 
+import com.google.common.base.Joiner;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.HashMultiset;
+import com.google.common.collect.Iterators;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
-import com.google.gson.GsonBuilder;
-import com.google.gson.JsonElement;
-import com.google.gson.JsonObject;
-import com.google.gson.JsonParser;
-import com.google.gson.JsonPrimitive;
+import com.google.common.collect.Multimap;
+import com.google.common.collect.Multiset;
+import com.google.common.collect.PeekingIterator;
+import com.google.common.collect.Sets;
+import com.google.common.hash.HashingInputStream;
+import com.google.common.hash.HashingOutputStream;
+import com.google.common.io.ByteStreams;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
 import com.jvms.i18neditor.Resource;
 import com.jvms.i18neditor.ResourceType;
 
@@ -34,7 +69,25 @@ import com.jvms.i18neditor.ResourceType;
  */
 public final class Resources {
 	private final static Charset UTF8_ENCODING = Charset.forName("UTF-8");
-	private final static String LOCALE_REGEX = "[a-z]{2}(_[A-Z]{2})?";
+	// A language, optionally followed by a script and a region, separated by an underscore or hyphen
+	private final static String LOCALE_REGEX = "([a-z]{2,3})(?:[_-]([A-Z][a-z]{3}))?(?:[_-]([A-Z]{2}|[0-9]{3}))?";
+	private final static Pattern LOCALE_PATTERN = Pattern.compile(LOCALE_REGEX);
+	
+	/**
+	 * Gets all resources from the given {@code rootDir} directory path.
+	 * 
+	 * <p>This is the same as {@link #get(Path, String, Optional, int)} with a depth of {@code 1}, 
+	 * so only resources directly within the root directory are returned.</p>
+	 * 
+	 * @param 	rootDir the root directory of the resources
+	 * @param 	baseName the base name of the resource files to look for
+	 * @param 	type the type of the resource files to look for
+	 * @return	list of found resources
+	 * @throws 	IOException if an I/O error occurs reading the directory.
+	 */
+	public static List<Resource> get(Path rootDir, String baseName, Optional<ResourceType> type) throws IOException {
+		return get(rootDir, baseName, type, 1);
+	}
 	
 	/**
 	 * Gets all resources from the given {@code rootDir} directory path.
@@ -43,95 +96,344 @@ public final class Resources {
 	 * The base name is without extension and without any locale information.<br>
 	 * When a resource type is given, only resources of that type will returned.</p>
 	 * 
+	 * <p>Locales are named by a language, optionally followed by a script and a region, separated by an 
+	 * underscore or hyphen, for example {@code en}, {@code en_US}, {@code sr_Latn} or {@code zh-Hant-TW}.</p>
+	 * 
+	 * <p>The directory tree is read in a single pass, using the file attributes read along with each entry. 
+	 * The {@code depth} is the number of directory levels to search, a depth of {@code 1} only searches the root 
+	 * directory itself, that is files within the root directory and locale directories directly within it.</p>
+	 * 
+	 * <p>The resources of a project all belong to a single directory, see {@link #getBundleDir(Resource)}.
+	 * When resources are found in more than one directory, only those of the shallowest directory are returned.
+	 * Of several resources with the same type and locale, such as {@code en_US} and {@code en-US}, only the first 
+	 * by path is returned.</p>
+	 * 
 	 * <p>This function will not load the contents of the file, only its description.<br>
 	 * If you want to load the contents, use {@link #load(Resource)} afterwards.</p>
 	 * 
 	 * @param 	rootDir the root directory of the resources
 	 * @param 	baseName the base name of the resource files to look for
 	 * @param 	type the type of the resource files to look for
+	 * @param 	depth the number of directory levels to search, at least {@code 1}.
 	 * @return	list of found resources
 	 * @throws 	IOException if an I/O error occurs reading the directory.
 	 */
-	public static List<Resource> get(Path rootDir, String baseName, Optional<ResourceType> type) throws IOException {
+	public static List<Resource> get(Path rootDir, String baseName, Optional<ResourceType> type, int depth) 
+			throws IOException {
+		Preconditions.checkArgument(depth > 0);
+		// The patterns are compiled once for the whole directory tree
+		Map<String,ResourceType> localeDirTypes = Maps.newHashMap();
+		Map<String,ResourceType> embeddedTypes = Maps.newHashMap();
+		for (ResourceType t : ResourceType.values()) {
+			if (type.isPresent() && type.get() != t) {
+				continue;
+			}
+			if (t.isEmbedLocale()) {
+				embeddedTypes.put(t.getExtension(), t);
+			} else {
+				localeDirTypes.put(baseName + t.getExtension(), t);
+			}
+		}
+		Pattern embeddedPattern = embeddedTypes.isEmpty() ? null : Pattern.compile(Pattern.quote(baseName) 
+				+ "(?:_" + LOCALE_REGEX + ")?(" + embeddedTypes.keySet().stream()
+						.map(Pattern::quote)
+						.collect(Collectors.joining("|")) + ")");
+		
 		List<Resource> result = Lists.newLinkedList();
-		List<Path> files = Files.walk(rootDir, 1).collect(Collectors.toList());
-		for (Path p : files) {
-			ResourceType resourceType = null;
-			for (ResourceType t : ResourceType.values()) {
-				if (isResourceType(type, t) && isResource(rootDir, p, t, baseName)) {
-					resourceType = t;
-					break;
+		Files.walkFileTree(rootDir, EnumSet.of(FileVisitOption.FOLLOW_LINKS), depth + 1, new SimpleFileVisitor<Path>() {
+			@Override
+			public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) {
+				if (!attributes.isRegularFile()) {
+					return FileVisitResult.CONTINUE;
+				}
+				// Files of the last level can only be resources within a locale directory
+				int level = rootDir.relativize(file).getNameCount();
+				String fileName = file.getFileName().toString();
+				ResourceType resourceType = localeDirTypes.get(fileName);
+				if (resourceType != null && level > 1) {
+					Matcher match = LOCALE_PATTERN.matcher(file.getParent().getFileName().toString());
+					if (match.matches()) {
+						result.add(new Resource(resourceType, file, toLocale(match)));
+					}
+				} else if (embeddedPattern != null && level <= depth) {
+					Matcher match = embeddedPattern.matcher(fileName);
+					if (match.matches()) {
+						Locale locale = match.group(1) == null ? null : toLocale(match);
+						result.add(new Resource(embeddedTypes.get(match.group(4)), file, locale));
+					}
+				}
+				return FileVisitResult.CONTINUE;
+			}
+			
+			@Override
+			public FileVisitResult visitFileFailed(Path file, IOException e) throws IOException {
+				// Unreadable entries below the root directory are skipped
+				if (file.equals(rootDir)) {
+					throw e;
 				}
+				return FileVisitResult.CONTINUE;
 			}
-			if (resourceType != null) {
-				String fileName = p.getFileName().toString();
-				String extension = resourceType.getExtension();
-				Locale locale = null;
-				Path path = null;
+		});
+		
+		// Only the resources of the shallowest directory are returned, with a single resource per locale and type
+		Optional<Path> bundleDir = result.stream()
+				.map(Resources::getBundleDir)
+				.min(Comparator.comparingInt(Path::getNameCount).thenComparing(Comparator.naturalOrder()));
+		Set<List<Object>> locales = Sets.newHashSet();
+		return result.stream()
+				.filter(r -> getBundleDir(r).equals(bundleDir.get()))
+				.sorted(Comparator.comparing(Resource::getPath))
+				.filter(r -> locales.add(Arrays.asList(r.getType(), r.getLocale())))
+				.collect(Collectors.toCollection(Lists::newLinkedList));
+	}
+	
+	/**
+	 * Gets all resource bundles from the given {@code rootDir} directory path, by their bundle name.
+	 * 
+	 * <p>Unlike {@link #get(Path, String, Optional, int)} the base names do not have to be known beforehand, 
+	 * the resources of all base names are found in a single pass over the directory tree. For resource types 
+	 * with a locale directory, such as {@code en/common.json}, the base name is the filename without extension. 
+	 * For resource types with the locale embedded in the filename, such as {@code common_en.properties}, 
+	 * a trailing locale is only taken as such when there is another file of the same base name in the same directory, 
+	 * otherwise the whole filename without extension is the base name.</p>
+	 * 
+	 * <p>The bundle name is the base name prefixed with the directory of the bundle relative to {@code rootDir}, 
+	 * separated by {@code /}, so that bundles with the same base name in different directories are kept apart, 
+	 * for example {@code a/common} for {@code a/en/common.json}. See {@link #getBundleDir(Resource)}.</p>
+	 * 
+	 * <p>Bundle names which can not be used as a single key part are skipped. When resources of different types are 
+	 * found for the same bundle name, only the resources of the first type in the order of {@link ResourceType} 
+	 * are returned.</p>
+	 * 
+	 * @param 	rootDir the root directory of the resources
+	 * @param 	type the type of the resource files to look for
+	 * @param 	depth the number of directory levels to search, at least {@code 1}.
+	 * @return	the found resources by bundle name, sorted by bundle name
+	 * @throws 	IOException if an I/O error occurs reading the directory.
+	 */
+	public static SortedMap<String,List<Resource>> getBundles(Path rootDir, Optional<ResourceType> type, int depth) 
+			throws IOException {
+		Preconditions.checkArgument(depth > 0);
+		Map<String,ResourceType> types = Maps.newHashMap();
+		for (ResourceType t : ResourceType.values()) {
+			if (!type.isPresent() || type.get() == t) {
+				types.put(t.getExtension(), t);
+			}
+		}
+		// Bundles are named by their directory relative to the root directory followed by their base name
+		Function<Path,String> bundlePrefix = dir -> dir.equals(rootDir)
+				? "" : Joiner.on('/').join(rootDir.relativize(dir)) + "/";
+		Multimap<String,Resource> resources = ArrayListMultimap.create();
+		Map<Path,ResourceType> embeddedFiles = Maps.newLinkedHashMap();
+		Files.walkFileTree(rootDir, EnumSet.of(FileVisitOption.FOLLOW_LINKS), depth + 1, new SimpleFileVisitor<Path>() {
+			@Override
+			public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) {
+				String fileName = file.getFileName().toString();
+				int extension = fileName.lastIndexOf('.');
+				ResourceType resourceType = extension > 0 ? types.get(fileName.substring(extension)) : null;
+				if (resourceType == null || !attributes.isRegularFile()) {
+					return FileVisitResult.CONTINUE;
+				}
+				int level = rootDir.relativize(file).getNameCount();
 				if (resourceType.isEmbedLocale()) {
-					String pattern = "^" + baseName + "_(" + LOCALE_REGEX + ")" + extension + "$";
-					Matcher match = Pattern.compile(pattern).matcher(fileName);
-					if (match.find()) {
-						locale = LocaleUtils.toLocale(match.group(1));
+					if (level <= depth) {
+						embeddedFiles.put(file, resourceType);
 					}
-					path = Paths.get(rootDir.toString(), baseName + (locale == null ? "" : "_" + locale.toString()) + extension);				
-				} else {
-					locale = LocaleUtils.toLocale(fileName);
-					path = Paths.get(rootDir.toString(), locale.toString(), baseName + extension);			
+				} else if (level > 1) {
+					Matcher match = LOCALE_PATTERN.matcher(file.getParent().getFileName().toString());
+					if (match.matches()) {
+						String name = bundlePrefix.apply(file.getParent().getParent()) + fileName.substring(0, extension);
+						resources.put(name, new Resource(resourceType, file, toLocale(match)));
+					}
+				}
+				return FileVisitResult.CONTINUE;
+			}
+			
+			@Override
+			public FileVisitResult visitFileFailed(Path file, IOException e) throws IOException {
+				if (file.equals(rootDir)) {
+					throw e;
 				}
-				result.add(new Resource(resourceType, path, locale));
+				return FileVisitResult.CONTINUE;
+			}
+		});
+		
+		// A trailing locale can only be told apart from the rest of the base name by the other files of the bundle
+		Pattern embeddedPattern = Pattern.compile("(.+?)(?:_" + LOCALE_REGEX + ")?");
+		Map<Path,Matcher> matches = Maps.newHashMap();
+		Multiset<String> names = HashMultiset.create();
+		embeddedFiles.forEach((file, resourceType) -> {
+			String fileName = file.getFileName().toString();
+			String prefix = bundlePrefix.apply(file.getParent());
+			Matcher match = embeddedPattern.matcher(fileName.substring(0, fileName.length() - resourceType.getExtension().length()));
+			match.matches();
+			matches.put(file, match);
+			names.add(prefix + match.group(1));
+			if (match.group(2) != null) {
+				names.add(prefix + match.group());
+			}
+		});
+		embeddedFiles.forEach((file, resourceType) -> {
+			String prefix = bundlePrefix.apply(file.getParent());
+			Matcher match = matches.get(file);
+			if (match.group(2) != null && names.count(prefix + match.group(1)) > 1) {
+				resources.put(prefix + match.group(1), new Resource(resourceType, file, toLocale(match, 2)));
+			} else {
+				resources.put(prefix + match.group(), new Resource(resourceType, file, null));
 			}
-		};
+		});
+		
+		SortedMap<String,List<Resource>> result = Maps.newTreeMap();
+		resources.asMap().forEach((name, bundle) -> {
+			if (!ResourceKeys.isValid(name) || name.indexOf('.') >= 0) {
+				return;
+			}
+			ResourceType bundleType = bundle.stream().map(Resource::getType).min(Comparator.naturalOrder()).get();
+			result.put(name, bundle.stream()
+					.filter(r -> r.getType() == bundleType)
+					.collect(Collectors.toList()));
+		});
 		return result;
 	}
 	
+	/**
+	 * Gets the directory of the bundle to which the given resource belongs, which is the directory in which
+	 * new resources of the bundle are created. For resource types with a locale directory this is the parent 
+	 * of the locale directory.
+	 * 
+	 * @param 	resource the resource.
+	 * @return 	the directory of the bundle.
+	 */
+	public static Path getBundleDir(Resource resource) {
+		Path dir = resource.getPath().getParent();
+		return resource.getType().isEmbedLocale() ? dir : dir.getParent();
+	}
+	
+	/**
+	 * Parses the given locale name, see {@link #get(Path, String, Optional, int)} for the supported names.
+	 * 
+	 * @param 	name the locale name.
+	 * @return 	the locale.
+	 * @throws 	IllegalArgumentException if the name is not a valid locale.
+	 */
+	public static Locale toLocale(String name) {
+		Matcher match = LOCALE_PATTERN.matcher(name);
+		return match.matches() ? toLocale(match) : LocaleUtils.toLocale(name);
+	}
+	
 	/**
 	 * Loads the translations of a {@link Resource} from disk.
 	 * 
+	 * <p>While reading the file the position of each key is recorded in the {@link ResourceLayout} of the resource, 
+	 * which allows later writes to only replace the changed parts of the file. JSON which can only be read by the 
+	 * lenient parser has no layout.</p>
+	 * 
 	 * @param 	resource the resource.
 	 * @throws 	IOException if an I/O error occurs reading the file.
 	 */
 	public static void load(Resource resource) throws IOException {
 		ResourceType type = resource.getType();
 		Path path = resource.getPath();
+		// The attributes are read beforehand, so a concurrent change will never result in a matching file stamp
+		BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+		ResourceLayout.Builder layout = new ResourceLayout.Builder(type);
 		SortedMap<String,String> translations;
-		if (type == ResourceType.Properties) {
-			ExtendedProperties content = new ExtendedProperties();
-			content.load(path);
-			translations = fromProperties(content);
-		} else {
-			String content = Files.lines(path, UTF8_ENCODING).collect(Collectors.joining());
-			if (type == ResourceType.ES6) {
-				content = es6ToJson(content);
+		long hash;
+		try (HashingInputStream in = FileStamp.hashing(Files.newInputStream(path))) {
+			translations = read(in, type, layout);
+			ByteStreams.exhaust(in);
+			hash = in.hash().asLong();
+		} catch (IllegalArgumentException e) {
+			if (type == ResourceType.Properties) {
+				throw e;
+			}
+			layout = null;
+			try (HashingInputStream in = FileStamp.hashing(Files.newInputStream(path))) {
+				BufferedReader reader = new BufferedReader(new InputStreamReader(in, UTF8_ENCODING.newDecoder()));
+				if (type == ResourceType.ES6) {
+					skipToObject(reader);
+				}
+				translations = fromJson(reader);
+				ByteStreams.exhaust(in);
+				hash = in.hash().asLong();
 			}
-			translations = fromJson(content);
 		}
 		resource.setTranslations(translations);
+		resource.setFileStamp(new FileStamp(attributes.size(), attributes.lastModifiedTime().toMillis(), hash));
+		resource.setLayout(layout == null ? null : layout.build());
 	}
 	
 	/**
 	 * Writes the translations of the given resource to disk.
 	 * 
+	 * <p>The translations are first written to a temporary file in the same directory, which is then 
+	 * moved into place atomically. Afterwards the written translations are marked as saved.</p>
+	 * 
+	 * <p>When the file on disk still matches the resource, only the changed parts of the file are replaced, 
+	 * see {@link ResourceLayout}. The rest of the file is copied as is, keeping its order, comments and formatting. 
+	 * Otherwise, or when the formatting of the file does not match {@code prettyPrinting}, 
+	 * the file is written as a whole.</p>
+	 * 
 	 * @param 	resource the resource to write.
 	 * @param   prettyPrinting whether to pretty print the contents
 	 * @throws 	IOException if an I/O error occurs writing the file.
 	 */
 	public static void write(Resource resource, boolean prettyPrinting) throws IOException {
 		ResourceType type = resource.getType();
-		if (type == ResourceType.Properties) {
-			ExtendedProperties content = toProperties(resource.getTranslations());
-			content.store(resource.getPath());
-		} else {
-			String content = toJson(resource.getTranslations(), prettyPrinting);
-			if (type == ResourceType.ES6) {
-				content = jsonToEs6(content);
+		Path path = resource.getPath();
+		SortedMap<String,String> translations = resource.getTranslations();
+		if (!Files.exists(path)) {
+			Files.createDirectories(path.getParent());
+		}
+		Path tempPath = path.resolveSibling("." + path.getFileName() + ".tmp");
+		ResourceLayout layout = getLayout(resource, prettyPrinting);
+		List<ResourceLayout.Edit> edits = layout == null ? null : layout.edits(resource.getSavedTranslations(), translations);
+		FileStamp fileStamp;
+		long hash;
+		try {
+			try (FileChannel channel = FileChannel.open(tempPath, 
+					StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+				HashingOutputStream out = FileStamp.hashing(Channels.newOutputStream(channel));
+				if (edits != null) {
+					try (FileChannel source = FileChannel.open(path, StandardOpenOption.READ)) {
+						patch(source, edits, out);
+					}
+				} else if (type == ResourceType.Properties) {
+					ResourceProperties.write(translations, out);
+				} else {
+					BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(out, UTF8_ENCODING));
+					if (type == ResourceType.ES6) {
+						writer.write("export default ");
+					}
+					toJson(translations, writer, prettyPrinting);
+					if (type == ResourceType.ES6) {
+						writer.write(";");
+					}
+					writer.newLine();
+					writer.flush();
+				}
+				channel.force(true);
+				hash = out.hash().asLong();
 			}
-			if (!Files.exists(resource.getPath())) {
-				Files.createDirectories(resource.getPath().getParent());
-				Files.createFile(resource.getPath());
+			copyPermissions(path, tempPath);
+			// The file attributes are preserved when moving the file
+			fileStamp = FileStamp.of(tempPath, hash);
+			try {
+				Files.move(tempPath, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+			} catch (AtomicMoveNotSupportedException e) {
+				Files.move(tempPath, path, StandardCopyOption.REPLACE_EXISTING);
 			}
-			Files.write(resource.getPath(), Lists.newArrayList(content), UTF8_ENCODING);
+		} finally {
+			Files.deleteIfExists(tempPath);
+		}
+		if (edits != null) {
+			layout.apply(edits);
+		} else {
+			layout = null;
 		}
+		resource.markSaved(translations);
+		resource.setFileStamp(fileStamp);
+		resource.setLayout(layout);
 	}
 	
 	/**
@@ -148,101 +450,215 @@ public final class Resources {
 		String extension = type.getExtension();
 		Path path;
 		if (type.isEmbedLocale()) {
-			path = Paths.get(root.toString(), baseName + (locale.isPresent() ? "_" + locale.get().toString() : "") + extension);				
+			path = Paths.get(root.toString(), baseName + (locale.isPresent() ? "_" + toLocaleName(locale.get()) : "") + extension);				
 		} else {
-			path = Paths.get(root.toString(), locale.get().toString(), baseName + extension);			
+			path = Paths.get(root.toString(), toLocaleName(locale.get()), baseName + extension);			
 		}
 		Resource resource = new Resource(type, path, locale.orElse(null));
 		write(resource, false);
 		return resource;
 	}
 	
-	private static boolean isResource(Path root, Path path, ResourceType type, String baseName) throws IOException {
-		String extension = type.getExtension();
-		Path parent = path.getParent();
-		if (parent == null || Files.isSameFile(root, path) || !Files.isSameFile(root, parent)) {
-			return false;
-		} else if (type.isEmbedLocale()) {
-			return Files.isRegularFile(path) &&
-					Pattern.matches("^" + baseName + "(_" + LOCALE_REGEX + ")?" + extension + "$", path.getFileName().toString());			
-		} else {
-			return Files.isDirectory(path) &&
-					Pattern.matches("^" + LOCALE_REGEX + "$", path.getFileName().toString()) &&
-					Files.isRegularFile(Paths.get(path.toString(), baseName + extension));
+	/**
+	 * Computes the key level changes needed to turn the given translations into the given target translations.
+	 * Both maps are traversed once in key order.
+	 * 
+	 * @param 	translations the current translations.
+	 * @param 	target the target translations.
+	 * @return 	the changed translations by key in key order, with a {@code null} value for removed translations.
+	 */
+	public static Map<String,String> diff(SortedMap<String,String> translations, SortedMap<String,String> target) {
+		Map<String,String> result = Maps.newLinkedHashMap();
+		PeekingIterator<Map.Entry<String,String>> a = Iterators.peekingIterator(translations.entrySet().iterator());
+		PeekingIterator<Map.Entry<String,String>> b = Iterators.peekingIterator(target.entrySet().iterator());
+		while (a.hasNext() || b.hasNext()) {
+			int cmp = !a.hasNext() ? 1 : !b.hasNext() ? -1 : a.peek().getKey().compareTo(b.peek().getKey());
+			if (cmp < 0) {
+				result.put(a.next().getKey(), null);
+			} else if (cmp > 0) {
+				Map.Entry<String,String> entry = b.next();
+				result.put(entry.getKey(), entry.getValue());
+			} else {
+				String value = a.next().getValue();
+				Map.Entry<String,String> entry = b.next();
+				if (!value.equals(entry.getValue())) {
+					result.put(entry.getKey(), entry.getValue());
+				}
+			}
 		}
+		return result;
 	}
 	
-	private static boolean isResourceType(Optional<ResourceType> a, ResourceType b) {
-		return !a.isPresent() || a.get() == b;
+	private static SortedMap<String,String> read(InputStream in, ResourceType type, ResourceLayout.Builder layout) 
+			throws IOException {
+		if (type == ResourceType.Properties) {
+			return ResourceProperties.read(in, layout);
+		}
+		return ResourceJson.read(in, type == ResourceType.ES6, layout);
 	}
 	
-	private static SortedMap<String,String> fromProperties(ExtendedProperties properties) {
-		SortedMap<String,String> result = Maps.newTreeMap();
-		properties.forEach((key, value) -> {
-			result.put((String)key, StringEscapeUtils.unescapeJava((String)value));
-		});
-		return result;
+	private static ResourceLayout getLayout(Resource resource, boolean prettyPrinting) throws IOException {
+		// The layout can only be used for the file it was recorded from
+		FileStamp fileStamp = resource.getFileStamp();
+		if (fileStamp == null || !fileStamp.matches(resource.getPath())) {
+			return null;
+		}
+		ResourceLayout layout = resource.getLayout();
+		if (layout == null) {
+			// The resource was not loaded from the file itself, such as after writing the file as a whole
+			ResourceLayout.Builder builder = new ResourceLayout.Builder(resource.getType());
+			try (InputStream in = Files.newInputStream(resource.getPath())) {
+				if (read(in, resource.getType(), builder).equals(resource.getSavedTranslations())) {
+					layout = builder.build();
+				}
+			} catch (IllegalArgumentException e) {
+				return null;
+			}
+		}
+		if (layout != null && resource.getType() != ResourceType.Properties && layout.isPrettyPrinted() != prettyPrinting) {
+			return null;
+		}
+		return layout;
 	}
 	
-	private static ExtendedProperties toProperties(Map<String,String> translations) {
-		ExtendedProperties result = new ExtendedProperties();
-		result.putAll(translations);
-		return result;
+	private static void patch(FileChannel source, List<ResourceLayout.Edit> edits, OutputStream out) throws IOException {
+		OutputStream buffered = new BufferedOutputStream(out);
+		long position = 0;
+		for (ResourceLayout.Edit edit : edits) {
+			copy(source, position, edit.getStart() - position, buffered);
+			buffered.write(edit.getText());
+			position = edit.getEnd();
+		}
+		copy(source, position, source.size() - position, buffered);
+		buffered.flush();
 	}
 	
-	private static SortedMap<String,String> fromJson(String json) {
-		SortedMap<String,String> result = Maps.newTreeMap();
-		JsonElement elem = new JsonParser().parse(json);
-		fromJson(null, elem, result);
-		return result;
+	private static void copy(FileChannel source, long position, long count, OutputStream out) throws IOException {
+		source.position(position);
+		long copied = ByteStreams.copy(ByteStreams.limit(Channels.newInputStream(source), count), out);
+		if (copied != count) {
+			throw new EOFException("Resource file has been truncated.");
+		}
 	}
 	
-	private static void fromJson(String key, JsonElement elem, Map<String,String> content) {
-		if (elem.isJsonObject()) {
-			elem.getAsJsonObject().entrySet().forEach(entry -> {
-				String newKey = key == null ? entry.getKey() : ResourceKeys.create(key, entry.getKey());
-				fromJson(newKey, entry.getValue(), content);
-			});
-		} else if (elem.isJsonPrimitive()) {
-			content.put(key, StringEscapeUtils.unescapeJava(elem.getAsString()));
-		} else if (elem.isJsonNull()) {
-			content.put(key, "");
-		} else {
+	private static Locale toLocale(Matcher match) {
+		return toLocale(match, 1);
+	}
+	
+	private static Locale toLocale(Matcher match, int group) {
+		// The language, script and region are the groups of the locale pattern, starting at the given group
+		return new Locale.Builder()
+				.setLanguage(match.group(group))
+				.setScript(match.group(group + 1))
+				.setRegion(match.group(group + 2))
+				.build();
+	}
+	
+	private static String toLocaleName(Locale locale) {
+		if (locale.getScript().isEmpty()) {
+			return locale.toString();
+		}
+		return locale.getLanguage() + "_" + locale.getScript() 
+				+ (locale.getCountry().isEmpty() ? "" : "_" + locale.getCountry());
+	}
+	
+	private static void copyPermissions(Path source, Path target) throws IOException {
+		if (Files.exists(source) && Files.getFileStore(source).supportsFileAttributeView(PosixFileAttributeView.class)) {
+			Files.setPosixFilePermissions(target, Files.getPosixFilePermissions(source));
+		}
+	}
+	
+	private static SortedMap<String,String> fromJson(Reader reader) throws IOException {
+		SortedMap<String,String> result = Maps.newTreeMap();
+		JsonReader jsonReader = new JsonReader(reader);
+		jsonReader.setLenient(true);
+		if (jsonReader.peek() != JsonToken.BEGIN_OBJECT) {
 			throw new IllegalArgumentException("Found invalid json element.");
 		}
+		fromJson(null, jsonReader, result);
+		return result;
 	}
 	
-	private static String toJson(Map<String,String> translations, boolean prettify) {
-		List<String> keys = Lists.newArrayList(translations.keySet());
-		JsonElement elem = toJson(translations, null, keys);
-		GsonBuilder builder = new GsonBuilder().disableHtmlEscaping();
-		if (prettify) {
-			builder.setPrettyPrinting();
+	private static void fromJson(String key, JsonReader reader, Map<String,String> content) throws IOException {
+		switch (reader.peek()) {
+			case BEGIN_OBJECT:
+				reader.beginObject();
+				while (reader.hasNext()) {
+					String name = reader.nextName();
+					String newKey = key == null ? name : name.isEmpty() ? key : key + "." + name;
+					fromJson(newKey, reader, content);
+				}
+				reader.endObject();
+				break;
+			case STRING:
+			case NUMBER:
+				content.put(ResourceKeys.intern(key), unescape(reader.nextString()));
+				break;
+			case BOOLEAN:
+				content.put(ResourceKeys.intern(key), String.valueOf(reader.nextBoolean()));
+				break;
+			case NULL:
+				reader.nextNull();
+				content.put(ResourceKeys.intern(key), "");
+				break;
+			default:
+				throw new IllegalArgumentException("Found invalid json element.");
 		}
-		return builder.create().toJson(elem);
 	}
 	
-	private static JsonElement toJson(Map<String,String> translations, String key, List<String> keys) {
-		if (keys.size() > 0) {
-			JsonObject object = new JsonObject();
-			ResourceKeys.uniqueRootKeys(keys).forEach(rootKey -> {
-				String subKey = ResourceKeys.create(key, rootKey);
-				List<String> subKeys = ResourceKeys.extractChildKeys(keys, rootKey);
-				object.add(rootKey, toJson(translations, subKey, subKeys));
-			});
-			return object;
+	static String unescape(String value) {
+		// Only values containing a backslash can contain escape sequences
+		return value.indexOf('\\') < 0 ? value : StringEscapeUtils.unescapeJava(value);
+	}
+	
+	private static void toJson(SortedMap<String,String> translations, Writer writer, boolean prettify) throws IOException {
+		JsonWriter jsonWriter = new JsonWriter(writer);
+		if (prettify) {
+			jsonWriter.setIndent("  ");
 		}
-		if (key == null) {
-			return new JsonObject();
+		jsonWriter.beginObject();
+		// The path of the currently open object, all keys of an object are adjacent in sorted order
+		KeyPath object = KeyPath.ROOT;
+		PeekingIterator<Map.Entry<String,String>> entries = Iterators.peekingIterator(translations.entrySet().iterator());
+		while (entries.hasNext()) {
+			Map.Entry<String,String> entry = entries.next();
+			String key = entry.getKey();
+			if (entries.hasNext() && entries.peek().getKey().startsWith(key) && hasChildKeys(translations, key)) {
+				// A key which is also the parent of other keys can not be represented as a value
+				continue;
+			}
+			KeyPath path = KeyPath.of(key);
+			KeyPath parent = path.isRoot() ? path : path.getParent();
+			int depth = object.commonPrefixSize(parent);
+			for (int i = object.size(); i > depth; i--) {
+				jsonWriter.endObject();
+			}
+			for (int i = depth; i < parent.size(); i++) {
+				jsonWriter.name(parent.getPart(i)).beginObject();
+			}
+			object = parent;
+			jsonWriter.name(path.getName()).value(entry.getValue());
+		}
+		for (int i = 0; i < object.size(); i++) {
+			jsonWriter.endObject();
 		}
-		return new JsonPrimitive(translations.get(key));
+		jsonWriter.endObject();
+		jsonWriter.flush();
 	}
 	
-	private static String es6ToJson(String content) {
-		return content.replaceAll("export +default", "").replaceAll("} *;", "}");
+	private static boolean hasChildKeys(SortedMap<String,String> translations, String key) {
+		return !translations.subMap(key + ".", key + "/").isEmpty();
 	}
 	
-	private static String jsonToEs6(String content) {
-		return "export default " + content + ";";
+	private static void skipToObject(BufferedReader reader) throws IOException {
+		// Skip everything before the exported object, the reader will stop reading after the object itself
+		int c;
+		do {
+			reader.mark(1);
+			c = reader.read();
+		} while (c != -1 && c != '{');
+		if (c != -1) {
+			reader.reset();
+		}
 	}
 }
@@ -0,0 +1,146 @@
+package com.jvms.i18neditor.util;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * This class runs tasks on a pool of background threads, ordered by priority.
+ *
+ * <p>Tasks with a higher priority are started before tasks with a lower priority, tasks with the same priority
+ * are started in order of submission. Each task is represented by a {@link CompletableFuture}. Cancelling a task
+ * which has not been started yet prevents it from running. A task which is already running can not be cancelled
+ * and will run to completion, so a task never has to deal with being interrupted halfway, for example while
+ * writing a file.</p>
+ *
+ * @author Jacob van Mourik
+ */
+public class TaskScheduler {
+	private final ThreadPoolExecutor executor;
+	private final AtomicLong sequence = new AtomicLong();
+	
+	/**
+	 * The priority of a task, in descending order.
+	 */
+	public enum Priority {
+		/** Work the user is waiting for, such as importing or saving a project. */
+		USER_BLOCKING,
+		/** Work of which the result is shown to the user, but which does not block the user. */
+		USER_VISIBLE,
+		/** Work the user is not aware of, such as checking for a new version. */
+		BACKGROUND
+	}
+	
+	/**
+	 * Creates a new scheduler.
+	 *
+	 * @param 	name the name of the scheduler, used to name its threads.
+	 * @param 	threads the number of threads.
+	 */
+	public TaskScheduler(String name, int threads) {
+		executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+				new PriorityBlockingQueue<Runnable>(),
+				new ThreadFactoryBuilder().setNameFormat(name + "-%d").setDaemon(true).build());
+	}
+	
+	/**
+	 * Schedules a task which computes a result.
+	 *
+	 * @param 	priority the priority of the task.
+	 * @param 	task the task.
+	 * @return 	a future of the result of the task, which can be cancelled until the task has been started.
+	 */
+	public <T> CompletableFuture<T> submit(Priority priority, Callable<T> task) {
+		Task<T> result = new Task<>();
+		executor(priority).execute(() -> {
+			if (!result.start()) {
+				return;
+			}
+			try {
+				result.complete(task.call());
+			} catch (Exception e) {
+				result.completeExceptionally(e);
+			}
+		});
+		return result;
+	}
+	
+	/**
+	 * Schedules a task without a result.
+	 *
+	 * @param 	priority the priority of the task.
+	 * @param 	task the task.
+	 * @return 	a future which completes when the task has been run, which can be cancelled until the task
+	 * 			has been started.
+	 */
+	public CompletableFuture<Void> run(Priority priority, Runnable task) {
+		return submit(priority, () -> {
+			task.run();
+			return null;
+		});
+	}
+	
+	/**
+	 * Gets an executor which schedules its commands with the given priority,
+	 * for example to be used with {@link CompletableFuture#supplyAsync(java.util.function.Supplier, Executor)}.
+	 *
+	 * @param 	priority the priority of the commands.
+	 * @return 	the executor.
+	 */
+	public Executor executor(Priority priority) {
+		return command -> executor.execute(new ScheduledCommand(priority, sequence.getAndIncrement(), command));
+	}
+	
+	/**
+	 * Stops the scheduler after all scheduled tasks have been run.
+	 */
+	public void shutdown() {
+		executor.shutdown();
+	}
+	
+	private final static class ScheduledCommand implements Runnable, Comparable<ScheduledCommand> {
+		private final Priority priority;
+		private final long sequence;
+		private final Runnable command;
+		
+		private ScheduledCommand(Priority priority, long sequence, Runnable command) {
+			this.priority = priority;
+			this.sequence = sequence;
+			this.command = command;
+		}
+		
+		@Override
+		public void run() {
+			command.run();
+		}
+		
+		@Override
+		public int compareTo(ScheduledCommand o) {
+			int result = priority.compareTo(o.priority);
+			return result != 0 ? result : Long.compare(sequence, o.sequence);
+		}
+	}
+	
+	private final static class Task<T> extends CompletableFuture<T> {
+		private final static int NEW = 0;
+		private final static int RUNNING = 1;
+		private final static int CANCELLED = 2;
+		private final AtomicInteger state = new AtomicInteger(NEW);
+		
+		private boolean start() {
+			return state.compareAndSet(NEW, RUNNING);
+		}
+		
+		@Override
+		public boolean cancel(boolean mayInterruptIfRunning) {
+			return state.compareAndSet(NEW, CANCELLED) && super.cancel(mayInterruptIfRunning);
+		}
+	}
+}
@@ -1,12 +1,17 @@
 package com.jvms.i18neditor;
 
+import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
 import java.util.SortedMap;
 
 import org.junit.Before;
 import org.junit.Test;
 
+import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
 import com.jvms.i18neditor.Resource;
 
 import static org.junit.Assert.*;
@@ -213,4 +218,158 @@ public class ResourceTest {
 		resource.storeTranslation("a.b", "ab");
 		resource.duplicateTranslation("a", "b c");
 	}
+	
+	@Test
+	public void getChildTranslationsTest() {
+		SortedMap<String,String> translations;
+		
+		resource.storeTranslation("a-b", "a-b");
+		resource.storeTranslation("ab.c", "abc");
+		resource.storeTranslation("b.a", "ba");
+		
+		translations = resource.getChildTranslations("a");
+		assertEquals(2, translations.size());
+		assertEquals("aa", translations.get("a.a"));
+		assertEquals("ab", translations.get("a.b"));
+		
+		translations = resource.getChildTranslations("a.a");
+		assertTrue(translations.isEmpty());
+		
+		translations = resource.getChildTranslations("c");
+		assertTrue(translations.isEmpty());
+	}
+	
+	@Test
+	public void getParentKeysTest() {
+		resource.setTranslations(Maps.newTreeMap());
+		resource.storeTranslation("a", "a");
+		resource.storeTranslation("b.c", "bc");
+		
+		assertEquals(Lists.newArrayList("a"), resource.getParentKeys("a.b.c"));
+		assertEquals(Lists.newArrayList("b.c"), resource.getParentKeys("b.c.d"));
+		assertTrue(resource.getParentKeys("b.c").isEmpty());
+		assertTrue(resource.getParentKeys("c.d").isEmpty());
+	}
+	
+	@Test
+	public void getTranslationsSnapshotTest() {
+		SortedMap<String,String> snapshot = resource.getTranslations();
+		
+		resource.storeTranslation("a.c", "ac");
+		resource.removeTranslation("a.a");
+		
+		assertEquals(2, snapshot.size());
+		assertEquals("aa", snapshot.get("a.a"));
+		assertNull(snapshot.get("a.c"));
+		assertEquals(2, resource.getTranslations().size());
+		assertEquals("ac", resource.getTranslations().get("a.c"));
+	}
+	
+	@Test
+	public void dirtyTest() {
+		assertFalse(resource.isDirty());
+		
+		resource.storeTranslation("a.a", "aa");
+		assertFalse(resource.isDirty());
+		
+		resource.storeTranslation("a.a", "b");
+		assertTrue(resource.isDirty());
+		
+		SortedMap<String,String> snapshot = resource.getTranslations();
+		resource.storeTranslation("a.c", "c");
+		resource.markSaved(snapshot);
+		assertTrue(resource.isDirty());
+		
+		resource.markSaved(resource.getTranslations());
+		assertFalse(resource.isDirty());
+	}
+	
+	@Test
+	public void reloadTranslationsTest() {
+		List<Set<String>> events = Lists.newArrayList();
+		resource.addListener(e -> events.add(e.getKeys()));
+		
+		SortedMap<String,String> disk = Maps.newTreeMap();
+		disk.put("a.a", "aa");
+		disk.put("a.c", "ac");
+		Map<String,String> changes = Maps.newLinkedHashMap();
+		changes.put("a.b", null);
+		changes.put("a.c", "ac");
+		resource.reloadTranslations(changes, disk);
+		
+		assertEquals(disk, resource.getTranslations());
+		assertFalse(resource.isDirty());
+		assertEquals(1, events.size());
+		assertEquals(Sets.newHashSet("a.b", "a.c"), events.get(0));
+		
+		resource.storeTranslation("a.a", "b");
+		disk.put("a.d", "ad");
+		changes.clear();
+		changes.put("a.d", "ad");
+		resource.reloadTranslations(changes, disk);
+		
+		assertEquals("b", resource.getTranslation("a.a"));
+		assertEquals("ad", resource.getTranslation("a.d"));
+		assertEquals(disk, resource.getSavedTranslations());
+		assertTrue(resource.isDirty());
+	}
+	
+	@Test
+	public void renameEventTest() {
+		List<ResourceEvent> events = Lists.newArrayList();
+		resource.addListener(events::add);
+		resource.renameTranslation("a", "b");
+		
+		assertEquals(1, events.size());
+		assertEquals(Lists.newArrayList(
+				new ResourceChange("a.a", "aa", null),
+				new ResourceChange("a.b", "ab", null),
+				new ResourceChange("b.a", null, "aa"),
+				new ResourceChange("b.b", null, "ab")), events.get(0).getChanges());
+		assertEquals(ResourceChange.Type.REMOVED, events.get(0).getChanges().get(0).getType());
+		assertEquals(ResourceChange.Type.ADDED, events.get(0).getChanges().get(2).getType());
+	}
+	
+	@Test
+	public void batchTest() {
+		List<ResourceEvent> events = Lists.newArrayList();
+		resource.addListener(events::add);
+		resource.batch(r -> {
+			r.storeTranslation("a.a", "b");
+			r.storeTranslation("a.a", "c");
+			r.storeTranslation("a.c", "ac");
+			r.removeTranslation("a.c");
+			r.batch(n -> n.removeTranslation("a.b"));
+		});
+		
+		assertEquals(1, events.size());
+		assertEquals(Lists.newArrayList(
+				new ResourceChange("a.a", "aa", "c"),
+				new ResourceChange("a.b", "ab", null)), events.get(0).getChanges());
+		assertEquals(ResourceChange.Type.CHANGED, events.get(0).getChanges().get(0).getType());
+		
+		resource.removeTranslation("d");
+		resource.batch(r -> {});
+		assertEquals(1, events.size());
+	}
+	
+	@Test
+	public void applyChangesTest() {
+		List<ResourceEvent> events = Lists.newArrayList();
+		resource.addListener(events::add);
+		
+		Map<String,String> changes = Maps.newLinkedHashMap();
+		changes.put("a.b", null);
+		changes.put("b", "b");
+		changes.put("a.c", "ac");
+		resource.applyChanges(changes);
+		
+		SortedMap<String,String> expected = Maps.newTreeMap();
+		expected.put("a.a", "aa");
+		expected.put("a.c", "ac");
+		expected.put("b", "b");
+		assertEquals(expected, resource.getTranslations());
+		assertEquals(1, events.size());
+		assertEquals(3, events.get(0).getChanges().size());
+	}
 }
@@ -0,0 +1,73 @@
+package com.jvms.i18neditor;
+
+import java.util.Locale;
+import java.util.SortedMap;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+import static org.junit.Assert.*;
+
+/**
+ * 
+ * @author Jacob
+ */
+public class TranslationTableTest {
+	private Resource en;
+	private Resource nl;
+	private TranslationTable table;
+	
+	@Before
+	public void setup() throws Exception {
+		SortedMap<String,String> translations = Maps.newTreeMap();
+		translations.put("a.a", "aa");
+		translations.put("a.b", "ab");
+		translations.put("c", "c");
+		en = new Resource(ResourceType.JSON, null, new Locale("en"));
+		en.setTranslations(translations);
+		
+		translations = Maps.newTreeMap();
+		translations.put("a-b", "a-b");
+		translations.put("a.a", "aa");
+		translations.put("b", "");
+		nl = new Resource(ResourceType.JSON, null, new Locale("nl"));
+		nl.setTranslations(translations);
+		
+		table = TranslationTable.of(Lists.newArrayList(en, nl));
+	}
+	
+	@Test
+	public void keysTest() {
+		assertEquals(Lists.newArrayList("a-b", "a.a", "a.b", "b", "c"), table.getKeys());
+		assertEquals(5, table.getRowCount());
+		assertEquals(2, table.getColumnCount());
+		assertEquals(3, table.indexOf("b"));
+		assertTrue(table.indexOf("d") < 0);
+	}
+	
+	@Test
+	public void valuesTest() {
+		int row = table.indexOf("a.a");
+		assertEquals("aa", table.getValue(row, 0));
+		assertEquals("aa", table.getValue(row, 1));
+		assertTrue(table.isComplete(row));
+		
+		row = table.indexOf("b");
+		assertNull(table.getValue(row, 0));
+		assertEquals("", table.getValue(row, 1));
+		assertFalse(table.isComplete(row));
+		
+		assertEquals(Lists.newArrayList(null, "aa", "ab", null, "c"), Lists.newArrayList(table.getColumn(0)));
+	}
+	
+	@Test
+	public void snapshotTest() {
+		en.storeTranslation("d", "d");
+		
+		assertTrue(table.indexOf("d") < 0);
+		assertSame(en, table.getResources().get(0));
+	}
+}
@@ -0,0 +1,116 @@
+package com.jvms.i18neditor.editor;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.SortedMap;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.google.common.collect.ImmutableSortedMap;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.jvms.i18neditor.Resource;
+import com.jvms.i18neditor.ResourceType;
+import com.jvms.i18neditor.TranslationTable;
+import com.jvms.i18neditor.util.Resources;
+
+/**
+ * 
+ * @author Jacob
+ */
+public class EditorWorkspaceTest {
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+	
+	private EditorWorkspace workspace;
+	
+	@Before
+	public void setup() throws Exception {
+		List<Resource> common = Lists.newArrayList(
+				new Resource(ResourceType.JSON, Paths.get("en/common.json"), Locale.ENGLISH),
+				new Resource(ResourceType.JSON, Paths.get("nl/common.json"), new Locale("nl")));
+		List<Resource> errors = Lists.newArrayList(
+				new Resource(ResourceType.JSON, Paths.get("en/errors.json"), Locale.ENGLISH));
+		workspace = new EditorWorkspace(Paths.get(""), ImmutableSortedMap.of("common", common, "errors", errors));
+	}
+	
+	@Test
+	public void keysTest() {
+		assertEquals("common", workspace.getBundleName("common.a.b"));
+		assertEquals("errors", workspace.getBundleName("errors"));
+		assertNull(workspace.getBundleName("other.a"));
+		assertNull(workspace.getBundleName(""));
+		assertEquals("a.b", workspace.toBundleKey("common.a.b"));
+		assertEquals("common.a.b", workspace.toKey("common", "a.b"));
+	}
+	
+	@Test
+	public void loadTest() {
+		List<Resource> resources = workspace.createResources("common");
+		assertEquals(2, resources.size());
+		assertNotSame(resources, workspace.createResources("common"));
+		
+		SortedMap<String,String> translations = Maps.newTreeMap();
+		translations.put("a", "a");
+		translations.put("b", "b");
+		resources.get(0).setTranslations(translations);
+		translations = Maps.newTreeMap();
+		translations.put("a", "a");
+		resources.get(1).setTranslations(translations);
+		
+		EditorProject project = workspace.load("common", TranslationTable.of(resources));
+		assertEquals("common", project.getResourceName());
+		assertSame(project, workspace.getProject("common"));
+		assertSame(project, workspace.getProject(resources.get(1)));
+		assertNull(workspace.getProject("errors"));
+		assertEquals(Lists.newArrayList("common.b"), Lists.newArrayList(workspace.getIncompleteKeys()));
+		assertEquals(2, workspace.getResources().size());
+		
+		workspace.evict("common");
+		assertNull(workspace.getProject("common"));
+		assertTrue(workspace.getIncompleteKeys().isEmpty());
+		assertTrue(workspace.getResources().isEmpty());
+	}
+	
+	@Test
+	public void subdirectoryBundlesTest() throws IOException {
+		Path root = folder.getRoot().toPath();
+		createFile(root, "a/en/common.json");
+		createFile(root, "a/nl/common.json");
+		createFile(root, "b/en/common.json");
+		
+		workspace = new EditorWorkspace(root, Resources.getBundles(root, Optional.empty(), 2));
+		assertEquals(Lists.newArrayList("a/common", "b/common"), Lists.newArrayList(workspace.getBundleNames()));
+		assertEquals("a/common", workspace.getBundleName("a/common.x"));
+		assertEquals("common", workspace.toBaseName("a/common"));
+		assertEquals("common", workspace.toBaseName("common"));
+		
+		List<Resource> resources = workspace.createResources("a/common");
+		assertEquals(2, resources.size());
+		EditorProject project = workspace.load("a/common", TranslationTable.of(resources));
+		assertEquals(root.resolve("a"), project.getPath());
+		
+		resources = workspace.createResources("b/common");
+		assertEquals(1, resources.size());
+		assertEquals(root.resolve("b/en/common.json"), resources.get(0).getPath());
+		project = workspace.load("b/common", TranslationTable.of(resources));
+		assertEquals(root.resolve("b"), project.getPath());
+		assertSame(project, workspace.getProject(resources.get(0)));
+	}
+	
+	private void createFile(Path root, String path) throws IOException {
+		Path file = root.resolve(path);
+		Files.createDirectories(file.getParent());
+		Files.write(file, "{}".getBytes());
+	}
+}
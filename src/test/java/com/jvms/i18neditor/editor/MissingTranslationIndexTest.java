@@ -0,0 +1,115 @@
+package com.jvms.i18neditor.editor;
+
+import static org.junit.Assert.*;
+
+import java.util.Locale;
+import java.util.SortedMap;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.jvms.i18neditor.Resource;
+import com.jvms.i18neditor.ResourceType;
+import com.jvms.i18neditor.TranslationTable;
+
+/**
+ * 
+ * @author Jacob
+ */
+public class MissingTranslationIndexTest {
+	private Resource en;
+	private Resource nl;
+	private MissingTranslationIndex index;
+	
+	@Before
+	public void setup() throws Exception {
+		SortedMap<String,String> translations = Maps.newTreeMap();
+		translations.put("a.a", "aa");
+		translations.put("a.b", "ab");
+		en = new Resource(ResourceType.JSON, null, new Locale("en"));
+		en.setTranslations(translations);
+		
+		translations = Maps.newTreeMap();
+		translations.put("a.a", "aa");
+		translations.put("b", "");
+		nl = new Resource(ResourceType.JSON, null, new Locale("nl"));
+		nl.setTranslations(translations);
+		
+		index = new MissingTranslationIndex();
+		index.addResource(en);
+		index.addResource(nl);
+	}
+	
+	@Test
+	public void addResourceTest() {
+		assertFalse(index.isIncomplete("a.a"));
+		assertTrue(index.isIncomplete("a.b"));
+		assertTrue(index.isIncomplete("b"));
+		assertTrue(index.isIncomplete("c"));
+		assertEquals(Lists.newArrayList("a.b", "b"), Lists.newArrayList(index.getIncompleteKeys()));
+		assertEquals(1, index.getMissingCount(en));
+		assertEquals(2, index.getMissingCount(nl));
+	}
+	
+	@Test
+	public void translationTableTest() {
+		MissingTranslationIndex index = new MissingTranslationIndex(TranslationTable.of(Lists.newArrayList(en, nl)));
+		
+		assertEquals(this.index.getIncompleteKeys(), index.getIncompleteKeys());
+		assertEquals(1, index.getMissingCount(en));
+		assertEquals(2, index.getMissingCount(nl));
+		
+		nl.storeTranslation("a.b", "ab");
+		assertFalse(index.isIncomplete("a.b"));
+		assertEquals(1, index.getMissingCount(nl));
+	}
+	
+	@Test
+	public void storeTranslationTest() {
+		nl.storeTranslation("a.b", "ab");
+		en.storeTranslation("b", "b");
+		
+		assertFalse(index.isIncomplete("a.b"));
+		assertTrue(index.isIncomplete("b"));
+		assertEquals(Lists.newArrayList("b"), Lists.newArrayList(index.getIncompleteKeys()));
+		assertEquals(0, index.getMissingCount(en));
+		assertEquals(1, index.getMissingCount(nl));
+		
+		en.storeTranslation("c", "c");
+		
+		assertTrue(index.isIncomplete("c"));
+		assertEquals(Lists.newArrayList("b", "c"), Lists.newArrayList(index.getIncompleteKeys()));
+		assertEquals(2, index.getMissingCount(nl));
+	}
+	
+	@Test
+	public void removeTranslationTest() {
+		en.removeTranslation("a");
+		
+		assertTrue(index.isIncomplete("a.a"));
+		assertEquals(Lists.newArrayList("a.a", "b"), Lists.newArrayList(index.getIncompleteKeys()));
+		assertEquals(2, index.getMissingCount(en));
+		assertEquals(1, index.getMissingCount(nl));
+		
+		nl.removeTranslation("a");
+		nl.removeTranslation("b");
+		
+		assertTrue(index.getIncompleteKeys().isEmpty());
+		assertEquals(0, index.getMissingCount(en));
+		assertEquals(0, index.getMissingCount(nl));
+	}
+	
+	@Test
+	public void renameTranslationTest() {
+		en.renameTranslation("a", "c");
+		nl.renameTranslation("a", "c");
+		
+		assertFalse(index.isIncomplete("c.a"));
+		assertTrue(index.isIncomplete("c.b"));
+		assertEquals(Lists.newArrayList("b", "c.b"), Lists.newArrayList(index.getIncompleteKeys()));
+		assertEquals(1, index.getMissingCount(en));
+		assertEquals(2, index.getMissingCount(nl));
+	}
+}
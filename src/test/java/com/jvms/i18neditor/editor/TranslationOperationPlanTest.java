@@ -0,0 +1,147 @@
+package com.jvms.i18neditor.editor;
+
+import static org.junit.Assert.*;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.SortedMap;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.jvms.i18neditor.Resource;
+import com.jvms.i18neditor.ResourceEvent;
+import com.jvms.i18neditor.ResourceType;
+import com.jvms.i18neditor.TranslationTable;
+
+/**
+ *
+ * @author Jacob
+ */
+public class TranslationOperationPlanTest {
+	private ExecutorService executor;
+	private Resource en;
+	private Resource nl;
+	private List<Resource> resources;
+	
+	@Before
+	public void setup() throws Exception {
+		executor = Executors.newFixedThreadPool(2);
+		
+		SortedMap<String,String> translations = Maps.newTreeMap();
+		translations.put("a.a", "aa");
+		translations.put("a.b", "ab");
+		translations.put("b", "b");
+		en = new Resource(ResourceType.JSON, null, new Locale("en"));
+		en.setTranslations(translations);
+		
+		translations = Maps.newTreeMap();
+		translations.put("a.a", "aa-nl");
+		translations.put("c", "c-nl");
+		nl = new Resource(ResourceType.JSON, null, new Locale("nl"));
+		nl.setTranslations(translations);
+		
+		resources = Lists.newArrayList(en, nl);
+	}
+	
+	@After
+	public void tearDown() {
+		executor.shutdown();
+	}
+	
+	@Test
+	public void applyTest() {
+		List<ResourceEvent> events = Lists.newArrayList();
+		resources.forEach(r -> r.addListener(events::add));
+		
+		TranslationOperationPlan plan = TranslationOperationPlan.create(resources, Lists.newArrayList(
+				TranslationOperation.rename("a", "x.a"),
+				TranslationOperation.remove(Lists.newArrayList("b", "c")),
+				TranslationOperation.copyMissing(en, nl)), executor);
+		
+		// The resources are not changed until the plan is applied
+		assertEquals("aa", en.getTranslation("a.a"));
+		assertTrue(events.isEmpty());
+		
+		plan.apply();
+		assertEquals(2, events.size());
+		
+		SortedMap<String,String> expected = Maps.newTreeMap();
+		expected.put("x.a.a", "aa");
+		expected.put("x.a.b", "ab");
+		assertEquals(expected, en.getTranslations());
+		
+		expected.put("x.a.a", "aa-nl");
+		assertEquals(expected, nl.getTranslations());
+	}
+	
+	@Test
+	public void applyUnchangedTest() {
+		List<ResourceEvent> events = Lists.newArrayList();
+		resources.forEach(r -> r.addListener(events::add));
+		
+		TranslationOperationPlan.create(resources, Lists.newArrayList(
+				TranslationOperation.rename("a", "x"),
+				TranslationOperation.rename("x", "a"),
+				TranslationOperation.remove(Lists.newArrayList("d"))), executor).apply();
+		
+		assertTrue(events.isEmpty());
+		assertFalse(en.isDirty());
+		assertFalse(nl.isDirty());
+	}
+	
+	@Test(expected = CompletionException.class)
+	public void applyErrorTest() {
+		TranslationOperation failing = new TranslationOperation() {
+			@Override
+			void apply(Resource resource, Function<Resource,Resource> copies) {
+				resource.storeTranslation("a.c", "ac");
+				throw new IllegalStateException();
+			}
+		};
+		try {
+			TranslationOperationPlan.create(resources, Lists.newArrayList(failing), executor).apply();
+		} finally {
+			assertNull(en.getTranslation("a.c"));
+			assertNull(nl.getTranslation("a.c"));
+		}
+	}
+	
+	@Test
+	public void applyLargeTest() {
+		List<Resource> resources = Lists.newArrayList();
+		for (int i = 0; i < 3; i++) {
+			SortedMap<String,String> translations = Maps.newTreeMap();
+			for (int j = 0; j < 20000; j++) {
+				translations.put("module" + (j % 10) + ".key" + j, "value" + i + "-" + j);
+			}
+			Resource resource = new Resource(ResourceType.JSON, null, new Locale("l" + i));
+			resource.setTranslations(translations);
+			resources.add(resource);
+		}
+		MissingTranslationIndex index = new MissingTranslationIndex(TranslationTable.of(resources));
+		
+		List<TranslationOperation> operations = Lists.newArrayList();
+		for (int i = 0; i < 10; i++) {
+			operations.add(TranslationOperation.rename("module" + i, "app.module" + i));
+		}
+		TranslationOperationPlan.create(resources, operations, executor).apply();
+		
+		resources.forEach(resource -> {
+			SortedMap<String,String> translations = resource.getTranslations();
+			assertEquals(20000, translations.size());
+			assertEquals(translations, translations.subMap("app.", "app/"));
+		});
+		assertEquals("value2-42", resources.get(2).getTranslation("app.module2.key42"));
+		assertTrue(index.getIncompleteKeys().isEmpty());
+		assertFalse(index.isIncomplete("app.module2.key42"));
+		assertTrue(index.isIncomplete("module2.key42"));
+	}
+}
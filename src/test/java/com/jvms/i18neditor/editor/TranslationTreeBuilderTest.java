@@ -0,0 +1,62 @@
+package com.jvms.i18neditor.editor;
+
+import static org.junit.Assert.*;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+
+import com.google.common.collect.Lists;
+
+/**
+ * 
+ * @author Jacob
+ */
+public class TranslationTreeBuilderTest {
+	
+	@Test
+	public void buildTest() {
+		TranslationTreeNode root = new TranslationTreeNode("root");
+		TranslationTreeBuilder.build(root, Lists.newArrayList("a", "a-b", "a.b", "a.c.d", "a.c.e", "b"), 0);
+		
+		assertEquals(Lists.newArrayList("a", "a-b", "b"), names(root));
+		assertEquals(Lists.newArrayList("b", "c"), names(root.getChild("a")));
+		assertEquals(Lists.newArrayList("d", "e"), names(root.getChild("a").getChild("c")));
+		assertTrue(root.getChild("a-b").isLeaf());
+	}
+	
+	@Test
+	public void buildWithOffsetTest() {
+		TranslationTreeNode node = new TranslationTreeNode("a");
+		TranslationTreeBuilder.build(node, Lists.newArrayList("a.b.c", "a.b.d", "a.e"), 2);
+		
+		assertEquals(Lists.newArrayList("b", "e"), names(node));
+		assertEquals("b.d", node.getChild("b").getChild("d").getKey());
+	}
+	
+	@Test
+	public void buildManyKeysTest() {
+		List<String> keys = Lists.newArrayList();
+		for (int i = 10; i < 30; i++) {
+			for (int j = 10; j < 30; j++) {
+				for (int k = 10; k < 30; k++) {
+					keys.add("group" + i + ".section" + j + ".key" + k);
+				}
+			}
+		}
+		TranslationTreeNode root = new TranslationTreeNode("root");
+		TranslationTreeBuilder.build(root, keys, 0);
+		
+		assertEquals(20, root.getChildCount());
+		assertEquals(8000, root.getLeafCount());
+		TranslationTreeNode section = root.getChild("group29").getChild("section10");
+		assertEquals(20, section.getChildCount());
+		assertEquals("group29.section10.key29", section.getChild("key29").getKey());
+		assertTrue(section.getChild("key29").isLeaf());
+	}
+	
+	private List<String> names(TranslationTreeNode node) {
+		return node.getChildren().stream().map(TranslationTreeNode::getName).collect(Collectors.toList());
+	}
+}
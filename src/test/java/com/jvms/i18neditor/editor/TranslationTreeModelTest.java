@@ -0,0 +1,210 @@
+package com.jvms.i18neditor.editor;
+
+import static org.junit.Assert.*;
+
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.Lists;
+
+/**
+ * 
+ * @author Jacob
+ */
+public class TranslationTreeModelTest {
+	private TranslationTreeModel model;
+	
+	@Before
+	public void setup() throws Exception {
+		model = new TranslationTreeModel(Lists.newArrayList("a.a", "a.b", "b.a.a", "b.a.b"));
+	}
+	
+	@Test
+	public void getNodeByKeyTest() {
+		assertSame(model.getRoot(), model.getNodeByKey(""));
+		assertEquals("a", model.getNodeByKey("a").getKey());
+		assertEquals("b.a.b", model.getNodeByKey("b.a.b").getKey());
+		assertNull(model.getNodeByKey("b.b"));
+	}
+	
+	@Test
+	public void insertNodeIntoTest() {
+		TranslationTreeNode parent = model.getNodeByKey("b");
+		model.insertNodeInto(new TranslationTreeNode("c", Lists.newArrayList("d")), parent);
+		
+		assertEquals("b.c", model.getNodeByKey("b.c").getKey());
+		assertEquals("b.c.d", model.getNodeByKey("b.c.d").getKey());
+		assertSame(parent, model.getNodeByKey("b.c.d").getParent().getParent());
+	}
+	
+	@Test
+	public void removeNodeFromParentTest() {
+		model.removeNodeFromParent(model.getNodeByKey("b.a"));
+		
+		assertNull(model.getNodeByKey("b.a"));
+		assertNull(model.getNodeByKey("b.a.a"));
+		assertNotNull(model.getNodeByKey("b"));
+	}
+	
+	@Test
+	public void lazyLoadingTest() {
+		TranslationTreeNode root = (TranslationTreeNode) model.getRoot();
+		TranslationTreeNode node = root.getChild("b");
+		
+		assertTrue(node.isLazy());
+		assertFalse(node.isLeaf());
+		assertEquals(0, node.getChildCount());
+		
+		model.loadChildren(node);
+		assertFalse(node.isLazy());
+		assertEquals(1, node.getChildCount());
+		assertTrue(node.getChild("a").isLazy());
+		
+		model.unloadChildren(node);
+		assertTrue(node.isLazy());
+		assertEquals(0, node.getChildCount());
+		assertEquals("b.a.b", model.getNodeByKey("b.a.b").getKey());
+	}
+	
+	@Test
+	public void loadDescendantsTest() {
+		TranslationTreeNode root = (TranslationTreeNode) model.getRoot();
+		model.setErrorKeys(Lists.newArrayList("b.a.b"));
+		model.loadDescendants(root);
+		
+		assertFalse(model.getNodeByKey("b").isLazy());
+		assertFalse(model.getNodeByKey("b.a").isLazy());
+		assertEquals(2, model.getNodeByKey("b.a").getChildCount());
+		assertTrue(model.getNodeByKey("b.a.b").hasError());
+		assertEquals(1, root.getErrorCount());
+	}
+	
+	@Test
+	public void unloadedKeysTest() {
+		List<String> loadedKeys = Lists.newArrayList();
+		model = new TranslationTreeModel(Lists.newArrayList("a", "b"), key -> {
+			loadedKeys.add(key);
+			return key.equals("a") ? Lists.newArrayList("a.a", "a.b.a") : null;
+		});
+		TranslationTreeNode root = (TranslationTreeNode) model.getRoot();
+		
+		assertEquals(2, root.getChildCount());
+		assertTrue(root.getChild("a").isLazy());
+		assertTrue(model.isUnloaded("a"));
+		
+		model.loadDescendants(root);
+		assertTrue(root.getChild("a").isLazy());
+		assertTrue(loadedKeys.isEmpty());
+		
+		assertEquals("a.b.a", model.getNodeByKey("a.b.a").getKey());
+		assertFalse(model.isUnloaded("a"));
+		assertEquals(2, root.getChild("a").getChildCount());
+		
+		model.loadChildren(root.getChild("b"));
+		assertTrue(root.getChild("b").isLazy());
+		assertTrue(model.isUnloaded("b"));
+		assertEquals(Lists.newArrayList("a", "b"), loadedKeys);
+		
+		model.setErrorKeys(Lists.newArrayList("a.a"));
+		assertEquals(1, root.getErrorCount());
+		
+		model.unloadKeys("a");
+		assertTrue(model.isUnloaded("a"));
+		assertTrue(root.getChild("a").isLazy());
+		assertEquals(0, root.getChild("a").getChildCount());
+		assertEquals(0, root.getErrorCount());
+		
+		assertNotNull(model.getNodeByKey("a.a"));
+		assertEquals(Lists.newArrayList("a", "b", "a"), loadedKeys);
+	}
+	
+	@Test
+	public void addNodeByKeyTest() {
+		TranslationTreeNode node = model.addNodeByKey("b.c.d");
+		
+		assertEquals("b.c.d", node.getKey());
+		assertTrue(node.isLeaf());
+		assertSame(model.getNodeByKey("b"), node.getParent().getParent());
+		assertSame(node, model.addNodeByKey("b.c.d"));
+	}
+	
+	@Test
+	public void removeNodeByKeyTest() {
+		model.removeNodeByKey("b.a.a");
+		model.removeNodeByKey("b.a.b");
+		
+		assertNull(model.getNodeByKey("b.a.a"));
+		assertNull(model.getNodeByKey("b.a.b"));
+		assertTrue(model.getNodeByKey("b.a").isLeaf());
+	}
+	
+	@Test
+	public void moveNodeByKeyTest() {
+		model.moveNodeByKey("b.a", "a.c", false);
+		
+		assertNull(model.getNodeByKey("b.a"));
+		assertTrue(model.getNodeByKey("b").isLeaf());
+		assertEquals("a.c.a", model.getNodeByKey("a.c.a").getKey());
+		assertEquals("a.c.b", model.getNodeByKey("a.c.b").getKey());
+		
+		model.moveNodeByKey("a.c", "a", true);
+		
+		assertNotNull(model.getNodeByKey("a.c.a"));
+		assertNotNull(model.getNodeByKey("a.a"));
+		assertNotNull(model.getNodeByKey("a.b"));
+		assertEquals(3, model.getNodeByKey("a").getChildCount());
+		
+		model.moveNodeByKey("b", "a.a", true);
+		
+		assertTrue(model.getNodeByKey("a.a").isLeaf());
+		assertNotNull(model.getNodeByKey("b"));
+	}
+	
+	@Test
+	public void lazyErrorCountTest() {
+		TranslationTreeNode root = (TranslationTreeNode) model.getRoot();
+		model.setErrorKeys(Lists.newArrayList("a.a", "b.a.a", "b.a.b"));
+		
+		assertEquals(3, root.getErrorCount());
+		assertEquals(2, root.getChild("b").getErrorCount());
+		
+		model.setError("b.a.a", false);
+		assertEquals(1, root.getChild("b").getErrorCount());
+		
+		model.loadChildren(root.getChild("b"));
+		assertEquals(1, model.getNodeByKey("b.a").getErrorCount());
+		assertEquals(2, root.getErrorCount());
+		
+		model.moveNodeByKey("b.a", "c", false);
+		assertEquals(0, root.getChild("b").getErrorCount());
+		assertEquals(1, root.getChild("c").getErrorCount());
+		assertEquals(2, root.getErrorCount());
+	}
+	
+	@Test
+	public void errorCountTest() {
+		TranslationTreeNode root = (TranslationTreeNode) model.getRoot();
+		model.getNodeByKey("a.a").setError(true);
+		model.getNodeByKey("b.a.a").setError(true);
+		model.getNodeByKey("b.a.b").setError(true);
+		
+		assertEquals(3, root.getErrorCount());
+		assertEquals(1, model.getNodeByKey("a").getErrorCount());
+		assertEquals(2, model.getNodeByKey("b").getErrorCount());
+		
+		model.getNodeByKey("b.a.a").setError(false);
+		model.removeNodeFromParent(model.getNodeByKey("a.a"));
+		
+		assertEquals(1, root.getErrorCount());
+		assertEquals(0, model.getNodeByKey("a").getErrorCount());
+		assertEquals(1, model.getNodeByKey("b").getErrorCount());
+		
+		TranslationTreeNode leaf = model.getNodeByKey("b.a.b");
+		model.insertNodeInto(new TranslationTreeNode("c", Lists.newArrayList()), leaf);
+		
+		assertEquals(0, root.getErrorCount());
+		assertEquals(0, leaf.getErrorCount());
+	}
+}
@@ -0,0 +1,41 @@
+package com.jvms.i18neditor.editor;
+
+import static org.junit.Assert.*;
+
+import javax.swing.SwingUtilities;
+import javax.swing.tree.TreePath;
+
+import org.junit.Test;
+
+import com.google.common.collect.Lists;
+
+/**
+ * 
+ * @author Jacob
+ */
+public class TranslationTreeTest {
+	
+	@Test
+	public void collapseTest() throws Exception {
+		TranslationTree tree = new TranslationTree();
+		SwingUtilities.invokeAndWait(() -> {
+			tree.setModel(new TranslationTreeModel(Lists.newArrayList("a.a.a", "a.a.b", "a.b.a", "b.a")));
+			tree.expandPath(path(tree, "a.a"));
+			assertTrue(tree.isExpanded(path(tree, "a")));
+			tree.collapsePath(path(tree, "a"));
+		});
+		// The collapsed node is unloaded afterwards on the event dispatch thread
+		SwingUtilities.invokeAndWait(() -> {
+			TranslationTreeNode node = tree.getNodeByKey("a");
+			assertTrue(node.isLazy());
+			
+			tree.expandPath(new TreePath(node.getPath()));
+			assertTrue(tree.isExpanded(path(tree, "a.a")));
+			assertFalse(tree.isExpanded(path(tree, "a.b")));
+		});
+	}
+	
+	private static TreePath path(TranslationTree tree, String key) {
+		return new TreePath(tree.getNodeByKey(key).getPath());
+	}
+}
@@ -0,0 +1,57 @@
+package com.jvms.i18neditor.util;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+
+/**
+ * 
+ * @author Jacob
+ */
+public class FileWatcherTest {
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+	
+	@Test(timeout = 20000)
+	public void watchTest() throws Exception {
+		Path a = write("a.json", "{}");
+		Path b = write("b.json", "{}");
+		BlockingQueue<Set<Path>> events = new LinkedBlockingQueue<>();
+		
+		FileWatcher watcher = new FileWatcher(Lists.newArrayList(a, b), 200, events::add);
+		try {
+			write("a.json", "{\"a\":\"a\"}");
+			write("b.json", "{\"b\":\"b\"}");
+			write("c.json", "{}");
+			write("a.json", "{\"a\":\"b\"}");
+			
+			// Bursts of changes are debounced, only changes of the watched files are reported
+			Set<Path> changed = Sets.newHashSet(events.take());
+			while (changed.size() < 2) {
+				changed.addAll(events.take());
+			}
+			assertEquals(Sets.newHashSet(a, b), changed);
+			assertNull(events.poll(500, TimeUnit.MILLISECONDS));
+		} finally {
+			watcher.close();
+		}
+	}
+	
+	private Path write(String fileName, String content) throws IOException {
+		return Files.write(folder.getRoot().toPath().resolve(fileName), content.getBytes(StandardCharsets.UTF_8));
+	}
+}
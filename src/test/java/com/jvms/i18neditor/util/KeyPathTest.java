@@ -0,0 +1,78 @@
+package com.jvms.i18neditor.util;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+/**
+ * 
+ * @author Jacob
+ */
+public class KeyPathTest {
+	
+	@Test
+	public void partsTest() {
+		KeyPath path = KeyPath.of("a.bb.c");
+		
+		assertEquals(3, path.size());
+		assertEquals("a", path.getPart(0));
+		assertEquals("bb", path.getPart(1));
+		assertEquals("c", path.getName());
+		assertTrue(path.partEquals(1, "bb"));
+		assertFalse(path.partEquals(1, "b"));
+		assertEquals(0, KeyPath.of("").size());
+		assertTrue(KeyPath.of("").isRoot());
+		assertEquals("", KeyPath.ROOT.getName());
+	}
+	
+	@Test
+	public void subPathTest() {
+		KeyPath path = KeyPath.of("a.b.c");
+		
+		assertEquals("a.b", path.getParent().toString());
+		assertEquals("a", path.getParent().getParent().toString());
+		assertSame(KeyPath.ROOT, path.getParent().getParent().getParent());
+		assertNull(KeyPath.ROOT.getParent());
+		assertEquals("b.c", path.subPath(1).toString());
+		assertEquals("b", path.subPath(1, 2).toString());
+		assertEquals("c", path.subPath(1).getName());
+		assertEquals("a.b.c.d", path.resolve("d").toString());
+		assertEquals("d", KeyPath.ROOT.resolve("d").toString());
+	}
+	
+	@Test
+	public void childTest() {
+		KeyPath path = KeyPath.of("a.b.c");
+		
+		assertTrue(path.isChildOf(KeyPath.of("a.b")));
+		assertTrue(path.isChildOf(KeyPath.ROOT));
+		assertFalse(path.isChildOf(path));
+		assertFalse(path.isChildOf(KeyPath.of("a.b.c.d")));
+		assertFalse(KeyPath.of("a.bc").isChildOf(KeyPath.of("a.b")));
+		assertFalse(KeyPath.of("a.b-c.d").isChildOf(KeyPath.of("a.b")));
+		assertTrue(path.startsWith(path));
+		assertTrue(path.subPath(1).startsWith(KeyPath.of("b")));
+		assertEquals("c", path.relativize(KeyPath.of("a.b")).toString());
+		assertSame(KeyPath.ROOT, path.relativize(KeyPath.of("b")));
+	}
+	
+	@Test
+	public void commonPrefixSizeTest() {
+		assertEquals(2, KeyPath.of("a.b.c").commonPrefixSize(KeyPath.of("a.b.d")));
+		assertEquals(1, KeyPath.of("a.b.c").commonPrefixSize(KeyPath.of("a.bb")));
+		assertEquals(0, KeyPath.of("a.b").commonPrefixSize(KeyPath.ROOT));
+		assertEquals(2, KeyPath.of("x.a.b").subPath(1).commonPrefixSize(KeyPath.of("a.b.c")));
+	}
+	
+	@Test
+	public void equalsTest() {
+		KeyPath path = KeyPath.of("x.a.b");
+		
+		assertEquals(KeyPath.of("a.b"), path.subPath(1));
+		assertEquals("a.b".hashCode(), path.subPath(1).hashCode());
+		assertNotEquals(KeyPath.of("a.c"), path.subPath(1));
+		assertTrue(KeyPath.of("a.b").compareTo(KeyPath.of("a-b")) > 0);
+		assertTrue(KeyPath.of("a.b").compareTo(path.subPath(1, 2)) > 0);
+		assertEquals(0, KeyPath.of("a.b").compareTo(path.subPath(1)));
+	}
+}
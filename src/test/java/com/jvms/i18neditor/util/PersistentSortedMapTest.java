@@ -0,0 +1,84 @@
+package com.jvms.i18neditor.util;
+
+import static org.junit.Assert.*;
+
+import java.util.Random;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import org.junit.Test;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+/**
+ * 
+ * @author Jacob
+ */
+public class PersistentSortedMapTest {
+	
+	@Test
+	public void plusMinusTest() {
+		PersistentSortedMap<String,String> map = PersistentSortedMap.empty();
+		PersistentSortedMap<String,String> a = map.plus("b", "b").plus("a", "a").plus("c", "c");
+		PersistentSortedMap<String,String> b = a.minus("b").plus("a", "aa");
+		
+		assertTrue(map.isEmpty());
+		assertEquals(Lists.newArrayList("a", "b", "c"), Lists.newArrayList(a.keySet()));
+		assertEquals("a", a.get("a"));
+		assertEquals(Lists.newArrayList("a", "c"), Lists.newArrayList(b.keySet()));
+		assertEquals("aa", b.get("a"));
+		assertSame(b, b.minus("d"));
+	}
+	
+	@Test
+	public void copyOfTest() {
+		SortedMap<String,String> source = Maps.newTreeMap();
+		source.put("a.a", "aa");
+		source.put("a.b", "ab");
+		source.put("b", "b");
+		
+		PersistentSortedMap<String,String> map = PersistentSortedMap.copyOf(source);
+		assertEquals(source, map);
+		assertEquals("a.a", map.firstKey());
+		assertEquals("b", map.lastKey());
+	}
+	
+	@Test
+	public void subMapTest() {
+		PersistentSortedMap<String,String> map = PersistentSortedMap.empty();
+		for (String key : Lists.newArrayList("a", "a-b", "a.a", "a.b", "a.b.c", "ab", "b")) {
+			map = map.plus(key, key);
+		}
+		SortedMap<String,String> sub = map.subMap("a.", "a/");
+		assertEquals(3, sub.size());
+		assertEquals(Lists.newArrayList("a.a", "a.b", "a.b.c"), Lists.newArrayList(sub.keySet()));
+		assertEquals("a.a", sub.firstKey());
+		assertEquals("a.b.c", sub.lastKey());
+		assertNull(sub.get("ab"));
+		assertTrue(map.subMap("c.", "c/").isEmpty());
+		assertEquals(Lists.newArrayList("a", "a-b"), Lists.newArrayList(map.headMap("a.").keySet()));
+		assertEquals(Lists.newArrayList("ab", "b"), Lists.newArrayList(map.tailMap("a/").keySet()));
+	}
+	
+	@Test
+	public void randomOperationsTest() {
+		Random random = new Random(42);
+		TreeMap<String,String> expected = Maps.newTreeMap();
+		PersistentSortedMap<String,String> map = PersistentSortedMap.empty();
+		for (int i = 0; i < 5000; i++) {
+			String key = Integer.toString(random.nextInt(1000), 36);
+			if (random.nextInt(3) == 0) {
+				expected.remove(key);
+				map = map.minus(key);
+			} else {
+				expected.put(key, key + i);
+				map = map.plus(key, key + i);
+			}
+		}
+		assertEquals(expected.size(), map.size());
+		assertEquals(Lists.newArrayList(expected.entrySet()), Lists.newArrayList(map.entrySet()));
+		assertEquals(expected.subMap("a", "m"), map.subMap("a", "m"));
+		assertEquals(expected.subMap("a", "m").size(), map.subMap("a", "m").size());
+	}
+}
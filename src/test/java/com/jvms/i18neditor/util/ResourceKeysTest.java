@@ -93,6 +93,7 @@ public class ResourceKeysTest {
 		assertFalse(ResourceKeys.isChildKeyOf("a", "a"));
 		assertTrue(ResourceKeys.isChildKeyOf("a.b.c", "a"));
 		assertTrue(ResourceKeys.isChildKeyOf("a.b.c", "a.b"));
+		assertFalse(ResourceKeys.isChildKeyOf("a.bc", "a.b"));
 	}
 	
 	@Test
@@ -103,6 +104,8 @@ public class ResourceKeysTest {
 		assertEquals("d", ResourceKeys.childKey("a.b.c.d", "a.b.c"));
 		assertEquals("d.e.f", ResourceKeys.childKey("a.b.c.d.e.f", "a.b.c"));
 		assertEquals("", ResourceKeys.childKey("b.c.d", "a.b.c"));
+		assertEquals("", ResourceKeys.childKey("x.a.b", "a"));
+		assertEquals("b", ResourceKeys.childKey("a*.b", "a*"));
 	}
 	
 	@Test
@@ -119,6 +122,13 @@ public class ResourceKeysTest {
 		assertEquals(expected, ResourceKeys.extractChildKeys(keys, "b.c"));
 	}
 	
+	@Test
+	public void internTest() {
+		String key = ResourceKeys.intern(new String("a.b"));
+		assertSame(key, ResourceKeys.intern(new String("a.b")));
+		assertEquals("a.b", key);
+	}
+	
 	@Test
 	public void isValidTest() {
 		assertTrue(ResourceKeys.isValid("a"));
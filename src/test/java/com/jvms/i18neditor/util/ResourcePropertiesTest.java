@@ -0,0 +1,108 @@
+package com.jvms.i18neditor.util;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Properties;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import org.junit.Test;
+
+import com.google.common.collect.Maps;
+
+/**
+ * 
+ * @author Jacob
+ */
+public class ResourcePropertiesTest {
+	
+	@Test
+	public void readTest() throws IOException {
+		String content = "# comment\n"
+				+ "  ! comment \\\n"
+				+ "a=value a\n"
+				+ "b : value b\r\n"
+				+ "c value c\r"
+				+ "d\t=\t  value d\n"
+				+ "\n"
+				+ "e = multi \\\n"
+				+ "    line \\\r\n"
+				+ "\tvalue\n"
+				+ "f\\ g\\=h = \\ leading\\tand\\nescaped \\u00e9\\\\\n"
+				+ "i\n"
+				+ "j==value j\n"
+				+ "k = \\\n"
+				+ "   value k\n"
+				+ "a=overridden \u00e9";
+		SortedMap<String,String> expected = Maps.newTreeMap();
+		expected.put("a", "overridden \u00e9");
+		expected.put("b", "value b");
+		expected.put("c", "value c");
+		expected.put("d", "value d");
+		expected.put("e", "multi line value");
+		expected.put("f g=h", " leading\tand\nescaped \u00e9\\");
+		expected.put("i", "");
+		expected.put("j", "=value j");
+		expected.put("k", "value k");
+		
+		assertEquals(expected, read(content));
+		assertEquals(expected, new TreeMap<>(Maps.fromProperties(load(content))));
+	}
+	
+	@Test
+	public void readContinuationTest() throws IOException {
+		// A line of only a continuation is empty, and an escape sequence may be split by a continuation
+		String content = "b\n"
+				+ "\\\r\n"
+				+ "\n"
+				+ "c=\\u00\\\n"
+				+ "   e\\\r\n"
+				+ "9\\\n";
+		SortedMap<String,String> expected = Maps.newTreeMap();
+		expected.put("b", "");
+		expected.put("c", "\u00e9");
+		
+		assertEquals(expected, read(content));
+		assertEquals(expected, new TreeMap<>(Maps.fromProperties(load(content))));
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void readMalformedTest() throws IOException {
+		read("a=\\u00g0");
+	}
+	
+	@Test
+	public void writeTest() throws IOException {
+		SortedMap<String,String> translations = Maps.newTreeMap();
+		translations.put("b", "value b");
+		translations.put("a.b", " leading space");
+		translations.put("a c", "key: value = \"\u00e9\u20ac\"\n\t\\ # !");
+		translations.put("d", "");
+		
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		ResourceProperties.write(translations, out);
+		String content = new String(out.toByteArray(), StandardCharsets.ISO_8859_1);
+		String separator = System.lineSeparator();
+		assertEquals("a\\ c=key\\: value \\= \"\\u00E9\\u20AC\"\\n\\t\\\\ \\# \\!" + separator
+				+ "a.b=\\ leading space" + separator
+				+ "b=value b" + separator
+				+ "d=" + separator, content);
+		
+		assertEquals(translations, read(content));
+		assertEquals(translations, new TreeMap<>(Maps.fromProperties(load(content))));
+	}
+	
+	private static SortedMap<String,String> read(String content) throws IOException {
+		return ResourceProperties.read(new ByteArrayInputStream(content.getBytes(StandardCharsets.ISO_8859_1)));
+	}
+	
+	private static Properties load(String content) throws IOException {
+		Properties properties = new Properties();
+		properties.load(new ByteArrayInputStream(content.getBytes(StandardCharsets.ISO_8859_1)));
+		return properties;
+	}
+}
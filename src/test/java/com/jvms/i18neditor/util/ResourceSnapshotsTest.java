@@ -0,0 +1,119 @@
+package com.jvms.i18neditor.util;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.google.common.collect.Lists;
+import com.google.common.primitives.Bytes;
+import com.jvms.i18neditor.Resource;
+import com.jvms.i18neditor.ResourceType;
+
+/**
+ * 
+ * @author Jacob
+ */
+public class ResourceSnapshotsTest {
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+	
+	@Test
+	public void restoreTest() throws IOException {
+		Path root = folder.getRoot().toPath();
+		Resource en = createResource("translations_en.json", "{\"a\":{\"a\":\"value\",\"\u00e9\":\"\u00e9\"},\"b\":\"\"}");
+		Resource nl = createResource("translations_nl.json", "{\"a\":{\"b\":\"waarde\"}}");
+		Resources.load(en);
+		Resources.load(nl);
+		ResourceSnapshots.write(root.resolve("snapshot"), root, Lists.newArrayList(en, nl));
+		
+		List<Resource> resources = Lists.newArrayList(
+				new Resource(ResourceType.JSON, en.getPath(), Locale.ENGLISH),
+				new Resource(ResourceType.JSON, nl.getPath(), new Locale("nl")));
+		Set<Resource> restored = ResourceSnapshots.restore(root.resolve("snapshot"), root, resources);
+		
+		assertEquals(2, restored.size());
+		assertEquals(en.getTranslations(), resources.get(0).getTranslations());
+		assertEquals(nl.getTranslations(), resources.get(1).getTranslations());
+		assertEquals(en.getFileStamp(), resources.get(0).getFileStamp());
+		assertFalse(resources.get(0).isDirty());
+	}
+	
+	@Test
+	public void restoreModifiedTest() throws IOException {
+		Path root = folder.getRoot().toPath();
+		Resource en = createResource("translations_en.json", "{\"a\":\"value\"}");
+		Resource nl = createResource("translations_nl.json", "{\"a\":\"waarde\"}");
+		Resources.load(en);
+		Resources.load(nl);
+		ResourceSnapshots.write(root.resolve("snapshot"), root, Lists.newArrayList(en, nl));
+		
+		// Changed content with the same modified time and a touched file with unchanged content
+		Files.write(en.getPath(), "{\"a\":\"changed\"}".getBytes(StandardCharsets.UTF_8));
+		Files.setLastModifiedTime(en.getPath(), FileTime.fromMillis(en.getFileStamp().getLastModified()));
+		Files.setLastModifiedTime(nl.getPath(), FileTime.fromMillis(nl.getFileStamp().getLastModified() + 5000));
+		
+		List<Resource> resources = Lists.newArrayList(
+				new Resource(ResourceType.JSON, en.getPath(), Locale.ENGLISH),
+				new Resource(ResourceType.JSON, nl.getPath(), new Locale("nl")));
+		Set<Resource> restored = ResourceSnapshots.restore(root.resolve("snapshot"), root, resources);
+		
+		assertEquals(1, restored.size());
+		assertTrue(restored.contains(resources.get(1)));
+		assertEquals("waarde", resources.get(1).getTranslation("a"));
+		assertEquals(nl.getFileStamp().getLastModified() + 5000, resources.get(1).getFileStamp().getLastModified());
+		assertTrue(resources.get(0).getTranslations().isEmpty());
+	}
+	
+	@Test
+	public void restoreMissingTest() throws IOException {
+		Path root = folder.getRoot().toPath();
+		Resource en = createResource("translations_en.json", "{\"a\":\"value\"}");
+		
+		assertTrue(ResourceSnapshots.restore(root.resolve("snapshot"), root, Lists.newArrayList(en)).isEmpty());
+	}
+	
+	@Test
+	public void restoreCorruptTest() throws IOException {
+		Path root = folder.getRoot().toPath();
+		Resource en = createResource("translations_en.json", "{\"a\":\"value\"}");
+		Resources.load(en);
+		ResourceSnapshots.write(root.resolve("snapshot"), root, Lists.newArrayList(en));
+		byte[] snapshot = Files.readAllBytes(root.resolve("snapshot"));
+		byte[] header = Arrays.copyOf(snapshot, 8);
+		
+		// A negative and a huge key count, and a snapshot which has been cut off within the last resource
+		List<byte[]> corrupt = Lists.newArrayList(
+				Bytes.concat(header, new byte[] { (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x0F }),
+				Bytes.concat(header, new byte[] { (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x07 }),
+				Arrays.copyOf(snapshot, snapshot.length - 2));
+		for (byte[] content : corrupt) {
+			Files.write(root.resolve("snapshot"), content);
+			Resource resource = new Resource(ResourceType.JSON, en.getPath(), Locale.ENGLISH);
+			try {
+				ResourceSnapshots.restore(root.resolve("snapshot"), root, Lists.newArrayList(resource));
+				fail();
+			} catch (IOException e) {
+				assertTrue(resource.getTranslations().isEmpty());
+				assertNull(resource.getFileStamp());
+			}
+		}
+	}
+	
+	private Resource createResource(String fileName, String content) throws IOException {
+		Path path = folder.getRoot().toPath().resolve(fileName);
+		Files.write(path, content.getBytes(StandardCharsets.UTF_8));
+		return new Resource(ResourceType.JSON, path, Locale.ENGLISH);
+	}
+}
@@ -0,0 +1,399 @@
+package com.jvms.i18neditor.util;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.SortedMap;
+import java.util.stream.Collectors;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import com.jvms.i18neditor.Resource;
+import com.jvms.i18neditor.ResourceType;
+
+/**
+ * 
+ * @author Jacob
+ */
+public class ResourcesTest {
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+	
+	@Test
+	public void getTest() throws IOException {
+		Path root = folder.getRoot().toPath();
+		createFile(root, "translations.properties");
+		createFile(root, "translations_en_US.properties");
+		createFile(root, "translations_zh-Hant-TW.properties");
+		createFile(root, "translations_invalid.properties");
+		createFile(root, "other_en.properties");
+		createFile(root, "sr_Latn/translations.json");
+		createFile(root, "invalid/translations.json");
+		createFile(root, "module/translations_nl.properties");
+		createFile(root, "module/de/translations.json");
+		
+		Map<Path,Locale> resources = getResources(root, Optional.empty(), 1);
+		assertEquals(4, resources.size());
+		assertTrue(resources.containsKey(root.resolve("translations.properties")));
+		assertNull(resources.get(root.resolve("translations.properties")));
+		assertEquals(Locale.US, resources.get(root.resolve("translations_en_US.properties")));
+		assertEquals(Locale.forLanguageTag("zh-Hant-TW"), resources.get(root.resolve("translations_zh-Hant-TW.properties")));
+		assertEquals(Locale.forLanguageTag("sr-Latn"), resources.get(root.resolve("sr_Latn/translations.json")));
+		
+		// Resources of a deeper directory are left out when the root directory has resources as well
+		resources = getResources(root, Optional.of(ResourceType.JSON), 2);
+		assertEquals(1, resources.size());
+		assertTrue(resources.containsKey(root.resolve("sr_Latn/translations.json")));
+		
+		resources = getResources(root.resolve("module"), Optional.of(ResourceType.Properties), 2);
+		assertEquals(1, resources.size());
+		assertEquals(new Locale("nl"), resources.get(root.resolve("module/translations_nl.properties")));
+	}
+	
+	@Test
+	public void getDepthTest() throws IOException {
+		Path root = folder.getRoot().toPath();
+		createFile(root, "b/en/translations.json");
+		createFile(root, "b/nl/translations.json");
+		createFile(root, "a/en/translations.json");
+		createFile(root, "a/en_US/translations.json");
+		createFile(root, "a/en-US/translations.json");
+		createFile(root, "a/module/de/translations.json");
+		
+		assertTrue(getResources(root, Optional.empty(), 1).isEmpty());
+		
+		// Only the first directory is taken, with a single resource per locale
+		List<Resource> resources = Resources.get(root, "translations", Optional.empty(), 3);
+		assertEquals(Lists.newArrayList(root.resolve("a/en-US/translations.json"), 
+				root.resolve("a/en/translations.json")), resources.stream().map(Resource::getPath).collect(Collectors.toList()));
+		assertEquals(Locale.US, resources.get(0).getLocale());
+		assertEquals(root.resolve("a"), Resources.getBundleDir(resources.get(0)));
+	}
+	
+	@Test
+	public void getBundlesTest() throws IOException {
+		Path root = folder.getRoot().toPath();
+		createFile(root, "en/common.json");
+		createFile(root, "nl_BE/common.json");
+		createFile(root, "en/errors.json");
+		createFile(root, "en/invalid name.json");
+		createFile(root, "other/common.json");
+		createFile(root, "common.properties");
+		createFile(root, "app.properties");
+		createFile(root, "app_de.properties");
+		createFile(root, "my_app.properties");
+		createFile(root, "my_app_en.properties");
+		createFile(root, "single_fr.properties");
+		
+		SortedMap<String,List<Resource>> bundles = Resources.getBundles(root, Optional.empty(), 1);
+		assertEquals(Lists.newArrayList("app", "common", "errors", "my_app", "single_fr"), 
+				Lists.newArrayList(bundles.keySet()));
+		assertEquals(2, bundles.get("common").size());
+		assertTrue(bundles.get("common").stream().allMatch(r -> r.getType() == ResourceType.JSON));
+		assertEquals(Sets.newHashSet(Locale.ENGLISH, new Locale("nl", "BE")), 
+				bundles.get("common").stream().map(Resource::getLocale).collect(Collectors.toSet()));
+		assertEquals(Sets.newHashSet(null, Locale.GERMAN), 
+				bundles.get("app").stream().map(Resource::getLocale).collect(Collectors.toSet()));
+		assertEquals(Sets.newHashSet(null, Locale.ENGLISH), 
+				bundles.get("my_app").stream().map(Resource::getLocale).collect(Collectors.toSet()));
+		assertNull(bundles.get("single_fr").get(0).getLocale());
+		
+		bundles = Resources.getBundles(root, Optional.of(ResourceType.Properties), 1);
+		assertEquals(1, bundles.get("common").size());
+		assertFalse(bundles.containsKey("errors"));
+	}
+	
+	@Test
+	public void createTest() throws IOException {
+		Path root = folder.getRoot().toPath();
+		Resource resource = Resources.create(root, ResourceType.JSON, 
+				Optional.of(Resources.toLocale("zh-Hant-TW")), "translations");
+		assertEquals(root.resolve("zh_Hant_TW/translations.json"), resource.getPath());
+		
+		resource = Resources.create(root, ResourceType.Properties, Optional.of(Locale.US), "translations");
+		assertEquals(root.resolve("translations_en_US.properties"), resource.getPath());
+		assertEquals(2, Resources.get(root, "translations", Optional.empty()).size());
+	}
+	
+	@Test
+	public void loadJsonTest() throws IOException {
+		Resource resource = createResource(ResourceType.JSON, 
+				"{\"a\":{\"a\":\"value\",\"b\":{\"c\":\"line\\\\nbreak\"}},\"b\":5,\"c\":true,\"d\":null}");
+		Resources.load(resource);
+		
+		assertEquals(5, resource.getTranslations().size());
+		assertEquals("value", resource.getTranslation("a.a"));
+		assertEquals("line\nbreak", resource.getTranslation("a.b.c"));
+		assertEquals("5", resource.getTranslation("b"));
+		assertEquals("true", resource.getTranslation("c"));
+		assertEquals("", resource.getTranslation("d"));
+	}
+	
+	@Test
+	public void loadEs6Test() throws IOException {
+		Resource resource = createResource(ResourceType.ES6, 
+				"export default {\n  \"a\": {\n    \"b\": \"value\"\n  }\n};\n");
+		Resources.load(resource);
+		
+		assertEquals(1, resource.getTranslations().size());
+		assertEquals("value", resource.getTranslation("a.b"));
+	}
+	
+	@Test
+	public void loadEs6ObjectLiteralTest() throws IOException {
+		Resource resource = createResource(ResourceType.ES6, "/* Translations {} */\n"
+				+ "module.exports = {\n"
+				+ "  // Comment\n"
+				+ "  a: 'export default {};',\n"
+				+ "  'b': {\n"
+				+ "    c_1: `it's`, /* Comment */\n"
+				+ "    \"d\": 'line \\\n"
+				+ "continued \\u{e9}\\x21',\n"
+				+ "  },\n"
+				+ "  e: 1,\n"
+				+ "};\n");
+		Resources.load(resource);
+		
+		assertEquals(4, resource.getTranslations().size());
+		assertEquals("export default {};", resource.getTranslation("a"));
+		assertEquals("it's", resource.getTranslation("b.c_1"));
+		assertEquals("line continued \u00e9!", resource.getTranslation("b.d"));
+		assertEquals("1", resource.getTranslation("e"));
+		assertNotNull(resource.getLayout());
+	}
+	
+	@Test
+	public void loadSharedKeysTest() throws IOException {
+		Resource en = createResource(ResourceType.JSON, "{\"a\":{\"b\":\"value\"}}");
+		Resources.load(en);
+		Resource nl = createResource(ResourceType.JSON, "{\"a\":{\"b\":\"waarde\"}}");
+		Resources.load(nl);
+		
+		// Both resources hold the same instance of each key
+		assertSame(en.getTranslations().firstKey(), nl.getTranslations().firstKey());
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void loadInvalidJsonTest() throws IOException {
+		Resource resource = createResource(ResourceType.JSON, "{\"a\":[\"value\"]}");
+		Resources.load(resource);
+	}
+	
+	@Test
+	public void writeJsonTest() throws IOException {
+		Resource resource = createResource(ResourceType.JSON, "{}");
+		resource.storeTranslation("a.a", "value");
+		resource.storeTranslation("a.b.c", "line\nbreak");
+		resource.storeTranslation("a-b", "value");
+		resource.storeTranslation("b", "value");
+		
+		Resources.write(resource, false);
+		assertEquals("{\"a-b\":\"value\",\"a\":{\"a\":\"value\",\"b\":{\"c\":\"line\\nbreak\"}},\"b\":\"value\"}" 
+				+ System.lineSeparator(), read(resource));
+		
+		Resources.write(resource, true);
+		assertEquals("{\n  \"a-b\": \"value\",\n  \"a\": {\n    \"a\": \"value\",\n    \"b\": {\n"
+				+ "      \"c\": \"line\\nbreak\"\n    }\n  },\n  \"b\": \"value\"\n}" + System.lineSeparator(), read(resource));
+	}
+	
+	@Test
+	public void writeEs6Test() throws IOException {
+		Resource resource = createResource(ResourceType.ES6, "export default {};");
+		resource.storeTranslation("a.b", "value");
+		
+		Resources.write(resource, false);
+		assertEquals("export default {\"a\":{\"b\":\"value\"}};" + System.lineSeparator(), read(resource));
+		
+		Resources.load(resource);
+		assertEquals("value", resource.getTranslation("a.b"));
+	}
+	
+	@Test
+	public void writeAtomicTest() throws IOException {
+		Resource resource = createResource(ResourceType.Properties, "");
+		resource.storeTranslation("a.b", "value");
+		assertTrue(resource.isDirty());
+		
+		Resources.write(resource, false);
+		assertFalse(resource.isDirty());
+		assertArrayEquals(new String[] { resource.getPath().getFileName().toString() }, folder.getRoot().list());
+		
+		Resources.load(resource);
+		assertEquals("value", resource.getTranslation("a.b"));
+	}
+	
+	@Test
+	public void writeChangesJsonTest() throws IOException {
+		Resource resource = createResource(ResourceType.JSON, "{\n"
+				+ "    \"b\": \"b\",\n"
+				+ "    \"a\": {\n"
+				+ "        \"y\": \"y\",\n"
+				+ "        \"x\": 1\n"
+				+ "    },\n"
+				+ "    \"c\": \"c\"\n"
+				+ "}\n");
+		Resources.load(resource);
+		resource.storeTranslation("a.x", "x2");
+		resource.storeTranslation("a.z", "z");
+		resource.removeTranslation("c");
+		resource.storeTranslation("d.e", "e");
+		resource.storeTranslation("0", "0");
+		
+		Resources.write(resource, true);
+		assertEquals("{\n"
+				+ "    \"0\": \"0\",\n"
+				+ "    \"b\": \"b\",\n"
+				+ "    \"d\": {\n"
+				+ "        \"e\": \"e\"\n"
+				+ "    },\n"
+				+ "    \"a\": {\n"
+				+ "        \"y\": \"y\",\n"
+				+ "        \"z\": \"z\",\n"
+				+ "        \"x\": \"x2\"\n"
+				+ "    }\n"
+				+ "}\n", read(resource));
+		
+		// The layout is updated after writing, so subsequent changes are written in place as well
+		resource.storeTranslation("d.e", "e2");
+		resource.removeTranslation("0");
+		resource.removeTranslation("a.y");
+		Resources.write(resource, true);
+		assertEquals("{\n"
+				+ "    \"b\": \"b\",\n"
+				+ "    \"d\": {\n"
+				+ "        \"e\": \"e2\"\n"
+				+ "    },\n"
+				+ "    \"a\": {\n"
+				+ "        \"z\": \"z\",\n"
+				+ "        \"x\": \"x2\"\n"
+				+ "    }\n"
+				+ "}\n", read(resource));
+		
+		SortedMap<String,String> translations = resource.getTranslations();
+		Resources.load(resource);
+		assertEquals(translations, resource.getTranslations());
+	}
+	
+	@Test
+	public void writeChangesPropertiesTest() throws IOException {
+		Resource resource = createResource(ResourceType.Properties, "# Comment\n"
+				+ "b=b\n"
+				+ "\n"
+				+ "a = a\n"
+				+ "c : multi \\\n"
+				+ "    line");
+		Resources.load(resource);
+		resource.storeTranslation("a", "a2");
+		resource.removeTranslation("b");
+		resource.storeTranslation("bb", "bb");
+		resource.storeTranslation("d", "d");
+		
+		Resources.write(resource, false);
+		assertEquals("# Comment\n"
+				+ "\n"
+				+ "a = a2\n"
+				+ "bb=bb\n"
+				+ "c : multi \\\n"
+				+ "    line\n"
+				+ "d=d", read(resource));
+		
+		resource.storeTranslation("d", "d2");
+		resource.storeTranslation("e", "e");
+		Resources.write(resource, false);
+		assertEquals("# Comment\n"
+				+ "\n"
+				+ "a = a2\n"
+				+ "bb=bb\n"
+				+ "c : multi \\\n"
+				+ "    line\n"
+				+ "d=d2\n"
+				+ "e=e", read(resource));
+	}
+	
+	@Test
+	public void writeChangesEs6Test() throws IOException {
+		Resource resource = createResource(ResourceType.ES6, "// Comment\nexport default {\n  \"a\": \"a\"\n};\n");
+		Resources.load(resource);
+		resource.storeTranslation("a", "a2");
+		
+		Resources.write(resource, true);
+		assertEquals("// Comment\nexport default {\n  \"a\": \"a2\"\n};\n", read(resource));
+	}
+	
+	@Test
+	public void writeChangesEs6ObjectLiteralTest() throws IOException {
+		Resource resource = createResource(ResourceType.ES6,
+				"export default {\n  // Comment\n  a: 'a',\n  c: 'c', // Comment\n};\n");
+		Resources.load(resource);
+		resource.storeTranslation("a", "a2");
+		resource.storeTranslation("b", "b");
+		
+		Resources.write(resource, true);
+		assertEquals("export default {\n  // Comment\n  a: \"a2\",\n  \"b\": \"b\",\n  c: 'c', // Comment\n};\n",
+				read(resource));
+	}
+	
+	@Test
+	public void writeChangesFormattingTest() throws IOException {
+		Resource resource = createResource(ResourceType.JSON, "{\"b\":\"b\",\"a\":\"a\"}");
+		Resources.load(resource);
+		resource.storeTranslation("a", "a2");
+		
+		// The file is written as a whole when its formatting does not match
+		Resources.write(resource, true);
+		assertEquals("{\n  \"a\": \"a2\",\n  \"b\": \"b\"\n}" + System.lineSeparator(), read(resource));
+	}
+	
+	@Test
+	public void diffTest() {
+		SortedMap<String,String> a = Maps.newTreeMap();
+		a.put("a", "a");
+		a.put("b", "b");
+		a.put("c", "c");
+		SortedMap<String,String> b = Maps.newTreeMap();
+		b.put("b", "b");
+		b.put("c", "d");
+		b.put("e", "e");
+		Map<String,String> diff = Resources.diff(a, b);
+		
+		assertEquals(Lists.newArrayList("a", "c", "e"), Lists.newArrayList(diff.keySet()));
+		assertNull(diff.get("a"));
+		assertEquals("d", diff.get("c"));
+		assertEquals("e", diff.get("e"));
+		assertTrue(Resources.diff(a, a).isEmpty());
+	}
+	
+	private String read(Resource resource) throws IOException {
+		return new String(Files.readAllBytes(resource.getPath()), StandardCharsets.UTF_8);
+	}
+	
+	private Map<Path,Locale> getResources(Path root, Optional<ResourceType> type, int depth) throws IOException {
+		Map<Path,Locale> result = Maps.newHashMap();
+		Resources.get(root, "translations", type, depth).forEach(r -> result.put(r.getPath(), r.getLocale()));
+		return result;
+	}
+	
+	private void createFile(Path root, String path) throws IOException {
+		Path file = root.resolve(path);
+		Files.createDirectories(file.getParent());
+		Files.write(file, new byte[0]);
+	}
+	
+	private Resource createResource(ResourceType type, String content) throws IOException {
+		Path path = folder.getRoot().toPath().resolve("translations" + type.getExtension());
+		Files.write(path, content.getBytes(StandardCharsets.UTF_8));
+		return new Resource(type, path, Locale.ENGLISH);
+	}
+}
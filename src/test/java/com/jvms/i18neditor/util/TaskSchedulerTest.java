@@ -0,0 +1,104 @@
+package com.jvms.i18neditor.util;
+
+import static org.junit.Assert.*;
+
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.Lists;
+import com.jvms.i18neditor.util.TaskScheduler.Priority;
+
+/**
+ *
+ * @author Jacob
+ */
+public class TaskSchedulerTest {
+	private TaskScheduler scheduler;
+	private CountDownLatch started;
+	private CountDownLatch release;
+	private CompletableFuture<Void> blocking;
+	
+	@Before
+	public void setup() throws Exception {
+		scheduler = new TaskScheduler("test", 1);
+		started = new CountDownLatch(1);
+		release = new CountDownLatch(1);
+		
+		// Occupies the only thread, so all other tasks are queued
+		blocking = scheduler.run(Priority.BACKGROUND, () -> {
+			started.countDown();
+			try {
+				release.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		});
+		assertTrue(started.await(5, TimeUnit.SECONDS));
+	}
+	
+	@After
+	public void tearDown() {
+		release.countDown();
+		scheduler.shutdown();
+	}
+	
+	@Test
+	public void priorityTest() throws Exception {
+		List<String> order = Lists.newArrayList();
+		CompletableFuture<Void> background = scheduler.run(Priority.BACKGROUND, () -> order.add("background"));
+		CompletableFuture<Void> visible = scheduler.run(Priority.USER_VISIBLE, () -> order.add("visible"));
+		CompletableFuture<Void> blocking1 = scheduler.run(Priority.USER_BLOCKING, () -> order.add("blocking1"));
+		CompletableFuture<Void> blocking2 = scheduler.run(Priority.USER_BLOCKING, () -> order.add("blocking2"));
+		release.countDown();
+		
+		CompletableFuture.allOf(background, visible, blocking1, blocking2).get(5, TimeUnit.SECONDS);
+		assertEquals(Lists.newArrayList("blocking1", "blocking2", "visible", "background"), order);
+	}
+	
+	@Test
+	public void submitTest() throws Exception {
+		CompletableFuture<String> result = scheduler.submit(Priority.USER_BLOCKING, () -> "result");
+		CompletableFuture<String> error = scheduler.submit(Priority.USER_BLOCKING, () -> {
+			throw new IllegalStateException();
+		});
+		release.countDown();
+		
+		assertEquals("result", result.get(5, TimeUnit.SECONDS));
+		try {
+			error.join();
+			fail();
+		} catch (CompletionException e) {
+			assertTrue(e.getCause() instanceof IllegalStateException);
+		}
+	}
+	
+	@Test
+	public void cancelTest() throws Exception {
+		List<String> order = Lists.newArrayList();
+		CompletableFuture<Void> cancelled = scheduler.run(Priority.USER_BLOCKING, () -> order.add("cancelled"));
+		CompletableFuture<Void> next = scheduler.run(Priority.USER_BLOCKING, () -> order.add("next"));
+		
+		assertTrue(cancelled.cancel(false));
+		assertFalse(blocking.cancel(true));
+		release.countDown();
+		
+		next.get(5, TimeUnit.SECONDS);
+		blocking.get(5, TimeUnit.SECONDS);
+		assertEquals(Lists.newArrayList("next"), order);
+		assertTrue(cancelled.isCancelled());
+		try {
+			cancelled.join();
+			fail();
+		} catch (CancellationException e) {
+			// Expected
+		}
+	}
+}